@@ -0,0 +1,615 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wallride.autoconfigure;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.search.backend.AddLuceneWork;
+import org.hibernate.search.backend.DeleteLuceneWork;
+import org.hibernate.search.backend.IndexingMonitor;
+import org.hibernate.search.backend.LuceneWork;
+import org.hibernate.search.backend.UpdateLuceneWork;
+import org.hibernate.search.backend.impl.LocalBackend;
+import org.hibernate.search.backend.spi.Backend;
+import org.hibernate.search.backend.spi.BackendQueueProcessor;
+import org.hibernate.search.exception.ErrorHandler;
+import org.hibernate.search.exception.SearchException;
+import org.hibernate.search.exception.impl.ErrorContextBuilder;
+import org.hibernate.search.indexes.spi.IndexManager;
+import org.hibernate.search.spi.WorkerBuildContext;
+import org.hibernate.search.util.configuration.impl.ConfigurationParseHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hibernate Search backend applying the index work of committed transactions asynchronously.
+ * Work is queued per index, repeated work on the same document is coalesced into the latest one,
+ * and the queue is committed to the local Lucene backend in batches on a worker pool shared by all
+ * indexes. When an index has {@code worker.batch.queue_size} documents pending, committing
+ * transactions wait for the queue to drain.
+ * <p>
+ * A batch stays at the head of the queue until it is committed. A failed batch is retried with an
+ * exponential backoff up to {@code worker.batch.max_retries} times, after which it is dropped and
+ * reported to the {@link ErrorHandler} of Hibernate Search.
+ * <p>
+ * Since committed transactions are only visible in the index a little later, whatever reads the
+ * index on behalf of a write waits for its work with {@link #afterQueuedWork} or
+ * {@link #awaitQueuedWork}.
+ * <p>
+ * Enabled with {@code hibernate.search.default.worker.backend}; the {@code worker.batch.*}
+ * properties are read from the same scope.
+ */
+public class AsyncBatchingIndexBackend implements Backend {
+
+	public static final String QUEUE_SIZE = "worker.batch.queue_size";
+
+	public static final String MAX_BATCH_SIZE = "worker.batch.max_size";
+
+	public static final String DELAY = "worker.batch.delay";
+
+	public static final String THREAD_POOL_SIZE = "worker.batch.thread_pool.size";
+
+	public static final String MAX_RETRIES = "worker.batch.max_retries";
+
+	public static final String QUEUE_DEPTH_METRIC_NAME = "wallride.index.queue.depth";
+
+	public static final String COMMIT_METRIC_NAME = "wallride.index.commit";
+
+	public static final String COALESCED_METRIC_NAME = "wallride.index.coalesced";
+
+	public static final String BACKPRESSURE_METRIC_NAME = "wallride.index.backpressure";
+
+	private static final long MAX_BACKOFF = TimeUnit.SECONDS.toMillis(30);
+
+	private static final Object executorLock = new Object();
+
+	private static volatile ScheduledThreadPoolExecutor executor;
+
+	private static int executorUsers;
+
+	private static final Set<BatchingQueueProcessor> processors = ConcurrentHashMap.newKeySet();
+
+	private static Logger logger = LoggerFactory.getLogger(AsyncBatchingIndexBackend.class);
+
+	private int queueSize;
+
+	private int maxBatchSize;
+
+	private long delay;
+
+	private int maxRetries;
+
+	private ErrorHandler errorHandler;
+
+	@Override
+	public void initialize(Properties properties, WorkerBuildContext context) {
+		this.queueSize = ConfigurationParseHelper.getIntValue(properties, QUEUE_SIZE, 1000);
+		this.maxBatchSize = ConfigurationParseHelper.getIntValue(properties, MAX_BATCH_SIZE, 100);
+		this.delay = ConfigurationParseHelper.getIntValue(properties, DELAY, 100);
+		this.maxRetries = ConfigurationParseHelper.getIntValue(properties, MAX_RETRIES, 5);
+		this.errorHandler = context.getErrorHandler();
+		int threads = ConfigurationParseHelper.getIntValue(properties, THREAD_POOL_SIZE, 2);
+		synchronized (executorLock) {
+			if (executor == null) {
+				AtomicInteger count = new AtomicInteger();
+				executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+					Thread thread = new Thread(runnable, "index-writer-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+			}
+			executorUsers++;
+		}
+	}
+
+	@Override
+	public void close() {
+		synchronized (executorLock) {
+			if (--executorUsers > 0) {
+				return;
+			}
+			executor.shutdown();
+			try {
+				if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+					logger.warn("Index writer did not terminate within 30 seconds");
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			executor = null;
+		}
+	}
+
+	@Override
+	public BackendQueueProcessor createQueueProcessor(IndexManager indexManager, WorkerBuildContext context) {
+		return createQueueProcessor(indexManager.getIndexName(), LocalBackend.INSTANCE.createQueueProcessor(indexManager, context));
+	}
+
+	BackendQueueProcessor createQueueProcessor(String indexName, BackendQueueProcessor delegate) {
+		BatchingQueueProcessor processor = new BatchingQueueProcessor(indexName, delegate);
+		processors.add(processor);
+		return processor;
+	}
+
+	/**
+	 * Runs the given callback once the work queued so far on every index has been committed or
+	 * dropped, right away when none is queued. It runs on an index writer thread otherwise.
+	 */
+	public static void afterQueuedWork(Runnable callback) {
+		whenQueuedWorkDone(committed -> callback.run());
+	}
+
+	/**
+	 * Waits until the work queued so far on every index has been committed.
+	 *
+	 * @throws SearchException if some of the work was dropped, or the wait was interrupted
+	 */
+	public static void awaitQueuedWork() {
+		CompletableFuture<Boolean> done = new CompletableFuture<>();
+		whenQueuedWorkDone(done::complete);
+		try {
+			if (!done.get()) {
+				throw new SearchException("Some of the queued index work could not be committed");
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SearchException("Interrupted while waiting for the queued index work");
+		}
+		catch (ExecutionException e) {
+			throw new SearchException(e.getCause());
+		}
+	}
+
+	private static void whenQueuedWorkDone(Consumer<Boolean> callback) {
+		List<BatchingQueueProcessor> current = new ArrayList<>(processors);
+		AtomicInteger remaining = new AtomicInteger(current.size() + 1);
+		AtomicBoolean dropped = new AtomicBoolean();
+		Consumer<Boolean> part = committed -> {
+			if (!committed) {
+				dropped.set(true);
+			}
+			if (remaining.decrementAndGet() == 0) {
+				try {
+					callback.accept(!dropped.get());
+				}
+				catch (RuntimeException e) {
+					logger.error("Failed to run a callback of the index queue", e);
+				}
+			}
+		};
+		for (BatchingQueueProcessor processor : current) {
+			processor.addBarrier(part);
+		}
+		part.accept(true);
+	}
+
+	@Override
+	public String toString() {
+		return "AsyncBatchingIndexBackend";
+	}
+
+	private class BatchingQueueProcessor implements BackendQueueProcessor {
+
+		private final String indexName;
+
+		private final BackendQueueProcessor delegate;
+
+		/** Pending work in arrival order, keyed by document or by a unique key for index-wide work */
+		private final Map<Object, LuceneWork> pending = new LinkedHashMap<>();
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		private final Condition notFull = lock.newCondition();
+
+		/** Held while a batch is taken and applied, so batches reach the index in queue order */
+		private final ReentrantLock applying = new ReentrantLock();
+
+		private final Timer commitTimer;
+
+		/** Incremented by each index-wide work, so that documents are never coalesced across it */
+		private long generation;
+
+		private boolean scheduled;
+
+		/** Consecutive failures of the batch at the head of the queue, guarded by {@link #applying} */
+		private int failures;
+
+		/** Callbacks waiting for the works queued before them, guarded by {@link #lock} */
+		private final List<Barrier> barriers = new ArrayList<>();
+
+		private volatile boolean closed;
+
+		BatchingQueueProcessor(String indexName, BackendQueueProcessor delegate) {
+			this.indexName = indexName;
+			this.delegate = delegate;
+			this.commitTimer = Metrics.timer(COMMIT_METRIC_NAME, "index", indexName);
+			Metrics.gauge(QUEUE_DEPTH_METRIC_NAME, Tags.of("index", indexName), this, BatchingQueueProcessor::depth);
+		}
+
+		@Override
+		public void applyWork(List<LuceneWork> workList, IndexingMonitor monitor) {
+			if (monitor != null || closed) {
+				// The caller tracks the outcome of this work, so it is applied in place
+				drain();
+				delegate.applyWork(workList, monitor);
+				return;
+			}
+			boolean inPlace = false;
+			lock.lock();
+			try {
+				for (LuceneWork work : workList) {
+					enqueue(work);
+				}
+				if (!scheduled) {
+					scheduled = schedule();
+					inPlace = !scheduled;
+				}
+			}
+			finally {
+				lock.unlock();
+			}
+			if (inPlace) {
+				drain();
+			}
+		}
+
+		@Override
+		public void applyStreamWork(LuceneWork singleOperation, IndexingMonitor monitor) {
+			drain();
+			delegate.applyStreamWork(singleOperation, monitor);
+		}
+
+		@Override
+		public void close() {
+			lock.lock();
+			try {
+				closed = true;
+				notFull.signalAll();
+			}
+			finally {
+				lock.unlock();
+			}
+			try {
+				drain();
+			}
+			catch (RuntimeException e) {
+				discardPending(e);
+			}
+			delegate.close();
+			processors.remove(this);
+			Metrics.globalRegistry.find(QUEUE_DEPTH_METRIC_NAME).tag("index", indexName).meters()
+					.forEach(Metrics.globalRegistry::remove);
+		}
+
+		private void enqueue(LuceneWork work) {
+			DocumentKey key = (work.getIdInString() != null) ? new DocumentKey(work, generation) : null;
+			if (key == null) {
+				generation++;
+				pending.put(new Object(), work);
+				return;
+			}
+			LuceneWork previous = pending.get(key);
+			if (previous != null) {
+				pending.put(key, merge(previous, work));
+				Metrics.counter(COALESCED_METRIC_NAME, "index", indexName).increment();
+				return;
+			}
+			if (pending.size() >= queueSize && !closed) {
+				long start = System.nanoTime();
+				try {
+					while (pending.size() >= queueSize && !closed) {
+						notFull.await();
+					}
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new SearchException("Interrupted while waiting for the index queue of " + indexName);
+				}
+				Metrics.timer(BACKPRESSURE_METRIC_NAME, "index", indexName).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+				// The queue may have been drained up to and including an index-wide work meanwhile
+				key = new DocumentKey(work, generation);
+				previous = pending.get(key);
+				if (previous != null) {
+					pending.put(key, merge(previous, work));
+					return;
+				}
+			}
+			pending.put(key, work);
+		}
+
+		/**
+		 * Only the latest state of a document has to be indexed: a deletion wins over anything
+		 * queued before it, and any later document replaces whatever was queued or already indexed.
+		 */
+		private LuceneWork merge(LuceneWork previous, LuceneWork work) {
+			if (work instanceof DeleteLuceneWork) {
+				return work;
+			}
+			if (work instanceof AddLuceneWork || work instanceof UpdateLuceneWork) {
+				return new UpdateLuceneWork(work.getTenantId(), work.getId(), work.getIdInString(), work.getEntityType(),
+						work.getDocument(), work.getFieldToAnalyzerMap());
+			}
+			return work;
+		}
+
+		private void run() {
+			try {
+				while (applyBatch()) {
+					// Keep committing until the queue is empty
+				}
+			}
+			catch (RuntimeException e) {
+				long backoff = backoff();
+				logger.warn("Failed to apply a batch to index [{}], retrying in {}ms", indexName, backoff, e);
+				reschedule(backoff);
+			}
+		}
+
+		private long backoff() {
+			applying.lock();
+			try {
+				return Math.min(delay << Math.min(failures, 20), MAX_BACKOFF);
+			}
+			finally {
+				applying.unlock();
+			}
+		}
+
+		private void reschedule(long delay) {
+			lock.lock();
+			try {
+				scheduled = !pending.isEmpty() && !closed && schedule(delay);
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+
+		private boolean schedule() {
+			return schedule(delay);
+		}
+
+		/**
+		 * @return {@code false} when the worker pool is already shut down
+		 */
+		private boolean schedule(long delay) {
+			ScheduledThreadPoolExecutor current = executor;
+			if (current == null) {
+				return false;
+			}
+			try {
+				current.schedule(this::run, delay, TimeUnit.MILLISECONDS);
+				return true;
+			}
+			catch (RejectedExecutionException e) {
+				return false;
+			}
+		}
+
+		private void drain() {
+			while (applyBatch()) {
+				// Apply everything queued before the caller's work
+			}
+		}
+
+		/**
+		 * Applies the works at the head of the queue, which are only removed once committed. A batch
+		 * failing more than {@code maxRetries} times in a row is dropped and reported instead.
+		 * @return {@code false} when the queue was empty
+		 */
+		private boolean applyBatch() {
+			List<Barrier> released = new ArrayList<>();
+			applying.lock();
+			try {
+				Map<Object, LuceneWork> batch = new LinkedHashMap<>();
+				lock.lock();
+				try {
+					Iterator<Map.Entry<Object, LuceneWork>> works = pending.entrySet().iterator();
+					while (works.hasNext() && batch.size() < maxBatchSize) {
+						Map.Entry<Object, LuceneWork> work = works.next();
+						batch.put(work.getKey(), work.getValue());
+					}
+					if (batch.isEmpty()) {
+						scheduled = false;
+						return false;
+					}
+				}
+				finally {
+					lock.unlock();
+				}
+				List<LuceneWork> works = new ArrayList<>(batch.values());
+				long start = System.nanoTime();
+				try {
+					delegate.applyWork(works, null);
+				}
+				catch (RuntimeException e) {
+					if (++failures <= maxRetries) {
+						throw e;
+					}
+					logger.error("Dropping {} works for index [{}] after {} failed attempts", works.size(), indexName, failures);
+					failures = 0;
+					released = remove(batch, false);
+					errorHandler.handle(new ErrorContextBuilder()
+							.errorThatOccurred(e)
+							.allWorkToBeDone(works)
+							.addAllWorkThatFailed(works)
+							.createErrorContext());
+					return true;
+				}
+				failures = 0;
+				commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+				logger.debug("Committed {} works to index [{}]", works.size(), indexName);
+				released = remove(batch, true);
+				return true;
+			}
+			finally {
+				applying.unlock();
+				release(released);
+			}
+		}
+
+		/**
+		 * Removes the applied or dropped works from the queue, keeping any work coalesced into them
+		 * meanwhile.
+		 * @return the barriers no longer waiting for any work
+		 */
+		private List<Barrier> remove(Map<Object, LuceneWork> batch, boolean committed) {
+			lock.lock();
+			try {
+				for (Map.Entry<Object, LuceneWork> work : batch.entrySet()) {
+					if (pending.get(work.getKey()) == work.getValue()) {
+						pending.remove(work.getKey());
+					}
+				}
+				notFull.signalAll();
+				List<Barrier> released = new ArrayList<>();
+				Iterator<Barrier> iterator = barriers.iterator();
+				while (iterator.hasNext()) {
+					Barrier barrier = iterator.next();
+					if (!committed && batch.keySet().stream().anyMatch(barrier.keys::contains)) {
+						barrier.committed = false;
+					}
+					barrier.keys.removeIf(key -> !pending.containsKey(key));
+					if (barrier.keys.isEmpty()) {
+						iterator.remove();
+						released.add(barrier);
+					}
+				}
+				return released;
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+
+		private void addBarrier(Consumer<Boolean> callback) {
+			Barrier barrier = new Barrier(callback);
+			lock.lock();
+			try {
+				if (!pending.isEmpty()) {
+					barrier.keys.addAll(pending.keySet());
+					barriers.add(barrier);
+					return;
+				}
+			}
+			finally {
+				lock.unlock();
+			}
+			barrier.callback.accept(true);
+		}
+
+		private void release(List<Barrier> released) {
+			for (Barrier barrier : released) {
+				barrier.callback.accept(barrier.committed);
+			}
+		}
+
+		private void discardPending(RuntimeException e) {
+			List<LuceneWork> works;
+			List<Barrier> released;
+			lock.lock();
+			try {
+				works = new ArrayList<>(pending.values());
+				pending.clear();
+				notFull.signalAll();
+				released = new ArrayList<>(barriers);
+				released.forEach(barrier -> barrier.committed = false);
+				barriers.clear();
+			}
+			finally {
+				lock.unlock();
+			}
+			release(released);
+			logger.error("Dropping {} works for index [{}] on close", works.size(), indexName);
+			errorHandler.handle(new ErrorContextBuilder()
+					.errorThatOccurred(e)
+					.allWorkToBeDone(works)
+					.addAllWorkThatFailed(works)
+					.createErrorContext());
+		}
+
+		private int depth() {
+			lock.lock();
+			try {
+				return pending.size();
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * A callback waiting for the works queued when it was registered to leave the queue.
+	 */
+	private static class Barrier {
+
+		private final Set<Object> keys = new HashSet<>();
+
+		private final Consumer<Boolean> callback;
+
+		private boolean committed = true;
+
+		Barrier(Consumer<Boolean> callback) {
+			this.callback = callback;
+		}
+	}
+
+	private static class DocumentKey {
+
+		private final Object[] values;
+
+		DocumentKey(LuceneWork work, long generation) {
+			this.values = new Object[] { work.getEntityType().getName(), work.getTenantId(), work.getIdInString(), generation };
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof DocumentKey && Arrays.equals(values, ((DocumentKey) other).values);
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(values);
+		}
+	}
+}
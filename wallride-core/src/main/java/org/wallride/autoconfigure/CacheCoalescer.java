@@ -0,0 +1,157 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.autoconfigure;
+
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.interceptor.CacheOperationInvoker;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Lets a single caller load a missing cache entry while the concurrent callers for the same key
+ * wait for its result. A caller waiting longer than the wait timeout of the cache is served the
+ * value evicted last for the key, if any.
+ */
+public class CacheCoalescer {
+
+	public static final String COALESCED_METRIC_NAME = "wallride.cache.coalesced";
+
+	public static final String STALE_METRIC_NAME = "wallride.cache.stale";
+
+	/**
+	 * Number of evicted values kept per cache to be served while their key is reloaded.
+	 */
+	private static final int MAX_STALE_VALUES = 256;
+
+	private final Map<String, Duration> waitTimeouts;
+
+	private final ConcurrentMap<String, ConcurrentMap<Object, CompletableFuture<Object>>> loads = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, Map<Object, Object>> staleValues = new ConcurrentHashMap<>();
+
+	public CacheCoalescer(Map<String, Duration> waitTimeouts) {
+		this.waitTimeouts = waitTimeouts;
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> T get(Cache cache, Object key, Callable<T> valueLoader) {
+		Cache.ValueWrapper wrapper = cache.get(key);
+		if (wrapper != null) {
+			return (T) wrapper.get();
+		}
+
+		ConcurrentMap<Object, CompletableFuture<Object>> cacheLoads = loads.computeIfAbsent(cache.getName(), name -> new ConcurrentHashMap<>());
+		CompletableFuture<Object> load = new CompletableFuture<>();
+		CompletableFuture<Object> running = cacheLoads.putIfAbsent(key, load);
+		if (running != null) {
+			Metrics.counter(COALESCED_METRIC_NAME, "cache", cache.getName()).increment();
+			return (T) await(cache, key, running, valueLoader);
+		}
+
+		try {
+			T value = valueLoader.call();
+			cache.put(key, value);
+			getStaleValues(cache.getName()).remove(key);
+			load.complete(value);
+			return value;
+		}
+		catch (Throwable e) {
+			load.completeExceptionally(e);
+			throw retrievalException(key, valueLoader, e);
+		}
+		finally {
+			cacheLoads.remove(key, load);
+		}
+	}
+
+	/**
+	 * Keeps the value of an evicted entry to be served while the entry is loaded again.
+	 */
+	public void stale(String cacheName, Object key, Object value) {
+		getStaleValues(cacheName).put(key, value);
+	}
+
+	private Object await(Cache cache, Object key, CompletableFuture<Object> load, Callable<?> valueLoader) {
+		try {
+			Duration timeout = waitTimeouts.get(cache.getName());
+			if (timeout == null) {
+				return load.get();
+			}
+			try {
+				return load.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+			}
+			catch (TimeoutException e) {
+				Map<Object, Object> stale = getStaleValues(cache.getName());
+				synchronized (stale) {
+					if (stale.containsKey(key)) {
+						Metrics.counter(STALE_METRIC_NAME, "cache", cache.getName()).increment();
+						return stale.get(key);
+					}
+				}
+				// Nothing to serve in the meantime, stop waiting and load the value on its own
+				return load(key, valueLoader);
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw retrievalException(key, valueLoader, new IllegalStateException("Interrupted while waiting for the load of " + key, e));
+		}
+		catch (ExecutionException e) {
+			// The load failed for the caller running it, let this one try on its own
+			return load(key, valueLoader);
+		}
+	}
+
+	private Object load(Object key, Callable<?> valueLoader) {
+		try {
+			return valueLoader.call();
+		}
+		catch (Throwable e) {
+			throw retrievalException(key, valueLoader, e);
+		}
+	}
+
+	/**
+	 * The caching aspect expects the cause of a {@link Cache.ValueRetrievalException} to be the
+	 * {@link CacheOperationInvoker.ThrowableWrapper} thrown by the cached method, and unwraps it to
+	 * rethrow the original exception.
+	 */
+	private static Cache.ValueRetrievalException retrievalException(Object key, Callable<?> valueLoader, Throwable e) {
+		Throwable cause = (e instanceof CacheOperationInvoker.ThrowableWrapper) ? e : new CacheOperationInvoker.ThrowableWrapper(e);
+		return new Cache.ValueRetrievalException(key, valueLoader, cause);
+	}
+
+	private Map<Object, Object> getStaleValues(String cacheName) {
+		return staleValues.computeIfAbsent(cacheName, name -> Collections.synchronizedMap(new LinkedHashMap<Object, Object>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+				return size() > MAX_STALE_VALUES;
+			}
+		}));
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.autoconfigure;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Something a cached entry depends on. A write invalidates every entry that depends on one of
+ * the things it changed, plus every entry that depends on {@link #ALL}.
+ */
+@SuppressWarnings("serial")
+public final class CacheDependency implements Serializable {
+
+	public enum Type {
+		ALL, POST, CATEGORY, TAG, LANGUAGE
+	}
+
+	public static final CacheDependency ALL = new CacheDependency(Type.ALL, null);
+
+	private final Type type;
+
+	private final Object value;
+
+	private CacheDependency(Type type, Object value) {
+		this.type = type;
+		this.value = value;
+	}
+
+	public static CacheDependency post(long id) {
+		return new CacheDependency(Type.POST, id);
+	}
+
+	public static CacheDependency category(long id) {
+		return new CacheDependency(Type.CATEGORY, id);
+	}
+
+	public static CacheDependency tag(long id) {
+		return new CacheDependency(Type.TAG, id);
+	}
+
+	/**
+	 * Listings in the given language. Only entries holding a collection of posts depend on a language,
+	 * since any write in that language may change their membership.
+	 */
+	public static CacheDependency language(String language) {
+		return new CacheDependency(Type.LANGUAGE, language);
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public Object getValue() {
+		return value;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) return true;
+		if (other == null || getClass() != other.getClass()) return false;
+		CacheDependency that = (CacheDependency) other;
+		return type == that.type && Objects.equals(value, that.value);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(type, value);
+	}
+
+	@Override
+	public String toString() {
+		return (value != null) ? type + ":" + value : type.toString();
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.autoconfigure;
+
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntriesEvicted;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryExpired;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryInvalidated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryRemoved;
+import org.infinispan.notifications.cachelistener.event.CacheEntriesEvictedEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryEvent;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reverse index from {@link CacheDependency} to the cache keys whose values depend on it.
+ * The index is maintained by an Infinispan listener per cache, so entries written on other
+ * cluster members are indexed as well.
+ */
+public class CacheDependencyRegistry {
+
+	private final ConcurrentMap<String, Index> indexes = new ConcurrentHashMap<>();
+
+	public Object listener(String cacheName) {
+		return new DependencyListener(cacheName);
+	}
+
+	public void register(String cacheName, Object key, Set<CacheDependency> dependencies) {
+		Index index = indexes.computeIfAbsent(cacheName, name -> new Index());
+		index.remove(key);
+		index.add(key, dependencies);
+	}
+
+	public void unregister(String cacheName, Object key) {
+		Index index = indexes.get(cacheName);
+		if (index != null) {
+			index.remove(key);
+		}
+	}
+
+	public void clear(String cacheName) {
+		indexes.remove(cacheName);
+	}
+
+	/**
+	 * @return the keys of the given cache depending on any of the given dependencies, including the
+	 * keys depending on {@link CacheDependency#ALL}
+	 */
+	public Set<Object> getDependentKeys(String cacheName, Collection<CacheDependency> dependencies) {
+		Index index = indexes.get(cacheName);
+		if (index == null) {
+			return Collections.emptySet();
+		}
+		Set<Object> keys = new HashSet<>(index.get(CacheDependency.ALL));
+		for (CacheDependency dependency : dependencies) {
+			keys.addAll(index.get(dependency));
+		}
+		return keys;
+	}
+
+	public int size(String cacheName) {
+		Index index = indexes.get(cacheName);
+		return (index != null) ? index.dependencies.size() : 0;
+	}
+
+	private static class Index {
+
+		private final ConcurrentMap<CacheDependency, Set<Object>> keys = new ConcurrentHashMap<>();
+
+		private final ConcurrentMap<Object, Set<CacheDependency>> dependencies = new ConcurrentHashMap<>();
+
+		void add(Object key, Set<CacheDependency> keyDependencies) {
+			dependencies.put(key, keyDependencies);
+			for (CacheDependency dependency : keyDependencies) {
+				keys.compute(dependency, (d, set) -> {
+					if (set == null) {
+						set = ConcurrentHashMap.newKeySet();
+					}
+					set.add(key);
+					return set;
+				});
+			}
+		}
+
+		void remove(Object key) {
+			Set<CacheDependency> keyDependencies = dependencies.remove(key);
+			if (keyDependencies == null) {
+				return;
+			}
+			for (CacheDependency dependency : keyDependencies) {
+				keys.computeIfPresent(dependency, (d, set) -> {
+					set.remove(key);
+					return set.isEmpty() ? null : set;
+				});
+			}
+		}
+
+		Set<Object> get(CacheDependency dependency) {
+			Set<Object> set = keys.get(dependency);
+			return (set != null) ? set : Collections.emptySet();
+		}
+	}
+
+	@Listener
+	public class DependencyListener {
+
+		private final String cacheName;
+
+		DependencyListener(String cacheName) {
+			this.cacheName = cacheName;
+		}
+
+		@CacheEntryCreated
+		@CacheEntryModified
+		public void onWrite(CacheEntryEvent<Object, Object> event) {
+			if (event.isPre()) {
+				return;
+			}
+			if (event.getValue() instanceof DependentCacheValue) {
+				register(cacheName, event.getKey(), ((DependentCacheValue) event.getValue()).getDependencies());
+			}
+			else {
+				register(cacheName, event.getKey(), Collections.singleton(CacheDependency.ALL));
+			}
+		}
+
+		@CacheEntryRemoved
+		@CacheEntryExpired
+		public void onRemove(CacheEntryEvent<Object, Object> event) {
+			if (!event.isPre()) {
+				unregister(cacheName, event.getKey());
+			}
+		}
+
+		@CacheEntryInvalidated
+		public void onInvalidate(CacheEntryEvent<Object, Object> event) {
+			// Invalidations are only notified before the entry is dropped
+			unregister(cacheName, event.getKey());
+		}
+
+		@CacheEntriesEvicted
+		public void onEvict(CacheEntriesEvictedEvent<Object, Object> event) {
+			for (Object key : event.getEntries().keySet()) {
+				unregister(cacheName, key);
+			}
+		}
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.autoconfigure;
+
+import org.springframework.util.StringUtils;
+import org.wallride.model.ArticleNavigation;
+import org.wallride.model.ArticleSearchRequest;
+import org.wallride.model.PageSearchRequest;
+import org.wallride.model.PostSearchRequest;
+import org.wallride.model.PostView;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Works out what a cached value depends on from the value itself and the arguments of the
+ * {@code @Cacheable} invocation that produced it. Anything that cannot be analysed depends on
+ * {@link CacheDependency#ALL}, so it is still evicted by every write to its cache.
+ */
+public class CacheDependencyResolver {
+
+	public Set<CacheDependency> resolve(Object value, Object[] args) {
+		Set<CacheDependency> dependencies = new HashSet<>();
+		if (value instanceof PostView) {
+			if (!addPost((PostView) value, dependencies)) {
+				return Collections.singleton(CacheDependency.ALL);
+			}
+		}
+		else if (value instanceof ArticleNavigation) {
+			dependencies.add(CacheDependency.language(((ArticleNavigation) value).getLanguage()));
+		}
+		else if (value instanceof Iterable) {
+			if (!isLanguageScoped(args)) {
+				return Collections.singleton(CacheDependency.ALL);
+			}
+			boolean empty = true;
+			for (Object element : (Iterable<?>) value) {
+				empty = false;
+				if (!(element instanceof PostView) || !addPost((PostView) element, dependencies)) {
+					return Collections.singleton(CacheDependency.ALL);
+				}
+				dependencies.add(CacheDependency.language(((PostView) element).getLanguage()));
+			}
+			if (empty) {
+				return Collections.singleton(CacheDependency.ALL);
+			}
+		}
+		else {
+			return Collections.singleton(CacheDependency.ALL);
+		}
+		return dependencies;
+	}
+
+	private boolean addPost(PostView post, Set<CacheDependency> dependencies) {
+		if (!StringUtils.hasText(post.getLanguage())) {
+			return false;
+		}
+		dependencies.add(CacheDependency.post(post.getId()));
+		for (PostView.Category category : post.getCategories()) {
+			dependencies.add(CacheDependency.category(category.getId()));
+		}
+		for (PostView.Tag tag : post.getTags()) {
+			dependencies.add(CacheDependency.tag(tag.getId()));
+		}
+		return true;
+	}
+
+	/**
+	 * A listing only depends on the languages of its elements when the query was restricted to a language;
+	 * otherwise a write in any other language could add to it.
+	 */
+	private boolean isLanguageScoped(Object[] args) {
+		if (args == null) {
+			return true;
+		}
+		for (Object arg : args) {
+			String language = null;
+			if (arg instanceof ArticleSearchRequest) {
+				language = ((ArticleSearchRequest) arg).getLanguage();
+			}
+			else if (arg instanceof PageSearchRequest) {
+				language = ((PageSearchRequest) arg).getLanguage();
+			}
+			else if (arg instanceof PostSearchRequest) {
+				language = ((PostSearchRequest) arg).getLanguage();
+			}
+			else {
+				continue;
+			}
+			if (!StringUtils.hasText(language)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.autoconfigure;
+
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.wallride.domain.Category;
+import org.wallride.domain.CustomFieldValue;
+import org.wallride.domain.Page;
+import org.wallride.domain.Post;
+import org.wallride.domain.Tag;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Evicts the cache entries depending on what a write changed. Inside a transaction the
+ * dependencies are collected and evicted once after commit, so a write is counted as one
+ * invalidation however many service methods it goes through. The eviction waits for the index
+ * work queued by the write, so the entries are not rebuilt from the index before it is updated.
+ */
+public class CacheInvalidator {
+
+	public static final String EVICTED_METRIC_NAME = "wallride.cache.invalidation.evicted";
+
+	private final CacheManager cacheManager;
+
+	private final CacheDependencyRegistry registry;
+
+	private final CacheCoalescer coalescer;
+
+	private final CacheWarmer warmer;
+
+	private static Logger logger = LoggerFactory.getLogger(CacheInvalidator.class);
+
+	public CacheInvalidator(CacheManager cacheManager, CacheDependencyRegistry registry, CacheCoalescer coalescer, CacheWarmer warmer) {
+		this.cacheManager = cacheManager;
+		this.registry = registry;
+		this.coalescer = coalescer;
+		this.warmer = warmer;
+	}
+
+	/**
+	 * Invalidates the entries of a post which was created, deleted or published. The listings of its
+	 * language are invalidated only if the post is listed, that is published.
+	 */
+	public void invalidatePost(String cacheName, Post post) {
+		invalidatePost(cacheName, post, null);
+	}
+
+	/**
+	 * Invalidates the entries of an updated post. The listings are invalidated only if the post was
+	 * or is listed and what they show of it changed, so editing a draft evicts the post alone.
+	 *
+	 * @param listed what the listings showed of the post before the update, see {@link #listing(Post)}
+	 */
+	public void invalidatePost(String cacheName, Post post, Listing listed) {
+		Listing listing = listing(post);
+		if (Objects.equals(listed, listing)) {
+			invalidate(cacheName, CacheDependency.post(post.getId()));
+			return;
+		}
+		Set<CacheDependency> dependencies = new HashSet<>();
+		dependencies.add(CacheDependency.post(post.getId()));
+		for (Listing changed : Arrays.asList(listed, listing)) {
+			if (changed != null) {
+				dependencies.add(CacheDependency.language(changed.language));
+			}
+		}
+		invalidate(cacheName, dependencies);
+	}
+
+	/**
+	 * @return what the cached listings show of the given post, to be taken before it is updated, or
+	 * {@code null} if the post is not published and so not listed
+	 */
+	public static Listing listing(Post post) {
+		if (post.getStatus() != Post.Status.PUBLISHED) {
+			return null;
+		}
+		List<Object> fields = new ArrayList<>(Arrays.asList(post.getCode(), post.getTitle(), post.getBody(), post.getDate(),
+				(post.getCover() != null) ? post.getCover().getId() : null,
+				(post.getAuthor() != null) ? post.getAuthor().getId() : null));
+		if (post.getSeo() != null) {
+			fields.addAll(Arrays.asList(post.getSeo().getTitle(), post.getSeo().getDescription(), post.getSeo().getKeywords()));
+		}
+		for (Category category : post.getCategories()) {
+			fields.add(CacheDependency.category(category.getId()));
+		}
+		for (Tag tag : post.getTags()) {
+			fields.add(CacheDependency.tag(tag.getId()));
+		}
+		for (CustomFieldValue value : post.getCustomFieldValues()) {
+			fields.add(Arrays.asList(value.getCustomField().getId(), value.getValue()));
+		}
+		if (post instanceof Page) {
+			Page page = (Page) post;
+			fields.addAll(Arrays.asList((page.getParent() != null) ? page.getParent().getId() : null, page.getLft(), page.getRgt()));
+		}
+		return new Listing(post.getLanguage(), fields);
+	}
+
+	public void invalidate(String cacheName, CacheDependency... dependencies) {
+		invalidate(cacheName, Arrays.asList(dependencies));
+	}
+
+	public void invalidate(String cacheName, Collection<CacheDependency> dependencies) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			Map<String, Set<CacheDependency>> invalidation = new LinkedHashMap<>();
+			invalidation.put(cacheName, new HashSet<>(dependencies));
+			AsyncBatchingIndexBackend.afterQueuedWork(() -> evict(invalidation));
+			return;
+		}
+		PendingInvalidation pending = (PendingInvalidation) TransactionSynchronizationManager.getResource(this);
+		if (pending == null) {
+			pending = new PendingInvalidation();
+			TransactionSynchronizationManager.bindResource(this, pending);
+			TransactionSynchronizationManager.registerSynchronization(pending);
+		}
+		pending.dependencies.computeIfAbsent(cacheName, name -> new HashSet<>()).addAll(dependencies);
+	}
+
+	protected void evict(Map<String, Set<CacheDependency>> invalidation) {
+		evictLocally(invalidation);
+	}
+
+	/**
+	 * Evicts the dependent entries held by this node.
+	 */
+	protected void evictLocally(Map<String, Set<CacheDependency>> invalidation) {
+		for (Map.Entry<String, Set<CacheDependency>> entry : invalidation.entrySet()) {
+			Cache cache = cacheManager.getCache(entry.getKey());
+			if (cache == null) {
+				continue;
+			}
+			Set<Object> keys = registry.getDependentKeys(entry.getKey(), entry.getValue());
+			for (Object key : keys) {
+				Cache.ValueWrapper wrapper = cache.get(key);
+				if (wrapper != null) {
+					Object value = wrapper.get();
+					coalescer.stale(entry.getKey(), key, (value instanceof DependentCacheValue) ? ((DependentCacheValue) value).getValue() : value);
+				}
+				cache.evict(key);
+			}
+			warmer.evicted(entry.getKey(), keys);
+			Metrics.summary(EVICTED_METRIC_NAME, "cache", entry.getKey()).record(keys.size());
+			logger.debug("Evicted {} entries from cache [{}] for {}", keys.size(), entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Snapshot of what the listings show of a post.
+	 */
+	public static final class Listing {
+
+		private final String language;
+
+		private final List<Object> fields;
+
+		private Listing(String language, List<Object> fields) {
+			this.language = language;
+			this.fields = fields;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) return true;
+			if (other == null || getClass() != other.getClass()) return false;
+			Listing that = (Listing) other;
+			return Objects.equals(language, that.language) && fields.equals(that.fields);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(language, fields);
+		}
+	}
+
+	private class PendingInvalidation implements TransactionSynchronization {
+
+		private final Map<String, Set<CacheDependency>> dependencies = new LinkedHashMap<>();
+
+		@Override
+		public void suspend() {
+			TransactionSynchronizationManager.unbindResource(CacheInvalidator.this);
+		}
+
+		@Override
+		public void resume() {
+			TransactionSynchronizationManager.bindResource(CacheInvalidator.this, this);
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidator.this);
+			if (status == STATUS_COMMITTED) {
+				AsyncBatchingIndexBackend.afterQueuedWork(() -> evict(dependencies));
+			}
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.autoconfigure;
+
+import org.infinispan.commons.marshall.AdvancedExternalizer;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Key of a {@code @Cacheable} invocation made of the identifier of the method and its argument
+ * values. The identifier is the hash of the signature of the method, the same on every node running
+ * the same code, so {@link Externalizer} writes it as a single int when the key is replicated to
+ * the other cluster members. The hash of the key is computed once.
+ */
+@SuppressWarnings("serial")
+public final class CacheKey implements Serializable {
+
+	private static final ConcurrentMap<Integer, String> methods = new ConcurrentHashMap<>();
+
+	private final int methodId;
+
+	private final Object[] params;
+
+	private final int hashCode;
+
+	public CacheKey(int methodId, Object... params) {
+		this.methodId = methodId;
+		this.params = params;
+		this.hashCode = 31 * methodId + Arrays.deepHashCode(params);
+	}
+
+	/**
+	 * @param method the signature of a cached method
+	 * @return the identifier of the method in the keys
+	 * @throws IllegalStateException if another method has the same identifier
+	 */
+	public static int methodId(String method) {
+		int methodId = method.hashCode();
+		String registered = methods.putIfAbsent(methodId, method);
+		if (registered != null && !registered.equals(method)) {
+			throw new IllegalStateException("Cached methods " + registered + " and " + method + " have the same id " + methodId);
+		}
+		return methodId;
+	}
+
+	public int getMethodId() {
+		return methodId;
+	}
+
+	public Object[] getParams() {
+		return params;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) return true;
+		if (other == null || !(other instanceof CacheKey)) return false;
+		CacheKey that = (CacheKey) other;
+		return hashCode == that.hashCode && methodId == that.methodId && Arrays.deepEquals(params, that.params);
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public String toString() {
+		String method = methods.get(methodId);
+		return ((method != null) ? method : "#" + Integer.toHexString(methodId)) + " " + Arrays.deepToString(params);
+	}
+
+	public static class Externalizer implements AdvancedExternalizer<CacheKey> {
+
+		public static final int ID = 3101;
+
+		@Override
+		public Set<Class<? extends CacheKey>> getTypeClasses() {
+			return Collections.singleton(CacheKey.class);
+		}
+
+		@Override
+		public Integer getId() {
+			return ID;
+		}
+
+		@Override
+		public void writeObject(ObjectOutput output, CacheKey key) throws IOException {
+			output.writeInt(key.methodId);
+			output.writeByte(key.params.length);
+			for (Object param : key.params) {
+				output.writeObject(param);
+			}
+		}
+
+		@Override
+		public CacheKey readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+			int methodId = input.readInt();
+			Object[] params = new Object[input.readUnsignedByte()];
+			for (int i = 0; i < params.length; i++) {
+				params[i] = input.readObject();
+			}
+			return new CacheKey(methodId, params);
+		}
+	}
+}
@@ -17,14 +17,24 @@
 package org.wallride.autoconfigure;
 
 import org.springframework.cache.interceptor.KeyGenerator;
-import org.springframework.util.StringUtils;
+import org.wallride.domain.DomainObject;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class CacheKeyGenerator implements KeyGenerator {
 
+	private final ConcurrentMap<Method, Integer> methodIds = new ConcurrentHashMap<>();
+
 	@Override
 	public Object generate(Object target, Method method, Object... params) {
-		return method.toString() + " [" + StringUtils.arrayToCommaDelimitedString(params) + "]";
+		int methodId = methodIds.computeIfAbsent(method, m -> CacheKey.methodId(m.toString()));
+		Object[] values = new Object[params.length];
+		for (int i = 0; i < params.length; i++) {
+			// Entities are equal by id, so the id alone identifies them in the key
+			values[i] = (params[i] instanceof DomainObject) ? ((DomainObject<?>) params[i]).getId() : params[i];
+		}
+		return new CacheKey(methodId, values);
 	}
 }
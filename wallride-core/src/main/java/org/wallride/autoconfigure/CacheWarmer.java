@@ -0,0 +1,506 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wallride.autoconfigure;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Metrics;
+import org.infinispan.AdvancedCache;
+import org.infinispan.container.entries.CacheEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.WritableResource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the most requested keys of each cache warm. The hot keys are rebuilt in the background
+ * right after they are invalidated, refreshed before they expire, and saved on shutdown to be
+ * rebuilt on the next startup.
+ * <p>
+ * Only the calls of the {@link Cacheable} methods of the services whose arguments are supported
+ * by {@link HotKeyArgs}, such as the paged listings, are saved, as JSON. On startup a saved call is
+ * replayed only if it names one of these methods and its arguments match the parameter types of
+ * the method; nothing read from the file is resolved as a class or a method.
+ */
+public class CacheWarmer implements ApplicationContextAware, ApplicationListener<ApplicationReadyEvent>, DisposableBean {
+
+	public static final String WARMUP_METRIC_NAME = "wallride.cache.warmup";
+
+	/**
+	 * Share of the time to live, or of the max idle time, after which a hot entry is refreshed.
+	 */
+	private static final double REFRESH_AHEAD_RATIO = 0.8;
+
+	private static final long REFRESH_INTERVAL_SECONDS = 30;
+
+	private static final ThreadLocal<Boolean> WARMING = ThreadLocal.withInitial(() -> false);
+
+	private final Map<String, Integer> hotKeyLimits;
+
+	private final CacheDependencyResolver dependencyResolver;
+
+	private final String location;
+
+	private final ConcurrentMap<String, ConcurrentMap<Object, HotKey>> hotKeys = new ConcurrentHashMap<>();
+
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("cache-warmer-"));
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final Progress progress = new Progress();
+
+	/**
+	 * The methods whose calls can be saved and replayed, by {@link #operationId}.
+	 */
+	private volatile Map<String, Operation> operations = Collections.emptyMap();
+
+	private ApplicationContext applicationContext;
+
+	private TransactionTemplate transactionTemplate;
+
+	private static Logger logger = LoggerFactory.getLogger(CacheWarmer.class);
+
+	/**
+	 * @param hotKeyLimits number of hot keys kept warm per cache
+	 * @param dependencyResolver resolves the dependencies of the refreshed values of tracked caches
+	 * @param location where the hot keys are saved on shutdown
+	 */
+	public CacheWarmer(Map<String, Integer> hotKeyLimits, CacheDependencyResolver dependencyResolver, String location) {
+		this.hotKeyLimits = hotKeyLimits;
+		this.dependencyResolver = dependencyResolver;
+		this.location = location;
+		Metrics.gauge(WARMUP_METRIC_NAME + ".remaining", progress, p -> p.total.get() - p.done.get());
+	}
+
+	@Override
+	public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+		this.applicationContext = applicationContext;
+	}
+
+	/**
+	 * Counts a request of the given key, made by invoking the given method of the given target.
+	 *
+	 * @param cache the cache resolved for the request, used to rebuild the key
+	 */
+	public void record(Cache cache, Object key, Object target, Method method, Object[] args) {
+		int limit = hotKeyLimits.getOrDefault(cache.getName(), 0);
+		if (limit <= 0) {
+			return;
+		}
+		ConcurrentMap<Object, HotKey> keys = hotKeys.computeIfAbsent(cache.getName(), name -> new ConcurrentHashMap<>());
+		HotKey hotKey = keys.computeIfAbsent(key, k -> new HotKey(k, target, method, args));
+		hotKey.cache = cache;
+		if (!WARMING.get()) {
+			hotKey.hits.increment();
+		}
+		if (keys.size() > limit * 2) {
+			trim(keys, limit);
+		}
+	}
+
+	/**
+	 * Rebuilds in the background the hot keys among the given evicted keys.
+	 */
+	public void evicted(String cacheName, Collection<Object> keys) {
+		ConcurrentMap<Object, HotKey> cacheHotKeys = hotKeys.get(cacheName);
+		if (cacheHotKeys == null) {
+			return;
+		}
+		for (Object key : keys) {
+			HotKey hotKey = cacheHotKeys.get(key);
+			if (hotKey != null) {
+				executor.execute(() -> rebuild(hotKey));
+			}
+		}
+	}
+
+	public Progress getProgress() {
+		return progress;
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationReadyEvent event) {
+		operations = findOperations();
+		executor.execute(this::warmUp);
+		executor.scheduleWithFixedDelay(this::refreshAhead, REFRESH_INTERVAL_SECONDS, REFRESH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+		save();
+	}
+
+	/**
+	 * @return the {@link Cacheable} methods of the services whose arguments can be saved as JSON
+	 */
+	private Map<String, Operation> findOperations() {
+		Map<String, Operation> operations = new HashMap<>();
+		for (Object bean : applicationContext.getBeansWithAnnotation(Service.class).values()) {
+			Class<?> targetClass = AopUtils.getTargetClass(bean);
+			for (Method method : ReflectionUtils.getUniqueDeclaredMethods(targetClass)) {
+				Cacheable cacheable = AnnotatedElementUtils.findMergedAnnotation(method, Cacheable.class);
+				if (cacheable == null || !Arrays.stream(method.getParameterTypes()).allMatch(HotKeyArgs::isSupported)) {
+					continue;
+				}
+				Method invocableMethod = AopUtils.selectInvocableMethod(method, bean.getClass());
+				Set<String> cacheNames = new HashSet<>(Arrays.asList(cacheable.cacheNames()));
+				operations.put(operationId(targetClass, method), new Operation(bean, invocableMethod, cacheNames));
+			}
+		}
+		return operations;
+	}
+
+	private static String operationId(Class<?> targetClass, Method method) {
+		return ClassUtils.getUserClass(targetClass).getName() + "#" + method.getName()
+				+ Arrays.stream(method.getParameterTypes()).map(Class::getName).collect(Collectors.joining(",", "(", ")"));
+	}
+
+	private void warmUp() {
+		List<JsonNode> savedKeys = load();
+		progress.start(savedKeys.size());
+		for (JsonNode savedKey : savedKeys) {
+			try {
+				Operation operation = operations.get(savedKey.path("method").asText());
+				if (operation == null || !operation.cacheNames.contains(savedKey.path("cache").asText())) {
+					throw new IllegalArgumentException("Not a cached method");
+				}
+				Object[] args = readArgs(savedKey.path("args"), operation.method.getParameterTypes());
+				// Going through the proxy caches the value and records the key as requested again
+				WARMING.set(true);
+				ReflectionUtils.invokeMethod(operation.method, operation.bean, args);
+			}
+			catch (Exception e) {
+				progress.failed.incrementAndGet();
+				logger.debug("Could not warm up {}", savedKey, e);
+			}
+			finally {
+				WARMING.remove();
+				progress.done.incrementAndGet();
+			}
+		}
+		progress.finish();
+		if (progress.total.get() > 0) {
+			Metrics.timer(WARMUP_METRIC_NAME).record(progress.getDuration());
+			logger.info("Cache warm-up finished: {} entries in {} ms ({} failed)",
+					progress.total.get(), progress.getDuration().toMillis(), progress.failed.get());
+		}
+	}
+
+	private static Object[] readArgs(JsonNode nodes, Class<?>[] parameterTypes) {
+		if (!nodes.isArray() || nodes.size() != parameterTypes.length) {
+			throw new IllegalArgumentException("Wrong number of arguments");
+		}
+		Object[] args = new Object[parameterTypes.length];
+		for (int i = 0; i < parameterTypes.length; i++) {
+			args[i] = HotKeyArgs.read(nodes.get(i), parameterTypes[i]);
+		}
+		return args;
+	}
+
+	private void rebuild(HotKey hotKey) {
+		WARMING.set(true);
+		try {
+			hotKey.cache.get(hotKey.key, () -> invoke(hotKey));
+		}
+		catch (RuntimeException e) {
+			logger.debug("Could not rebuild [{}] {}", hotKey.cache.getName(), hotKey.key, e);
+		}
+		finally {
+			WARMING.remove();
+		}
+	}
+
+	private void refreshAhead() {
+		long now = System.currentTimeMillis();
+		for (Map.Entry<String, ConcurrentMap<Object, HotKey>> entry : hotKeys.entrySet()) {
+			for (HotKey hotKey : ranked(entry.getKey(), entry.getValue())) {
+				try {
+					refresh(hotKey, now);
+				}
+				catch (RuntimeException e) {
+					logger.debug("Could not refresh [{}] {}", entry.getKey(), hotKey.key, e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Rebuilds the entry of the given hot key if it is about to expire. The rebuilt value only
+	 * replaces the entry read before rebuilding it, so a refresh overtaken by an invalidation does
+	 * not put a stale value back.
+	 */
+	@SuppressWarnings("unchecked")
+	private void refresh(HotKey hotKey, long now) {
+		Cache cache = hotKey.cache;
+		if (cache == null || !(cache.getNativeCache() instanceof org.infinispan.Cache)) {
+			return;
+		}
+		AdvancedCache<Object, Object> nativeCache = ((org.infinispan.Cache<Object, Object>) cache.getNativeCache()).getAdvancedCache();
+		CacheEntry<Object, Object> cacheEntry = nativeCache.getCacheEntry(hotKey.key);
+		if (cacheEntry == null || !isExpiring(cacheEntry, now)) {
+			return;
+		}
+		Object stored = cacheEntry.getValue();
+		Object value;
+		WARMING.set(true);
+		try {
+			value = invoke(hotKey);
+		}
+		finally {
+			WARMING.remove();
+		}
+		if (value == null) {
+			return;
+		}
+		Object refreshed = (stored instanceof DependentCacheValue)
+				? new DependentCacheValue(value, dependencyResolver.resolve(value, hotKey.args))
+				: value;
+		if (nativeCache.replace(hotKey.key, stored, refreshed)) {
+			logger.debug("Refreshed [{}] {}", cache.getName(), hotKey.key);
+		}
+	}
+
+	private static boolean isExpiring(CacheEntry<?, ?> entry, long now) {
+		return (entry.getLifespan() > 0 && now - entry.getCreated() >= entry.getLifespan() * REFRESH_AHEAD_RATIO)
+				|| (entry.getMaxIdle() > 0 && now - entry.getLastUsed() >= entry.getMaxIdle() * REFRESH_AHEAD_RATIO);
+	}
+
+	/**
+	 * @return the hot keys of the given cache kept warm, most requested first
+	 */
+	private List<HotKey> ranked(String cacheName, ConcurrentMap<Object, HotKey> keys) {
+		return keys.values().stream()
+				.sorted(Comparator.comparingLong((HotKey hotKey) -> hotKey.hits.sum()).reversed())
+				.limit(hotKeyLimits.getOrDefault(cacheName, 0))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Invokes the method of the target itself, bypassing the caching proxy, in a read-only transaction.
+	 */
+	private Object invoke(HotKey hotKey) {
+		if (transactionTemplate == null) {
+			transactionTemplate = new TransactionTemplate(applicationContext.getBean(PlatformTransactionManager.class));
+			transactionTemplate.setReadOnly(true);
+		}
+		return transactionTemplate.execute(status -> ReflectionUtils.invokeMethod(hotKey.method, hotKey.target, hotKey.args));
+	}
+
+	private void trim(ConcurrentMap<Object, HotKey> keys, int limit) {
+		synchronized (keys) {
+			if (keys.size() <= limit * 2) {
+				return;
+			}
+			List<HotKey> ranked = new ArrayList<>(keys.values());
+			ranked.sort(Comparator.comparingLong((HotKey hotKey) -> hotKey.hits.sum()).reversed());
+			for (int i = 0; i < ranked.size(); i++) {
+				HotKey hotKey = ranked.get(i);
+				if (i >= limit) {
+					keys.remove(hotKey.key, hotKey);
+				}
+				else {
+					// Halve the hits so that keys popular a while ago give way to the current ones
+					hotKey.hits.add(-hotKey.hits.sum() / 2);
+				}
+			}
+		}
+	}
+
+	private List<JsonNode> load() {
+		List<JsonNode> savedKeys = new ArrayList<>();
+		Resource resource = applicationContext.getResource(location);
+		if (!resource.exists()) {
+			return savedKeys;
+		}
+		try (InputStream in = resource.getInputStream()) {
+			JsonNode root = objectMapper.readTree(in);
+			if (root != null && root.isArray()) {
+				root.forEach(savedKeys::add);
+			}
+		}
+		catch (IOException e) {
+			logger.warn("Could not read the hot cache keys from {}", location, e);
+		}
+		return savedKeys;
+	}
+
+	private void save() {
+		Resource resource = applicationContext.getResource(location);
+		if (!(resource instanceof WritableResource)) {
+			return;
+		}
+		ArrayNode savedKeys = objectMapper.createArrayNode();
+		for (Map.Entry<String, ConcurrentMap<Object, HotKey>> entry : hotKeys.entrySet()) {
+			for (HotKey hotKey : ranked(entry.getKey(), entry.getValue())) {
+				// Keys of other methods are left to be requested again
+				String operationId = operationId(hotKey.target.getClass(), hotKey.method);
+				if (!operations.containsKey(operationId)) {
+					continue;
+				}
+				// As are the calls with an argument that cannot be saved, such as a cursor
+				List<JsonNode> args = new ArrayList<>();
+				for (Object arg : hotKey.args) {
+					args.add(HotKeyArgs.write(arg));
+				}
+				if (args.contains(null)) {
+					continue;
+				}
+				ObjectNode savedKey = savedKeys.addObject();
+				savedKey.put("cache", entry.getKey());
+				savedKey.put("method", operationId);
+				savedKey.putArray("args").addAll(args);
+			}
+		}
+		try {
+			if (resource.isFile()) {
+				resource.getFile().getParentFile().mkdirs();
+			}
+			try (OutputStream out = ((WritableResource) resource).getOutputStream()) {
+				objectMapper.writeValue(out, savedKeys);
+			}
+		}
+		catch (IOException e) {
+			logger.warn("Could not save the hot cache keys to {}", location, e);
+		}
+	}
+
+	private static class HotKey {
+
+		private final Object key;
+
+		private final Object target;
+
+		private final Method method;
+
+		private final Object[] args;
+
+		private final LongAdder hits = new LongAdder();
+
+		private volatile Cache cache;
+
+		HotKey(Object key, Object target, Method method, Object[] args) {
+			this.key = key;
+			this.target = target;
+			this.method = method;
+			this.args = args;
+		}
+	}
+
+	private static class Operation {
+
+		private final Object bean;
+
+		private final Method method;
+
+		private final Set<String> cacheNames;
+
+		Operation(Object bean, Method method, Set<String> cacheNames) {
+			this.bean = bean;
+			this.method = method;
+			this.cacheNames = cacheNames;
+		}
+	}
+
+	/**
+	 * Progress of the startup warm-up.
+	 */
+	public static class Progress {
+
+		private final AtomicInteger total = new AtomicInteger();
+
+		private final AtomicInteger done = new AtomicInteger();
+
+		private final AtomicInteger failed = new AtomicInteger();
+
+		private volatile long startedAt;
+
+		private volatile long finishedAt;
+
+		void start(int total) {
+			this.total.set(total);
+			this.startedAt = System.currentTimeMillis();
+		}
+
+		void finish() {
+			this.finishedAt = System.currentTimeMillis();
+		}
+
+		public int getTotal() {
+			return total.get();
+		}
+
+		public int getDone() {
+			return done.get();
+		}
+
+		public int getFailed() {
+			return failed.get();
+		}
+
+		public boolean isFinished() {
+			return finishedAt > 0;
+		}
+
+		public Duration getDuration() {
+			return Duration.ofMillis((isFinished() ? finishedAt : System.currentTimeMillis()) - startedAt);
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.autoconfigure;
+
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.util.function.SerializableFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link CacheInvalidator} for caches kept locally on each cluster member. The entries are evicted
+ * on this node right away, and the dependencies alone are sent to the other members, which evict
+ * their own dependent entries and load them again from the database when next read.
+ */
+public class ClusteredCacheInvalidator extends CacheInvalidator {
+
+	private final EmbeddedCacheManager embeddedCacheManager;
+
+	private final Set<String> localCacheNames;
+
+	private static Logger logger = LoggerFactory.getLogger(ClusteredCacheInvalidator.class);
+
+	public ClusteredCacheInvalidator(CacheManager cacheManager, CacheDependencyRegistry registry, CacheCoalescer coalescer, CacheWarmer warmer, EmbeddedCacheManager embeddedCacheManager, Set<String> localCacheNames) {
+		super(cacheManager, registry, coalescer, warmer);
+		this.embeddedCacheManager = embeddedCacheManager;
+		this.localCacheNames = localCacheNames;
+		embeddedCacheManager.getGlobalComponentRegistry().registerComponent(this, CacheInvalidator.class);
+	}
+
+	@Override
+	protected void evict(Map<String, Set<CacheDependency>> invalidation) {
+		super.evict(invalidation);
+
+		HashMap<String, Set<CacheDependency>> broadcast = new HashMap<>();
+		for (Map.Entry<String, Set<CacheDependency>> entry : invalidation.entrySet()) {
+			if (localCacheNames.contains(entry.getKey())) {
+				broadcast.put(entry.getKey(), new HashSet<>(entry.getValue()));
+			}
+		}
+		if (broadcast.isEmpty()) {
+			return;
+		}
+
+		Address self = embeddedCacheManager.getAddress();
+		embeddedCacheManager.executor()
+				.filterTargets(address -> !address.equals(self))
+				.submitConsumer(new RemoteEviction(broadcast), (address, result, error) -> {
+					if (error != null) {
+						logger.warn("Failed to invalidate cache entries on {}", address, error);
+					}
+				});
+	}
+
+	@SuppressWarnings("serial")
+	private static class RemoteEviction implements SerializableFunction<EmbeddedCacheManager, Void> {
+
+		private final HashMap<String, Set<CacheDependency>> invalidation;
+
+		RemoteEviction(HashMap<String, Set<CacheDependency>> invalidation) {
+			this.invalidation = invalidation;
+		}
+
+		@Override
+		public Void apply(EmbeddedCacheManager embeddedCacheManager) {
+			CacheInvalidator invalidator = embeddedCacheManager.getGlobalComponentRegistry().getComponent(CacheInvalidator.class);
+			if (invalidator != null) {
+				invalidator.evictLocally(invalidation);
+			}
+			return null;
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.autoconfigure;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Decorates a cache so that the synchronized {@code @Cacheable} invocations missing the same key
+ * are coalesced by a {@link CacheCoalescer}, and counts the requested keys for the {@link CacheWarmer}.
+ */
+public class CoalescingCache implements Cache {
+
+	private final Cache delegate;
+
+	private final CacheCoalescer coalescer;
+
+	private final CacheWarmer warmer;
+
+	private final CacheOperationInvocationContext<?> context;
+
+	public CoalescingCache(Cache delegate, CacheCoalescer coalescer, CacheWarmer warmer, CacheOperationInvocationContext<?> context) {
+		this.delegate = delegate;
+		this.coalescer = coalescer;
+		this.warmer = warmer;
+		this.context = context;
+	}
+
+	@Override
+	public String getName() {
+		return delegate.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return delegate.getNativeCache();
+	}
+
+	@Override
+	public ValueWrapper get(Object key) {
+		return delegate.get(key);
+	}
+
+	@Override
+	public <T> T get(Object key, Class<T> type) {
+		return delegate.get(key, type);
+	}
+
+	@Override
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		warmer.record(this, key, context.getTarget(), context.getMethod(), context.getArgs());
+		return coalescer.get(delegate, key, valueLoader);
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		delegate.put(key, value);
+	}
+
+	@Override
+	public ValueWrapper putIfAbsent(Object key, Object value) {
+		return delegate.putIfAbsent(key, value);
+	}
+
+	@Override
+	public void evict(Object key) {
+		delegate.evict(key);
+	}
+
+	@Override
+	public void clear() {
+		delegate.clear();
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.autoconfigure;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Decorates a cache for the duration of one {@code @Cacheable} invocation, storing each value
+ * together with the dependencies resolved from it and the invocation arguments.
+ */
+public class DependencyTrackingCache implements Cache {
+
+	private final Cache delegate;
+
+	private final CacheDependencyResolver resolver;
+
+	private final CacheDependencyRegistry registry;
+
+	private final Object[] args;
+
+	public DependencyTrackingCache(Cache delegate, CacheDependencyResolver resolver, CacheDependencyRegistry registry, Object[] args) {
+		this.delegate = delegate;
+		this.resolver = resolver;
+		this.registry = registry;
+		this.args = args;
+	}
+
+	@Override
+	public String getName() {
+		return delegate.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return delegate.getNativeCache();
+	}
+
+	@Override
+	public ValueWrapper get(Object key) {
+		ValueWrapper wrapper = delegate.get(key);
+		if (wrapper != null && wrapper.get() instanceof DependentCacheValue) {
+			return new SimpleValueWrapper(((DependentCacheValue) wrapper.get()).getValue());
+		}
+		return wrapper;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = (wrapper != null) ? wrapper.get() : null;
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		Object value = delegate.get(key, () -> wrap(valueLoader.call()));
+		return (T) unwrap(value);
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		delegate.put(key, wrap(value));
+	}
+
+	@Override
+	public ValueWrapper putIfAbsent(Object key, Object value) {
+		ValueWrapper existing = delegate.putIfAbsent(key, wrap(value));
+		if (existing != null && existing.get() instanceof DependentCacheValue) {
+			return new SimpleValueWrapper(((DependentCacheValue) existing.get()).getValue());
+		}
+		return existing;
+	}
+
+	@Override
+	public void evict(Object key) {
+		delegate.evict(key);
+	}
+
+	@Override
+	public void clear() {
+		delegate.clear();
+		registry.clear(getName());
+	}
+
+	private DependentCacheValue wrap(Object value) {
+		return new DependentCacheValue(value, resolver.resolve(value, args));
+	}
+
+	private Object unwrap(Object value) {
+		return (value instanceof DependentCacheValue) ? ((DependentCacheValue) value).getValue() : value;
+	}
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.autoconfigure;
+
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * A cached value stored together with its dependencies, so that every node holding the entry can
+ * index it in its {@link CacheDependencyRegistry}.
+ */
+@SuppressWarnings("serial")
+public class DependentCacheValue implements Serializable {
+
+	private final Object value;
+
+	private final Set<CacheDependency> dependencies;
+
+	public DependentCacheValue(Object value, Set<CacheDependency> dependencies) {
+		this.value = value;
+		this.dependencies = dependencies;
+	}
+
+	public Object getValue() {
+		return value;
+	}
+
+	public Set<CacheDependency> getDependencies() {
+		return dependencies;
+	}
+}
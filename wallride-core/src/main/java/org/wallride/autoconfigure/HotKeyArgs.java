@@ -0,0 +1,237 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.autoconfigure;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.wallride.model.ArticleSearchRequest;
+import org.wallride.model.PageSearchRequest;
+
+import java.beans.PropertyDescriptor;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Converts the arguments of the calls saved by {@link CacheWarmer} to and from JSON. Strings,
+ * numbers, booleans, enums, pageables and the search requests of the listings are supported. An
+ * argument is only ever read as the type of the parameter it is passed to, so nothing read from
+ * JSON is resolved as a class.
+ */
+final class HotKeyArgs {
+
+	/**
+	 * Search requests saved by their properties. A request is only saved if the properties of other
+	 * types than those above, and than collections and dates, are {@code null}.
+	 */
+	private static final Set<Class<?>> REQUEST_TYPES = new HashSet<>(Arrays.asList(ArticleSearchRequest.class, PageSearchRequest.class));
+
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+
+	private HotKeyArgs() {
+	}
+
+	static boolean isSupported(Class<?> type) {
+		return isPlain(type) || type == Pageable.class || REQUEST_TYPES.contains(type);
+	}
+
+	/**
+	 * @return the JSON of the given argument, or {@code null} if it cannot be saved
+	 */
+	static JsonNode write(Object arg) {
+		if (arg instanceof Pageable) {
+			return writePageable((Pageable) arg);
+		}
+		if (arg != null && REQUEST_TYPES.contains(arg.getClass())) {
+			return writeRequest(arg);
+		}
+		return writePlain(arg);
+	}
+
+	static Object read(JsonNode node, Class<?> type) {
+		if (type == Pageable.class) {
+			return readPageable(node);
+		}
+		if (REQUEST_TYPES.contains(type)) {
+			return readRequest(node, type);
+		}
+		return readPlain(node, type);
+	}
+
+	private static boolean isPlain(Class<?> type) {
+		return type == String.class || type.isEnum()
+				|| type == long.class || type == Long.class
+				|| type == int.class || type == Integer.class
+				|| type == boolean.class || type == Boolean.class;
+	}
+
+	private static JsonNode writePlain(Object value) {
+		if (value == null) {
+			return JsonNodeFactory.instance.nullNode();
+		}
+		if (value instanceof Enum) {
+			return JsonNodeFactory.instance.textNode(((Enum<?>) value).name());
+		}
+		if (value instanceof LocalDateTime) {
+			return JsonNodeFactory.instance.textNode(value.toString());
+		}
+		return isPlain(value.getClass()) ? objectMapper.valueToTree(value) : null;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Object readPlain(JsonNode node, Class<?> type) {
+		if (node.isNull() && !type.isPrimitive()) {
+			return null;
+		}
+		if (type == String.class && node.isTextual()) {
+			return node.textValue();
+		}
+		if (type.isEnum() && node.isTextual()) {
+			return Enum.valueOf((Class<? extends Enum>) type, node.textValue());
+		}
+		if (type == LocalDateTime.class && node.isTextual()) {
+			return LocalDateTime.parse(node.textValue());
+		}
+		if ((type == long.class || type == Long.class) && node.isIntegralNumber() && node.canConvertToLong()) {
+			return node.longValue();
+		}
+		if ((type == int.class || type == Integer.class) && node.isIntegralNumber() && node.canConvertToInt()) {
+			return node.intValue();
+		}
+		if ((type == boolean.class || type == Boolean.class) && node.isBoolean()) {
+			return node.booleanValue();
+		}
+		throw new IllegalArgumentException("Not a " + type.getSimpleName() + ": " + node);
+	}
+
+	private static JsonNode writePageable(Pageable pageable) {
+		ObjectNode node = JsonNodeFactory.instance.objectNode();
+		if (pageable.isUnpaged()) {
+			node.put("unpaged", true);
+			return node;
+		}
+		node.put("page", pageable.getPageNumber());
+		node.put("size", pageable.getPageSize());
+		ArrayNode sort = node.putArray("sort");
+		for (Sort.Order order : pageable.getSort()) {
+			if (order.isIgnoreCase() || order.getNullHandling() != Sort.NullHandling.NATIVE) {
+				return null;
+			}
+			sort.addObject()
+					.put("property", order.getProperty())
+					.put("direction", order.getDirection().name());
+		}
+		return node;
+	}
+
+	private static Pageable readPageable(JsonNode node) {
+		if (node.path("unpaged").asBoolean(false)) {
+			return Pageable.unpaged();
+		}
+		List<Sort.Order> orders = new ArrayList<>();
+		for (JsonNode order : node.path("sort")) {
+			orders.add(new Sort.Order(
+					(Sort.Direction) readPlain(order.path("direction"), Sort.Direction.class),
+					(String) readPlain(order.path("property"), String.class)));
+		}
+		return PageRequest.of((int) readPlain(node.path("page"), int.class), (int) readPlain(node.path("size"), int.class), Sort.by(orders));
+	}
+
+	private static JsonNode writeRequest(Object request) {
+		BeanWrapper wrapper = new BeanWrapperImpl(request);
+		ObjectNode node = JsonNodeFactory.instance.objectNode();
+		for (PropertyDescriptor property : wrapper.getPropertyDescriptors()) {
+			if (property.getReadMethod() == null || property.getWriteMethod() == null) {
+				continue;
+			}
+			Object value = wrapper.getPropertyValue(property.getName());
+			JsonNode valueNode;
+			if (value instanceof Collection) {
+				ArrayNode elements = JsonNodeFactory.instance.arrayNode();
+				for (Object element : (Collection<?>) value) {
+					JsonNode elementNode = writePlain(element);
+					if (elementNode == null) {
+						return null;
+					}
+					elements.add(elementNode);
+				}
+				valueNode = elements;
+			}
+			else {
+				valueNode = writePlain(value);
+			}
+			if (valueNode == null) {
+				return null;
+			}
+			node.set(property.getName(), valueNode);
+		}
+		return node;
+	}
+
+	private static Object readRequest(JsonNode node, Class<?> type) {
+		if (!node.isObject()) {
+			throw new IllegalArgumentException("Not a " + type.getSimpleName() + ": " + node);
+		}
+		Object request = BeanUtils.instantiateClass(type);
+		BeanWrapper wrapper = new BeanWrapperImpl(request);
+		Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+		while (fields.hasNext()) {
+			Map.Entry<String, JsonNode> field = fields.next();
+			if (!wrapper.isWritableProperty(field.getKey())) {
+				throw new IllegalArgumentException("Unknown property of " + type.getSimpleName() + ": " + field.getKey());
+			}
+			TypeDescriptor propertyType = wrapper.getPropertyTypeDescriptor(field.getKey());
+			wrapper.setPropertyValue(field.getKey(), readProperty(field.getValue(), propertyType));
+		}
+		return request;
+	}
+
+	private static Object readProperty(JsonNode node, TypeDescriptor type) {
+		if (node.isNull()) {
+			return null;
+		}
+		if (!type.isCollection()) {
+			return readPlain(node, type.getType());
+		}
+		TypeDescriptor elementType = type.getElementTypeDescriptor();
+		if (!node.isArray() || elementType == null) {
+			throw new IllegalArgumentException("Not a collection: " + node);
+		}
+		Collection<Object> elements = Set.class.isAssignableFrom(type.getType()) ? new LinkedHashSet<>() : new ArrayList<>();
+		for (JsonNode element : node) {
+			elements.add(readPlain(element, elementType.getType()));
+		}
+		return elements;
+	}
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wallride.autoconfigure;
+
+import org.infinispan.hibernate.cache.spi.EmbeddedCacheManagerProvider;
+import org.infinispan.manager.EmbeddedCacheManager;
+
+import java.util.Properties;
+
+/**
+ * Hands the cache manager built by {@link WallRideCacheConfiguration} to the Hibernate
+ * second-level cache, so that its regions share the transport and the JMX statistics of the
+ * other caches. Registered through {@code META-INF/services}.
+ */
+public class InfinispanSingletonCacheManagerProvider implements EmbeddedCacheManagerProvider {
+
+	private static EmbeddedCacheManager cacheManager;
+
+	@Override
+	public EmbeddedCacheManager getEmbeddedCacheManager(Properties properties) {
+		if (cacheManager == null) {
+			throw new IllegalStateException("The cache manager must be built before the entity manager factory");
+		}
+		return cacheManager;
+	}
+
+	protected static void setCacheManager(EmbeddedCacheManager newCacheManager) {
+		cacheManager = newCacheManager;
+	}
+}
@@ -17,12 +17,21 @@
 package org.wallride.autoconfigure;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 import javax.sql.DataSource;
 
 import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.Index;
+import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.configuration.global.GlobalConfigurationBuilder;
 import org.infinispan.configuration.parsing.ConfigurationBuilderHolder;
 import org.infinispan.configuration.parsing.ParserRegistry;
@@ -41,6 +50,7 @@ import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheResolver;
 import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -54,6 +64,7 @@ public class WallRideCacheConfiguration extends CachingConfigurerSupport {
 
 	public static final String BLOG_CACHE = "blogs";
 	public static final String POPULAR_POST_CACHE = "popularPosts";
+	public static final String RELATED_POST_CACHE = "relatedPosts";
 	public static final String ARTICLE_CACHE = "articles";
 	public static final String PAGE_CACHE = "pages";
 	public static final String CATEGORY_CACHE = "categories";
@@ -62,6 +73,45 @@ public class WallRideCacheConfiguration extends CachingConfigurerSupport {
 	public static final String BANNER_CACHE = "banners";
 	public static final String USER_CACHE = "users";
 
+	/**
+	 * Caches whose entries are evicted by {@link CacheInvalidator} according to their dependencies
+	 * instead of being cleared on every write.
+	 */
+	public static final Set<String> DEPENDENCY_TRACKED_CACHES = new HashSet<>(Arrays.asList(ARTICLE_CACHE, PAGE_CACHE));
+
+	/**
+	 * Settings of each cache, sized after how many distinct keys it can hold. Overridden per cache by
+	 * {@code wallride.cache.<name>.*}.
+	 * <p>
+	 * The caches are filled on read, and in invalidation mode every put drops the key on the other
+	 * members, so they would keep evicting each other's entries. Only the dependency tracked caches,
+	 * which are evicted by {@link ClusteredCacheInvalidator} rather than by key, use it. The caches
+	 * cleared on writes are replicated so that the clear reaches every member, and the media cache,
+	 * which only expires, is local.
+	 */
+	private static final Map<String, WallRideProperties.Cache> DEFAULT_CACHES = new LinkedHashMap<>();
+
+	static {
+		DEFAULT_CACHES.put(BLOG_CACHE, defaultCache(10, null, 10, WallRideProperties.Cache.Mode.REPLICATED));
+		DEFAULT_CACHES.put(POPULAR_POST_CACHE, defaultCache(100, null, 20, WallRideProperties.Cache.Mode.REPLICATED));
+		DEFAULT_CACHES.put(RELATED_POST_CACHE, defaultCache(10000, null, 0, WallRideProperties.Cache.Mode.REPLICATED));
+		DEFAULT_CACHES.put(ARTICLE_CACHE, defaultCache(2000, Duration.ofHours(1), 100, WallRideProperties.Cache.Mode.INVALIDATION));
+		DEFAULT_CACHES.put(PAGE_CACHE, defaultCache(500, Duration.ofHours(1), 50, WallRideProperties.Cache.Mode.INVALIDATION));
+		DEFAULT_CACHES.put(CATEGORY_CACHE, defaultCache(100, null, 0, WallRideProperties.Cache.Mode.REPLICATED));
+		DEFAULT_CACHES.put(CUSTOM_FIELD_CACHE, defaultCache(100, null, 0, WallRideProperties.Cache.Mode.REPLICATED));
+		DEFAULT_CACHES.put(MEDIA_CACHE, defaultCache(2000, Duration.ofMinutes(30), 0, WallRideProperties.Cache.Mode.LOCAL));
+		DEFAULT_CACHES.put(BANNER_CACHE, defaultCache(100, null, 0, WallRideProperties.Cache.Mode.REPLICATED));
+		DEFAULT_CACHES.put(USER_CACHE, defaultCache(1000, Duration.ofHours(1), 0, WallRideProperties.Cache.Mode.REPLICATED));
+	}
+
+	private static final Map<WallRideProperties.Cache.Mode, CacheMode> CLUSTERING_MODES = new EnumMap<>(WallRideProperties.Cache.Mode.class);
+
+	static {
+		CLUSTERING_MODES.put(WallRideProperties.Cache.Mode.LOCAL, CacheMode.LOCAL);
+		CLUSTERING_MODES.put(WallRideProperties.Cache.Mode.REPLICATED, CacheMode.REPL_SYNC);
+		CLUSTERING_MODES.put(WallRideProperties.Cache.Mode.INVALIDATION, CacheMode.INVALIDATION_SYNC);
+	}
+
 	@Autowired
 	private DataSource dataSource;
 
@@ -71,6 +121,9 @@ public class WallRideCacheConfiguration extends CachingConfigurerSupport {
 	@Autowired
 	private DataSourceProperties dataSourceProperties;
 
+	@Autowired
+	private WallRideProperties wallRideProperties;
+
 	private static Logger logger = LoggerFactory.getLogger(WallRideCacheConfiguration.class);
 
 	@Bean
@@ -102,6 +155,8 @@ public class WallRideCacheConfiguration extends CachingConfigurerSupport {
 		GlobalConfigurationBuilder globalBuilder = holder.getGlobalConfigurationBuilder();
 		globalBuilder
 			.jmx()        // Enable JMX stats
+			.serialization()
+				.addAdvancedExternalizer(new CacheKey.Externalizer())
 			.transport()
 				.defaultTransport();
 		if(jgroupsConfigurationFile != null) {
@@ -129,13 +184,13 @@ public class WallRideCacheConfiguration extends CachingConfigurerSupport {
 							.fetchPersistentState(true)
 							.ignoreModifications(false)
 							.purgeOnStartup(false)
-							.preload(true)
+							.preload(false)
 							.connectionFactory(InfinispanDataSourceConnectionFactoryConfigurationBuilder.class).dataSource(dataSource);
 			} else if ("postgresql".equals(dataSourceProperties.getPlatform())) {
 				luceneIndexesBuilder
 					.persistence()
 						.addStore(JdbcStringBasedStoreConfigurationBuilder.class)
-							.preload(true)
+							.preload(false)
 							.shared(true)							
 							.key2StringMapper(LuceneKey2StringMapper.class)
 								.table()
@@ -162,46 +217,143 @@ public class WallRideCacheConfiguration extends CachingConfigurerSupport {
 		}
 		// @formatter:on
 
-		// @formatter:off
-		ConfigurationBuilder cacheBuilder = new ConfigurationBuilder();
-		if(jgroupsConfigurationFile == null) {
-		cacheBuilder
-			.simpleCache(true);   // ENABLES LOCAL CACHE
-		}
-		else {
-			cacheBuilder
-				.clustering()
-					.cacheMode(CacheMode.REPL_SYNC)
-					.memory()
-						.evictionStrategy(EvictionStrategy.REMOVE)
-						.evictionType(EvictionType.COUNT)
-						.size(1000)					
-						//.maxCount(1000)
-						//.whenFull(EvictionStrategy.REMOVE);
-					.indexing()
-						.index(Index.NONE);
+		for (String cacheName : DEFAULT_CACHES.keySet()) {
+			holder.getNamedConfigurationBuilders().put(cacheName, cacheBuilder(cacheName));
 		}
-		// @formatter:on
-
-		holder.getNamedConfigurationBuilders().put(BLOG_CACHE, cacheBuilder);
-//		holder.getNamedConfigurationBuilders().put("settings", cacheBuilder);
-		holder.getNamedConfigurationBuilders().put(POPULAR_POST_CACHE, cacheBuilder);
-		holder.getNamedConfigurationBuilders().put(ARTICLE_CACHE, cacheBuilder);
-		holder.getNamedConfigurationBuilders().put(PAGE_CACHE, cacheBuilder);
-		holder.getNamedConfigurationBuilders().put(CATEGORY_CACHE, cacheBuilder);
-		holder.getNamedConfigurationBuilders().put(CUSTOM_FIELD_CACHE, cacheBuilder);
-		holder.getNamedConfigurationBuilders().put(MEDIA_CACHE, cacheBuilder);
-		holder.getNamedConfigurationBuilders().put(BANNER_CACHE, cacheBuilder);
-		holder.getNamedConfigurationBuilders().put(USER_CACHE, cacheBuilder);
 
 		EmbeddedCacheManager embeddedCacheManager = new DefaultCacheManager(holder, true);
+		for (String cacheName : DEPENDENCY_TRACKED_CACHES) {
+			embeddedCacheManager.getCache(cacheName).addListener(cacheDependencyRegistry().listener(cacheName));
+		}
 		InfinispanSingletonCacheManagerDirectoryProvider.setCacheManager( embeddedCacheManager );
+		InfinispanSingletonCacheManagerProvider.setCacheManager(embeddedCacheManager);
 		return new SpringEmbeddedCacheManager(embeddedCacheManager);
 	}
 
+	private WallRideProperties.Cache cacheSettings(String cacheName) {
+		return wallRideProperties.getCache()
+				.getOrDefault(cacheName, new WallRideProperties.Cache())
+				.merge(DEFAULT_CACHES.get(cacheName));
+	}
+
+	private boolean isClustered() {
+		return environment.getProperty("jgroups.configurationFile") != null;
+	}
+
+	/**
+	 * @return the names of the dependency tracked caches kept locally on each cluster member, whose
+	 * entries are invalidated by {@link ClusteredCacheInvalidator}
+	 */
+	private Set<String> nearCacheNames() {
+		Set<String> cacheNames = new HashSet<>();
+		if (isClustered()) {
+			for (String cacheName : DEPENDENCY_TRACKED_CACHES) {
+				if (cacheSettings(cacheName).getMode() == WallRideProperties.Cache.Mode.INVALIDATION) {
+					cacheNames.add(cacheName);
+				}
+			}
+		}
+		return cacheNames;
+	}
+
+	private ConfigurationBuilder cacheBuilder(String cacheName) {
+		WallRideProperties.Cache cache = cacheSettings(cacheName);
+		WallRideProperties.Cache.Mode mode = isClustered() ? cache.getMode() : WallRideProperties.Cache.Mode.LOCAL;
+		if (nearCacheNames().contains(cacheName)) {
+			// Invalidated by dependency rather than by key, see ClusteredCacheInvalidator
+			mode = WallRideProperties.Cache.Mode.LOCAL;
+		}
+		boolean offHeap = (cache.getStorage() == WallRideProperties.Cache.Storage.OFF_HEAP);
+
+		ConfigurationBuilder builder = new ConfigurationBuilder();
+		if (mode == WallRideProperties.Cache.Mode.LOCAL && !offHeap && cache.getMaxSize() == null) {
+			// Simple caches support neither serialized storage nor memory based eviction
+			builder.simpleCache(true);
+		}
+		else {
+			builder.clustering().cacheMode(CLUSTERING_MODES.get(mode));
+		}
+
+		if (cache.getMaxSize() != null) {
+			builder.memory()
+					.storageType(offHeap ? StorageType.OFF_HEAP : StorageType.BINARY)
+					.evictionType(EvictionType.MEMORY)
+					.evictionStrategy(EvictionStrategy.REMOVE)
+					.size(cache.getMaxSize().toBytes());
+		}
+		else if (cache.getMaxEntries() != null) {
+			builder.memory()
+					.storageType(offHeap ? StorageType.OFF_HEAP : StorageType.OBJECT)
+					.evictionType(EvictionType.COUNT)
+					.evictionStrategy(EvictionStrategy.REMOVE)
+					.size(cache.getMaxEntries());
+		}
+		if (cache.getTimeToLive() != null) {
+			builder.expiration().lifespan(cache.getTimeToLive().toMillis());
+		}
+		if (cache.getMaxIdle() != null) {
+			builder.expiration().maxIdle(cache.getMaxIdle().toMillis());
+		}
+		builder.indexing().index(Index.NONE);
+		return builder;
+	}
+
+	private static WallRideProperties.Cache defaultCache(long maxEntries, Duration maxIdle, int warmupKeys, WallRideProperties.Cache.Mode mode) {
+		WallRideProperties.Cache cache = new WallRideProperties.Cache(maxEntries, maxIdle);
+		cache.setStorage(WallRideProperties.Cache.Storage.HEAP);
+		cache.setMode(mode);
+		cache.setWaitTimeout(Duration.ofSeconds(3));
+		cache.setWarmupKeys(warmupKeys);
+		return cache;
+	}
+
+	@Bean
+	@Override
+	public CacheResolver cacheResolver() {
+		return new WallRideCacheResolver(cacheManager(), DEPENDENCY_TRACKED_CACHES, cacheDependencyResolver(), cacheDependencyRegistry(), cacheCoalescer(), cacheWarmer());
+	}
+
 	@Bean
 	@Override
 	public KeyGenerator keyGenerator() {
 		return new CacheKeyGenerator();
 	}
+
+	@Bean
+	public CacheDependencyResolver cacheDependencyResolver() {
+		return new CacheDependencyResolver();
+	}
+
+	@Bean
+	public CacheDependencyRegistry cacheDependencyRegistry() {
+		return new CacheDependencyRegistry();
+	}
+
+	@Bean
+	public CacheCoalescer cacheCoalescer() {
+		Map<String, Duration> waitTimeouts = new HashMap<>();
+		for (String cacheName : DEFAULT_CACHES.keySet()) {
+			waitTimeouts.put(cacheName, cacheSettings(cacheName).getWaitTimeout());
+		}
+		return new CacheCoalescer(waitTimeouts);
+	}
+
+	@Bean
+	public CacheWarmer cacheWarmer() {
+		Map<String, Integer> hotKeyLimits = new HashMap<>();
+		for (String cacheName : DEFAULT_CACHES.keySet()) {
+			hotKeyLimits.put(cacheName, cacheSettings(cacheName).getWarmupKeys());
+		}
+		return new CacheWarmer(hotKeyLimits, cacheDependencyResolver(), wallRideProperties.getHome() + "cache/hot-keys.json");
+	}
+
+	@Bean
+	public CacheInvalidator cacheInvalidator() {
+		Set<String> nearCacheNames = nearCacheNames();
+		if (nearCacheNames.isEmpty()) {
+			return new CacheInvalidator(cacheManager(), cacheDependencyRegistry(), cacheCoalescer(), cacheWarmer());
+		}
+		EmbeddedCacheManager embeddedCacheManager = ((SpringEmbeddedCacheManager) cacheManager()).getNativeCacheManager();
+		return new ClusteredCacheInvalidator(cacheManager(), cacheDependencyRegistry(), cacheCoalescer(), cacheWarmer(), embeddedCacheManager, nearCacheNames);
+	}
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.autoconfigure;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.SimpleCacheResolver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Resolves the caches of a {@code @Cacheable} invocation, wrapping the dependency tracked ones in a
+ * {@link DependencyTrackingCache} bound to the invocation arguments, and all of them in a
+ * {@link CoalescingCache}.
+ */
+public class WallRideCacheResolver extends SimpleCacheResolver {
+
+	private final Set<String> trackedCacheNames;
+
+	private final CacheDependencyResolver dependencyResolver;
+
+	private final CacheDependencyRegistry registry;
+
+	private final CacheCoalescer coalescer;
+
+	private final CacheWarmer warmer;
+
+	public WallRideCacheResolver(CacheManager cacheManager, Set<String> trackedCacheNames, CacheDependencyResolver dependencyResolver, CacheDependencyRegistry registry, CacheCoalescer coalescer, CacheWarmer warmer) {
+		super(cacheManager);
+		this.trackedCacheNames = trackedCacheNames;
+		this.dependencyResolver = dependencyResolver;
+		this.registry = registry;
+		this.coalescer = coalescer;
+		this.warmer = warmer;
+	}
+
+	@Override
+	public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+		Collection<? extends Cache> caches = super.resolveCaches(context);
+		List<Cache> resolved = new ArrayList<>(caches.size());
+		for (Cache cache : caches) {
+			if (trackedCacheNames.contains(cache.getName())) {
+				cache = new DependencyTrackingCache(cache, dependencyResolver, registry, context.getArgs());
+			}
+			resolved.add(new CoalescingCache(cache, coalescer, warmer, context));
+		}
+		return resolved;
+	}
+}
@@ -16,9 +16,28 @@
 
 package org.wallride.autoconfigure;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jpa.HibernateMetrics;
+import org.hibernate.SessionFactory;
+import org.infinispan.spring.embedded.provider.SpringEmbeddedCacheManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.jpa.EntityManagerFactoryDependsOnPostProcessor;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
 import org.wallride.domain.DomainObject;
+import org.wallride.repository.CustomFieldRepository;
+import org.wallride.support.CustomFieldRegistry;
+import org.wallride.support.IndexMigrator;
+import org.wallride.support.IndexWarmer;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
 
 /**
  * @author Takeshi Ogawa
@@ -27,4 +46,91 @@ import org.wallride.domain.DomainObject;
 @EntityScan(basePackageClasses = DomainObject.class)
 public class WallRideJpaConfiguration {
 
+	/**
+	 * The second-level cache regions live in the cache manager, see
+	 * {@link InfinispanSingletonCacheManagerProvider}, and the index has to be migrated before
+	 * Hibernate Search opens it.
+	 */
+	@Bean
+	public static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryDependsOnCacheManager() {
+		return new EntityManagerFactoryDependsOnPostProcessor("cacheManager", "indexMigrator");
+	}
+
+	/**
+	 * Switches Hibernate Search to a local filesystem index with near-real-time readers in
+	 * {@link WallRideProperties.Index.Mode#LOCAL} mode.
+	 */
+	@Bean
+	public HibernatePropertiesCustomizer indexModeHibernatePropertiesCustomizer(WallRideProperties wallRideProperties, ResourceLoader resourceLoader) {
+		return properties -> {
+			WallRideProperties.Index index = wallRideProperties.getIndex();
+			if (index.getMode() != WallRideProperties.Index.Mode.LOCAL) {
+				return;
+			}
+			try {
+				properties.put("hibernate.search.default.indexBase", localIndexBase(wallRideProperties, resourceLoader).getFile().getPath());
+			}
+			catch (IOException e) {
+				throw new IllegalStateException("The local index location must be a file", e);
+			}
+			properties.put("hibernate.search.default.directory_provider", "filesystem");
+			properties.put("hibernate.search.default.filesystem_access_type", index.getAccessType().name().toLowerCase());
+			properties.put("hibernate.search.default.indexmanager", "near-real-time");
+			properties.put("hibernate.search.default.exclusive_index_use", "true");
+			// Near-real-time indexes apply their work in place and ignore the backend
+			properties.remove("hibernate.search.default.worker.backend");
+		};
+	}
+
+	/**
+	 * Copies the index of {@link WallRideProperties.Index#getMigrateFrom()} into the index of the
+	 * current mode, when set.
+	 */
+	@Bean
+	public IndexMigrator indexMigrator(WallRideProperties wallRideProperties, ResourceLoader resourceLoader, CacheManager cacheManager) throws IOException {
+		WallRideProperties.Index index = wallRideProperties.getIndex();
+		IndexMigrator indexMigrator = new IndexMigrator(
+				((SpringEmbeddedCacheManager) cacheManager).getNativeCacheManager(),
+				localIndexBase(wallRideProperties, resourceLoader),
+				index.getAccessType());
+		if (index.getMigrateFrom() != null) {
+			indexMigrator.migrate(index.getMigrateFrom(), index.getMode());
+		}
+		return indexMigrator;
+	}
+
+	@Bean
+	public CustomFieldRegistry customFieldRegistry(CacheManager cacheManager, CustomFieldRepository customFieldRepository) {
+		return new CustomFieldRegistry(cacheManager, customFieldRepository);
+	}
+
+	/**
+	 * Reads the index in the background once the application is ready, the index caches being
+	 * loaded from their store on demand.
+	 */
+	@Bean
+	public IndexWarmer indexWarmer(EntityManagerFactory entityManagerFactory, WallRideProperties wallRideProperties) {
+		return new IndexWarmer(entityManagerFactory, wallRideProperties.getIndex().getMode() == WallRideProperties.Index.Mode.LOCAL);
+	}
+
+	private static Resource localIndexBase(WallRideProperties wallRideProperties, ResourceLoader resourceLoader) {
+		String location = wallRideProperties.getIndex().getLocation();
+		if (location == null) {
+			location = wallRideProperties.getHome() + "index/lucene/";
+		}
+		return resourceLoader.getResource(location);
+	}
+
+	/**
+	 * Publishes the Hibernate statistics, including the hits, misses and puts of each
+	 * second-level cache region, when {@code spring.jpa.properties.hibernate.generate_statistics} is
+	 * {@code true}, its default being {@code wallride.hibernate.statistics}.
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.generate_statistics", havingValue = "true")
+	public HibernateMetrics hibernateMetrics(EntityManagerFactory entityManagerFactory) {
+		HibernateMetrics hibernateMetrics = new HibernateMetrics(entityManagerFactory.unwrap(SessionFactory.class), "entityManagerFactory", Tags.empty());
+		hibernateMetrics.bindTo(Metrics.globalRegistry);
+		return hibernateMetrics;
+	}
 }
@@ -17,6 +17,11 @@
 package org.wallride.autoconfigure;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 @ConfigurationProperties("wallride")
 public class WallRideProperties {
@@ -34,6 +39,16 @@ public class WallRideProperties {
 	private String mediaLocation;
 	private String mediaUrlPrefix = "/media/";
 
+	/**
+	 * Settings of each cache, keyed by cache name. Unset values fall back to the defaults of
+	 * {@link WallRideCacheConfiguration}.
+	 */
+	private Map<String, Cache> cache = new HashMap<>();
+
+	private Index index = new Index();
+
+	private ReIndex reIndex = new ReIndex();
+
 	public String getHome() {
 		return home;
 	}
@@ -65,4 +80,317 @@ public class WallRideProperties {
 	public void setMediaUrlPrefix(String mediaUrlPrefix) {
 		this.mediaUrlPrefix = mediaUrlPrefix;
 	}
+
+	public Map<String, Cache> getCache() {
+		return cache;
+	}
+
+	public void setCache(Map<String, Cache> cache) {
+		this.cache = cache;
+	}
+
+	public Index getIndex() {
+		return index;
+	}
+
+	public void setIndex(Index index) {
+		this.index = index;
+	}
+
+	public ReIndex getReIndex() {
+		return reIndex;
+	}
+
+	public void setReIndex(ReIndex reIndex) {
+		this.reIndex = reIndex;
+	}
+
+	public static class Index {
+
+		public enum Mode {
+			/** Lucene files are chunked into the Infinispan caches and persisted in the database. */
+			INFINISPAN,
+			/** Lucene files are kept on the local filesystem and read near-real-time. Single node only. */
+			LOCAL,
+		}
+
+		public enum AccessType {
+			AUTO,
+			MMAP,
+			NIO,
+		}
+
+		private Mode mode = Mode.INFINISPAN;
+
+		/**
+		 * How the local index files are read, when the mode is {@link Mode#LOCAL}.
+		 */
+		private AccessType accessType = AccessType.AUTO;
+
+		/**
+		 * Directory of the local index. Defaults to "index/lucene/" in the home.
+		 */
+		private String location;
+
+		/**
+		 * Mode whose index is copied into the index of the current mode at startup, before the
+		 * index is opened. Unset to start without copying.
+		 */
+		private Mode migrateFrom;
+
+		public Mode getMode() {
+			return mode;
+		}
+
+		public void setMode(Mode mode) {
+			this.mode = mode;
+		}
+
+		public AccessType getAccessType() {
+			return accessType;
+		}
+
+		public void setAccessType(AccessType accessType) {
+			this.accessType = accessType;
+		}
+
+		public String getLocation() {
+			return location;
+		}
+
+		public void setLocation(String location) {
+			this.location = location;
+		}
+
+		public Mode getMigrateFrom() {
+			return migrateFrom;
+		}
+
+		public void setMigrateFrom(Mode migrateFrom) {
+			this.migrateFrom = migrateFrom;
+		}
+	}
+
+	public static class ReIndex {
+
+		/**
+		 * Number of entity types indexed at the same time, each with its own id loader.
+		 */
+		private int typesInParallel = 1;
+
+		/**
+		 * Number of threads loading and indexing the entities, shared by all the types.
+		 */
+		private int threads = 4;
+
+		/**
+		 * Number of entities loaded and indexed in one transaction.
+		 */
+		private int batchSize = 100;
+
+		/**
+		 * Number of ids read by the id loader in one query.
+		 */
+		private int idFetchSize = 1000;
+
+		/**
+		 * Cron expression of the delta re-index, or "-" to disable it.
+		 */
+		private String deltaCron = "0 30 * * * *";
+
+		/**
+		 * How far before the end of the previous delta re-index the next one starts looking for
+		 * updated entities, to allow for clock differences between cluster members.
+		 */
+		private Duration deltaOverlap = Duration.ofMinutes(1);
+
+		public int getTypesInParallel() {
+			return typesInParallel;
+		}
+
+		public void setTypesInParallel(int typesInParallel) {
+			this.typesInParallel = typesInParallel;
+		}
+
+		public int getThreads() {
+			return threads;
+		}
+
+		public void setThreads(int threads) {
+			this.threads = threads;
+		}
+
+		public int getBatchSize() {
+			return batchSize;
+		}
+
+		public void setBatchSize(int batchSize) {
+			this.batchSize = batchSize;
+		}
+
+		public int getIdFetchSize() {
+			return idFetchSize;
+		}
+
+		public void setIdFetchSize(int idFetchSize) {
+			this.idFetchSize = idFetchSize;
+		}
+
+		public String getDeltaCron() {
+			return deltaCron;
+		}
+
+		public void setDeltaCron(String deltaCron) {
+			this.deltaCron = deltaCron;
+		}
+
+		public Duration getDeltaOverlap() {
+			return deltaOverlap;
+		}
+
+		public void setDeltaOverlap(Duration deltaOverlap) {
+			this.deltaOverlap = deltaOverlap;
+		}
+	}
+
+	public static class Cache {
+
+		public enum Mode {
+			/** Entries are kept on the node that loaded them. */
+			LOCAL,
+			/** Entries are copied to every cluster member. */
+			REPLICATED,
+			/**
+			 * Entries stay on the node that loaded them, and every put drops them on the others. Only
+			 * fits caches written explicitly, not filled on read.
+			 */
+			INVALIDATION,
+		}
+
+		public enum Storage {
+			HEAP,
+			OFF_HEAP,
+		}
+
+		/**
+		 * Maximum number of entries. Ignored when {@link #maxSize} is set.
+		 */
+		private Long maxEntries;
+
+		/**
+		 * Maximum memory taken by the entries. Entries are then stored serialized.
+		 */
+		private DataSize maxSize;
+
+		private Duration timeToLive;
+
+		private Duration maxIdle;
+
+		private Storage storage;
+
+		/**
+		 * Clustering mode, used only when a JGroups configuration is set.
+		 */
+		private Mode mode;
+
+		/**
+		 * How long a caller waits for another caller loading the same missing entry before it is
+		 * served the value evicted last, if any.
+		 */
+		private Duration waitTimeout;
+
+		/**
+		 * Number of the most requested keys rebuilt in the background after startup and after they
+		 * are invalidated.
+		 */
+		private Integer warmupKeys;
+
+		public Cache() {
+		}
+
+		public Cache(Long maxEntries, Duration maxIdle) {
+			this.maxEntries = maxEntries;
+			this.maxIdle = maxIdle;
+		}
+
+		public Long getMaxEntries() {
+			return maxEntries;
+		}
+
+		public void setMaxEntries(Long maxEntries) {
+			this.maxEntries = maxEntries;
+		}
+
+		public DataSize getMaxSize() {
+			return maxSize;
+		}
+
+		public void setMaxSize(DataSize maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		public Duration getTimeToLive() {
+			return timeToLive;
+		}
+
+		public void setTimeToLive(Duration timeToLive) {
+			this.timeToLive = timeToLive;
+		}
+
+		public Duration getMaxIdle() {
+			return maxIdle;
+		}
+
+		public void setMaxIdle(Duration maxIdle) {
+			this.maxIdle = maxIdle;
+		}
+
+		public Storage getStorage() {
+			return storage;
+		}
+
+		public void setStorage(Storage storage) {
+			this.storage = storage;
+		}
+
+		public Mode getMode() {
+			return mode;
+		}
+
+		public void setMode(Mode mode) {
+			this.mode = mode;
+		}
+
+		public Duration getWaitTimeout() {
+			return waitTimeout;
+		}
+
+		public void setWaitTimeout(Duration waitTimeout) {
+			this.waitTimeout = waitTimeout;
+		}
+
+		public Integer getWarmupKeys() {
+			return warmupKeys;
+		}
+
+		public void setWarmupKeys(Integer warmupKeys) {
+			this.warmupKeys = warmupKeys;
+		}
+
+		/**
+		 * @return a copy of these settings with the unset values taken from the given defaults
+		 */
+		public Cache merge(Cache defaults) {
+			Cache merged = new Cache();
+			merged.setMaxEntries(maxEntries != null ? maxEntries : defaults.getMaxEntries());
+			merged.setMaxSize(maxSize != null ? maxSize : defaults.getMaxSize());
+			merged.setTimeToLive(timeToLive != null ? timeToLive : defaults.getTimeToLive());
+			merged.setMaxIdle(maxIdle != null ? maxIdle : defaults.getMaxIdle());
+			merged.setStorage(storage != null ? storage : defaults.getStorage());
+			merged.setMode(mode != null ? mode : defaults.getMode());
+			merged.setWaitTimeout(waitTimeout != null ? waitTimeout : defaults.getWaitTimeout());
+			merged.setWarmupKeys(warmupKeys != null ? warmupKeys : defaults.getWarmupKeys());
+			return merged;
+		}
+	}
 }
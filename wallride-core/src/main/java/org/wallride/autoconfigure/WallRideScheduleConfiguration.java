@@ -16,7 +16,15 @@
 
 package org.wallride.autoconfigure;
 
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.spring.embedded.provider.SpringEmbeddedCacheManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.WritableResource;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.wallride.domain.Blog;
@@ -24,8 +32,15 @@ import org.wallride.domain.BlogLanguage;
 import org.wallride.domain.PopularPost;
 import org.wallride.service.BlogService;
 import org.wallride.service.PostService;
+import org.wallride.service.SystemService;
 
 import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Properties;
 
 @Configuration
 @EnableScheduling
@@ -33,10 +48,27 @@ public class WallRideScheduleConfiguration {
 
 	private static final int POPULAR_POST_MAX_RANK = 5;
 
+	/**
+	 * Overlap of the delta runs of the related posts, covering the delay of the asynchronous indexing.
+	 */
+	private static final Duration RELATED_POST_DELTA_OVERLAP = Duration.ofMinutes(1);
+
+	private static final String RELATED_POSTS_UPDATED_AT = "updatedAt";
+
+	private static Logger logger = LoggerFactory.getLogger(WallRideScheduleConfiguration.class);
+
 	@Inject
 	private BlogService blogService;
 	@Inject
 	private PostService postService;
+	@Inject
+	private SystemService systemService;
+	@Inject
+	private CacheManager cacheManager;
+	@Inject
+	private ResourceLoader resourceLoader;
+	@Inject
+	private WallRideProperties wallRideProperties;
 
 	@Scheduled(cron="0 */5 * * * *")
 	public void publishPost() {
@@ -57,4 +89,103 @@ public class WallRideScheduleConfiguration {
 			}
 		}
 	}
+
+	@Scheduled(cron = "${wallride.related-posts.cron:0 30 4 * * *}")
+	public void updateRelatedPosts() {
+		if (!isCoordinator()) {
+			return;
+		}
+		LocalDateTime start = LocalDateTime.now();
+		Blog blog = blogService.getBlogById(Blog.DEFAULT_ID);
+		for (BlogLanguage blogLanguage : blog.getLanguages()) {
+			postService.updateRelatedPosts(blogLanguage.getLanguage(), null);
+		}
+		setRelatedPostsUpdatedAt(start);
+	}
+
+	/**
+	 * Compares again the posts published or changed since the last run. Until a full run, the
+	 * posts missing from the cache are compared when they are first rendered. The time of the last
+	 * run is saved in the home, so that it survives restarts and is shared by the node taking over
+	 * the job.
+	 */
+	@Scheduled(cron = "${wallride.related-posts.delta-cron:0 */5 * * * *}")
+	public void deltaUpdateRelatedPosts() {
+		if (!isCoordinator()) {
+			return;
+		}
+		LocalDateTime start = LocalDateTime.now();
+		LocalDateTime relatedPostsUpdatedAt = getRelatedPostsUpdatedAt();
+		if (relatedPostsUpdatedAt != null) {
+			LocalDateTime since = relatedPostsUpdatedAt.minus(RELATED_POST_DELTA_OVERLAP);
+			Blog blog = blogService.getBlogById(Blog.DEFAULT_ID);
+			for (BlogLanguage blogLanguage : blog.getLanguages()) {
+				postService.updateRelatedPosts(blogLanguage.getLanguage(), since);
+			}
+		}
+		setRelatedPostsUpdatedAt(start);
+	}
+
+	@Scheduled(cron = "${wallride.re-index.delta-cron:0 30 * * * *}")
+	public void deltaReIndex() {
+		try {
+			systemService.deltaReIndex();
+		}
+		catch (IllegalStateException e) {
+			logger.info("Skipped the delta re-index while another re-index is running");
+		}
+	}
+
+	/**
+	 * @return whether this node runs the jobs that must not run on every node of a cluster, that
+	 * is whether it is the coordinator of the cache cluster or not clustered
+	 */
+	private boolean isCoordinator() {
+		if (!(cacheManager instanceof SpringEmbeddedCacheManager)) {
+			return true;
+		}
+		EmbeddedCacheManager embeddedCacheManager = ((SpringEmbeddedCacheManager) cacheManager).getNativeCacheManager();
+		return embeddedCacheManager.getTransport() == null || embeddedCacheManager.isCoordinator();
+	}
+
+	private Resource relatedPostsWatermark() {
+		return resourceLoader.getResource(wallRideProperties.getHome() + "index/related-posts.watermark");
+	}
+
+	private LocalDateTime getRelatedPostsUpdatedAt() {
+		Resource resource = relatedPostsWatermark();
+		if (!resource.exists()) {
+			return null;
+		}
+		Properties properties = new Properties();
+		try (InputStream in = resource.getInputStream()) {
+			properties.load(in);
+		}
+		catch (IOException e) {
+			logger.warn("Could not read {}", resource, e);
+			return null;
+		}
+		String value = properties.getProperty(RELATED_POSTS_UPDATED_AT);
+		return (value != null) ? LocalDateTime.parse(value) : null;
+	}
+
+	private void setRelatedPostsUpdatedAt(LocalDateTime value) {
+		Resource resource = relatedPostsWatermark();
+		if (!(resource instanceof WritableResource)) {
+			return;
+		}
+		Properties properties = new Properties();
+		properties.setProperty(RELATED_POSTS_UPDATED_AT, value.toString());
+		try {
+			if (resource.isFile()) {
+				resource.getFile().getParentFile().mkdirs();
+			}
+			try (OutputStream out = ((WritableResource) resource).getOutputStream()) {
+				properties.store(out, null);
+			}
+		}
+		catch (IOException e) {
+			logger.warn("Could not save {}", resource, e);
+		}
+	}
 }
@@ -53,6 +53,7 @@ import org.thymeleaf.templateresolver.ITemplateResolver;
 import org.wallride.service.ArticleService;
 import org.wallride.service.CategoryService;
 import org.wallride.service.PageService;
+import org.wallride.service.PostService;
 import org.wallride.service.TagService;
 import org.wallride.support.ArticleUtils;
 import org.wallride.support.CategoryUtils;
@@ -70,6 +71,9 @@ public class WallRideThymeleafConfiguration {
 	@Autowired
 	private WallRideProperties wallRideProperties;
 
+	@Autowired
+	private PostService postService;
+
 	@Autowired
 	private ArticleService articleService;
 
@@ -90,7 +94,7 @@ public class WallRideThymeleafConfiguration {
 
 	@Bean
 	public PostUtils postUtils(PageUtils pageUtils) {
-		return new PostUtils(pageUtils);
+		return new PostUtils(pageUtils, postService);
 	}
 
 	@Bean
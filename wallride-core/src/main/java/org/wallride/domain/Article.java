@@ -29,23 +29,13 @@ import javax.persistence.*;
 				attributeNodes = {
 						@NamedAttributeNode("cover"),
 						@NamedAttributeNode("author"),
-						@NamedAttributeNode("drafted"),
-						@NamedAttributeNode("categories"),
-						@NamedAttributeNode("tags")
+						@NamedAttributeNode("drafted")
 				}),
 		@NamedEntityGraph(name = Article.DEEP_GRAPH_NAME,
 				attributeNodes = {
 						@NamedAttributeNode("cover"),
 						@NamedAttributeNode("author"),
-						@NamedAttributeNode("drafted"),
-						@NamedAttributeNode("categories"),
-						@NamedAttributeNode("tags"),
-						@NamedAttributeNode("relatedToPosts"),
-						@NamedAttributeNode(value = "customFieldValues", subgraph = "customFieldValue")},
-				subgraphs =  {
-						@NamedSubgraph(name = "customFieldValue",
-								attributeNodes = {
-										@NamedAttributeNode("customField")})})
+						@NamedAttributeNode("drafted")})
 })
 @Table(name = "article")
 @DynamicInsert
@@ -16,6 +16,8 @@
 
 package org.wallride.domain;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.DynamicInsert;
 import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.search.annotations.Analyze;
@@ -40,6 +42,7 @@ import java.util.Set;
 @Table(name = "blog")
 @DynamicInsert
 @DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("serial")
 public class Blog extends DomainObject<Long> {
 
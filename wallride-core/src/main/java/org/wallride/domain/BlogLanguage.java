@@ -28,6 +28,8 @@ import javax.persistence.UniqueConstraint;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.DynamicInsert;
 import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.search.annotations.Field;
@@ -36,6 +38,7 @@ import org.hibernate.search.annotations.Field;
 @Table(name = "blog_language", uniqueConstraints = @UniqueConstraint(columnNames = {"blog_id", "language"}))
 @DynamicInsert
 @DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("serial")
 public class BlogLanguage extends DomainObject<Long> {
 
@@ -16,6 +16,8 @@
 
 package org.wallride.domain;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.DynamicInsert;
 import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.SortNatural;
@@ -42,6 +44,7 @@ import java.util.TreeSet;
 @Table(name = "category", uniqueConstraints = @UniqueConstraint(columnNames = {"code", "language"}))
 @DynamicInsert
 @DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Indexed
 @SuppressWarnings("serial")
 public class Category extends DomainObject<Long> implements Comparable<Category> {
@@ -51,8 +54,12 @@ public class Category extends DomainObject<Long> implements Comparable<Category>
 
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
-	@Field(name = "sortId", analyze = Analyze.NO, index = Index.NO)
+	@Fields({
+			@Field(name = "sortId", analyze = Analyze.NO, index = Index.NO),
+			@Field(name = "facetId", analyze = Analyze.NO)
+	})
 	@SortableField(forField = "sortId")
+	@Facet(forField = "facetId", encoding = FacetEncodingType.STRING)
 	private long id;
 
 	@Column(length = 200, nullable = false)
@@ -95,6 +102,7 @@ public class Category extends DomainObject<Long> implements Comparable<Category>
 			joinColumns = {@JoinColumn(name = "category_id")},
 			inverseJoinColumns = @JoinColumn(name = "post_id", referencedColumnName = "id"))
 	@SortNatural
+	@ContainedIn
 	private SortedSet<Post> posts = new TreeSet<>();
 
 //	@Formula("(" +
@@ -30,6 +30,9 @@ import javax.persistence.UniqueConstraint;
 import org.apache.commons.lang3.builder.CompareToBuilder;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.DynamicInsert;
 import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.SortNatural;
@@ -48,6 +51,8 @@ import org.hibernate.search.annotations.SortableField;
 @Table(uniqueConstraints = @UniqueConstraint(columnNames = {"code", "language"}))
 @DynamicInsert
 @DynamicUpdate
+@BatchSize(size = 50)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Indexed
 @SuppressWarnings("serial")
 public class CustomField extends DomainObject<Long> implements Comparable<CustomField> {
@@ -124,6 +129,7 @@ public class CustomField extends DomainObject<Long> implements Comparable<Custom
 	private SortedSet<CustomFieldValue> customFieldValues = new TreeSet<>();
 
 	@ElementCollection(fetch=FetchType.LAZY)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 	@JoinTable(name="custom_field_option", joinColumns=@JoinColumn(name="custom_field_id"))
 	@OrderColumn(name="`idx`")
 	private List<CustomFieldOption> options = new ArrayList<>();
@@ -21,16 +21,24 @@ import java.time.LocalDateTime;
 
 import javax.persistence.Column;
 import javax.persistence.MappedSuperclass;
+import javax.persistence.PreUpdate;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.lucene.analysis.cjk.CJKWidthFilterFactory;
 import org.apache.lucene.analysis.core.LowerCaseFilterFactory;
+import org.apache.lucene.analysis.core.StopFilterFactory;
 import org.apache.lucene.analysis.core.WhitespaceTokenizerFactory;
+import org.apache.lucene.analysis.en.EnglishPossessiveFilterFactory;
+import org.apache.lucene.analysis.en.PorterStemFilterFactory;
+import org.apache.lucene.analysis.es.SpanishLightStemFilterFactory;
 import org.apache.lucene.analysis.ja.JapaneseBaseFormFilterFactory;
 import org.apache.lucene.analysis.ja.JapaneseKatakanaStemFilterFactory;
+import org.apache.lucene.analysis.ja.JapanesePartOfSpeechStopFilterFactory;
 import org.apache.lucene.analysis.ja.JapaneseTokenizerFactory;
+import org.apache.lucene.analysis.miscellaneous.TruncateTokenFilterFactory;
 import org.apache.lucene.analysis.ngram.EdgeNGramFilterFactory;
+import org.apache.lucene.analysis.standard.StandardTokenizerFactory;
 import org.apache.lucene.analysis.synonym.SynonymFilterFactory;
 import org.hibernate.search.annotations.AnalyzerDef;
 import org.hibernate.search.annotations.AnalyzerDefs;
@@ -64,6 +72,57 @@ import org.hibernate.search.annotations.TokenizerDef;
 	        // @TokenFilterDef(factory = SnowballPorterFilterFactory.class, params = { @Parameter(name = "language", value = "English") }),
 	        @TokenFilterDef(factory = EdgeNGramFilterFactory.class, params = { @Parameter(name = "maxGramSize", value = "15") })
 	
+	}),
+
+	@AnalyzerDef(name = "suggest", tokenizer = @TokenizerDef(factory = WhitespaceTokenizerFactory.class), filters = {
+			@TokenFilterDef(factory = CJKWidthFilterFactory.class),
+			@TokenFilterDef(factory = LowerCaseFilterFactory.class),
+			@TokenFilterDef(factory = EdgeNGramFilterFactory.class, params = {
+					@Parameter(name = "minGramSize", value = "1"),
+					@Parameter(name = "maxGramSize", value = "20")})
+	}),
+
+	@AnalyzerDef(name = "suggestQuery", tokenizer = @TokenizerDef(factory = WhitespaceTokenizerFactory.class), filters = {
+			@TokenFilterDef(factory = CJKWidthFilterFactory.class),
+			@TokenFilterDef(factory = LowerCaseFilterFactory.class),
+			@TokenFilterDef(factory = TruncateTokenFilterFactory.class, params = {
+					@Parameter(name = "prefixLength", value = "20")})
+	}),
+
+	@AnalyzerDef(name = "text", tokenizer = @TokenizerDef(factory = StandardTokenizerFactory.class), filters = {
+			@TokenFilterDef(factory = CJKWidthFilterFactory.class),
+			@TokenFilterDef(factory = LowerCaseFilterFactory.class)
+	}),
+
+	@AnalyzerDef(name = "text_ja", tokenizer = @TokenizerDef(factory = JapaneseTokenizerFactory.class, params = {
+			@Parameter(name = "mode", value = "SEARCH")}),
+			filters = {
+					@TokenFilterDef(factory = JapaneseBaseFormFilterFactory.class),
+					@TokenFilterDef(factory = JapanesePartOfSpeechStopFilterFactory.class, params = {
+							@Parameter(name = "tags", value = "org/apache/lucene/analysis/ja/stoptags.txt")}),
+					@TokenFilterDef(factory = CJKWidthFilterFactory.class),
+					@TokenFilterDef(factory = StopFilterFactory.class, params = {
+							@Parameter(name = "words", value = "org/apache/lucene/analysis/ja/stopwords.txt")}),
+					@TokenFilterDef(factory = JapaneseKatakanaStemFilterFactory.class, params = {
+							@Parameter(name = "minimumLength", value = "4")}),
+					@TokenFilterDef(factory = LowerCaseFilterFactory.class)
+	}),
+
+	@AnalyzerDef(name = "text_en", tokenizer = @TokenizerDef(factory = StandardTokenizerFactory.class), filters = {
+			@TokenFilterDef(factory = EnglishPossessiveFilterFactory.class),
+			@TokenFilterDef(factory = LowerCaseFilterFactory.class),
+			@TokenFilterDef(factory = StopFilterFactory.class, params = {
+					@Parameter(name = "words", value = "org/apache/lucene/analysis/snowball/english_stop.txt"),
+					@Parameter(name = "format", value = "snowball")}),
+			@TokenFilterDef(factory = PorterStemFilterFactory.class)
+	}),
+
+	@AnalyzerDef(name = "text_es", tokenizer = @TokenizerDef(factory = StandardTokenizerFactory.class), filters = {
+			@TokenFilterDef(factory = LowerCaseFilterFactory.class),
+			@TokenFilterDef(factory = StopFilterFactory.class, params = {
+					@Parameter(name = "words", value = "org/apache/lucene/analysis/snowball/spanish_stop.txt"),
+					@Parameter(name = "format", value = "snowball")}),
+			@TokenFilterDef(factory = SpanishLightStemFilterFactory.class)
 	})
 })
 @SuppressWarnings("serial")
@@ -117,6 +176,15 @@ public abstract class DomainObject<ID extends Serializable> implements Serializa
 
 	public abstract String print();
 
+	/**
+	 * Stamps every update, including the ones made outside the services which set
+	 * {@code updatedAt} themselves, so that a delta re-index does not miss them.
+	 */
+	@PreUpdate
+	protected void preUpdate() {
+		this.updatedAt = LocalDateTime.now();
+	}
+
 	@Override
 	public boolean equals(Object other) {
 		if (this == other) return true;
@@ -16,6 +16,9 @@
 
 package org.wallride.domain;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.DynamicInsert;
 import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.GenericGenerator;
@@ -27,6 +30,8 @@ import java.util.List;
 @Table(name = "media")
 @DynamicInsert
 @DynamicUpdate
+@BatchSize(size = 50)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("serial")
 public class Media extends DomainObject<String> {
 
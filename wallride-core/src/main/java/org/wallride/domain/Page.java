@@ -16,6 +16,7 @@
 
 package org.wallride.domain;
 
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.DynamicInsert;
 import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.search.annotations.*;
@@ -29,26 +30,14 @@ import java.util.List;
 			attributeNodes = {
 					@NamedAttributeNode("cover"),
 					@NamedAttributeNode("author"),
-					@NamedAttributeNode("parent"),
-					@NamedAttributeNode("children"),
-					@NamedAttributeNode("categories"),
-					@NamedAttributeNode("tags")
+					@NamedAttributeNode("parent")
 			}
 	),
 	@NamedEntityGraph(name = Page.DEEP_GRAPH_NAME,
 			attributeNodes = {
 					@NamedAttributeNode("cover"),
 					@NamedAttributeNode("author"),
-					@NamedAttributeNode("parent"),
-					@NamedAttributeNode("children"),
-					@NamedAttributeNode("categories"),
-					@NamedAttributeNode("tags"),
-					@NamedAttributeNode("relatedToPosts"),
-					@NamedAttributeNode(value = "customFieldValues", subgraph = "customFieldValue")},
-			subgraphs =  {
-					@NamedSubgraph(name = "customFieldValue",
-							attributeNodes = {
-									@NamedAttributeNode("customField")})})
+					@NamedAttributeNode("parent")})
 })
 @Table(name="page")
 @DynamicInsert
@@ -78,6 +67,7 @@ public class Page extends Post implements Comparable<Page> {
 	private Page parent;
 
 	@OneToMany(mappedBy="parent", cascade=CascadeType.ALL)
+	@BatchSize(size = 50)
 	private List<Page> children;
 
 	public int getLft() {
@@ -20,6 +20,11 @@ import org.hibernate.annotations.*;
 import org.hibernate.search.annotations.*;
 import org.hibernate.search.annotations.Index;
 import org.wallride.support.CustomFieldValuesBridge;
+import org.wallride.support.HtmlTextBridge;
+import org.wallride.support.LanguageAnalyzerDiscriminator;
+import org.wallride.support.PostSummaryBridge;
+import org.wallride.support.SuggestBridge;
+import org.wallride.support.YearMonthBridge;
 
 import javax.persistence.CascadeType;
 import javax.persistence.*;
@@ -44,7 +49,12 @@ import java.util.*;
 @Inheritance(strategy = InheritanceType.JOINED)
 @DynamicInsert
 @DynamicUpdate
+@BatchSize(size = 50)
 @Indexed
+@ClassBridges({
+		@ClassBridge(name = "summary", impl = PostSummaryBridge.class, index = Index.NO, store = Store.YES, analyze = Analyze.NO),
+		@ClassBridge(name = SuggestBridge.FIELD, impl = SuggestBridge.class, analyzer = @Analyzer(definition = "suggest"), norms = Norms.NO)
+})
 @SuppressWarnings("serial")
 public class Post extends DomainObject<Long> {
 
@@ -67,17 +77,18 @@ public class Post extends DomainObject<Long> {
 
 	@Column(length = 3, nullable = false)
 	@Field
+	@AnalyzerDiscriminator(impl = LanguageAnalyzerDiscriminator.class)
 	private String language;
 
 	@Column(length = 200)
-	@Field
+	@Field(store = Store.YES, termVector = TermVector.WITH_POSITION_OFFSETS)
 	private String title;
 
 	@ManyToOne
 	private Media cover;
 
 	@Lob
-	@Field
+	@Field(store = Store.YES, termVector = TermVector.WITH_POSITION_OFFSETS, bridge = @FieldBridge(impl = HtmlTextBridge.class))
 	private String body;
 
 	@Embedded
@@ -86,9 +97,11 @@ public class Post extends DomainObject<Long> {
 
 	@Fields({
 			@Field,
-			@Field(name = "sortDate", analyze = Analyze.NO, index = Index.NO)
+			@Field(name = "sortDate", analyze = Analyze.NO, index = Index.NO),
+			@Field(name = "facetMonth", analyze = Analyze.NO, bridge = @FieldBridge(impl = YearMonthBridge.class))
 	})
 	@SortableField(forField = "sortDate")
+	@Facet(forField = "facetMonth", encoding = FacetEncodingType.STRING)
 	private LocalDateTime date;
 
 	@ManyToOne
@@ -115,6 +128,7 @@ public class Post extends DomainObject<Long> {
 			name = "post_category",
 			joinColumns = {@JoinColumn(name = "post_id")},
 			inverseJoinColumns = @JoinColumn(name = "category_id", referencedColumnName = "id"))
+	@BatchSize(size = 50)
 	@SortNatural
 	@IndexedEmbedded(includeEmbeddedObjectId = true)
 	private SortedSet<Category> categories = new TreeSet<>();
@@ -124,11 +138,13 @@ public class Post extends DomainObject<Long> {
 			name = "post_tag",
 			joinColumns = {@JoinColumn(name = "post_id")},
 			inverseJoinColumns = @JoinColumn(name = "tag_id", referencedColumnName = "id"))
+	@BatchSize(size = 50)
 	@SortNatural
 	@IndexedEmbedded(includeEmbeddedObjectId = true)
 	private SortedSet<Tag> tags = new TreeSet<>();
 
 	@OneToMany(mappedBy = "post", cascade = CascadeType.ALL)
+	@BatchSize(size = 50)
 	@SortNatural
 //	@IndexedEmbedded(includeEmbeddedObjectId = true)
 	@Field(bridge = @FieldBridge(impl = CustomFieldValuesBridge.class))
@@ -150,6 +166,7 @@ public class Post extends DomainObject<Long> {
 			name = "post_related_post",
 			joinColumns = {@JoinColumn(name = "post_id")},
 			inverseJoinColumns = {@JoinColumn(name = "related_id")})
+	@BatchSize(size = 50)
 	private Set<Post> relatedToPosts = new HashSet<>();
 
 	@ManyToMany
@@ -31,33 +31,49 @@ import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
 
 import org.apache.commons.lang3.builder.CompareToBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.DynamicInsert;
 import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.SortNatural;
 import org.hibernate.search.annotations.Analyze;
+import org.hibernate.search.annotations.Analyzer;
+import org.hibernate.search.annotations.ClassBridge;
+import org.hibernate.search.annotations.ContainedIn;
+import org.hibernate.search.annotations.Facet;
+import org.hibernate.search.annotations.FacetEncodingType;
 import org.hibernate.search.annotations.Field;
 import org.hibernate.search.annotations.Fields;
 import org.hibernate.search.annotations.Index;
 import org.hibernate.search.annotations.Indexed;
+import org.hibernate.search.annotations.Norms;
 import org.hibernate.search.annotations.SortableField;
+import org.hibernate.search.annotations.TermVector;
+import org.wallride.support.SuggestBridge;
 
 @Entity
 @Table(name = "tag", uniqueConstraints = @UniqueConstraint(columnNames = {"name", "language"}))
 @DynamicInsert
 @DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Indexed
+@ClassBridge(name = SuggestBridge.FIELD, impl = SuggestBridge.class, analyzer = @Analyzer(definition = "suggest"), norms = Norms.NO)
 @SuppressWarnings("serial")
 public class Tag extends DomainObject<Long> implements Comparable<Tag> {
 
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
-	@Field(name = "sortId", analyze = Analyze.NO, index = Index.NO)
+	@Fields({
+			@Field(name = "sortId", analyze = Analyze.NO, index = Index.NO),
+			@Field(name = "facetId", analyze = Analyze.NO)
+	})
 	@SortableField(forField = "sortId")
+	@Facet(forField = "facetId", encoding = FacetEncodingType.STRING)
 	private long id;
 
 	@Column(length = 200, nullable = false)
 	@Fields({
-			@Field,
+			@Field(termVector = TermVector.YES),
 			@Field(name = "sortName", analyze = Analyze.NO, index = org.hibernate.search.annotations.Index.NO)
 	})
 	@SortableField(forField = "sortName")
@@ -73,6 +89,7 @@ public class Tag extends DomainObject<Long> implements Comparable<Tag> {
 			joinColumns = {@JoinColumn(name = "tag_id")},
 			inverseJoinColumns = @JoinColumn(name = "post_id", referencedColumnName = "id"))
 	@SortNatural
+	@ContainedIn
 	private SortedSet<Post> posts = new TreeSet<>();
 
 //	@Formula("(" +
@@ -16,14 +16,19 @@
 
 package org.wallride.domain;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.DynamicInsert;
 import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.SortNatural;
 import org.hibernate.search.annotations.*;
 import org.springframework.util.DigestUtils;
+import org.wallride.support.SuggestBridge;
 
 import javax.persistence.*;
 import java.io.UnsupportedEncodingException;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
@@ -40,7 +45,10 @@ import java.util.TreeSet;
 @Table(name = "user")
 @DynamicInsert
 @DynamicUpdate
+@BatchSize(size = 50)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Indexed
+@ClassBridge(name = SuggestBridge.FIELD, impl = SuggestBridge.class, analyzer = @Analyzer(definition = "suggest"), norms = Norms.NO)
 @SuppressWarnings("serial")
 public class User extends DomainObject<Long> {
 
@@ -59,8 +67,12 @@ public class User extends DomainObject<Long> {
 
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
-	@Field(name = "sortId", analyze = Analyze.NO, index = org.hibernate.search.annotations.Index.NO)
+	@Fields({
+			@Field(name = "sortId", analyze = Analyze.NO, index = org.hibernate.search.annotations.Index.NO),
+			@Field(name = "facetId", analyze = Analyze.NO)
+	})
 	@SortableField(forField = "sortId")
+	@Facet(forField = "facetId", encoding = FacetEncodingType.STRING)
 	private long id;
 
 	@Column(length = 100, nullable = false, unique = true)
@@ -91,6 +103,7 @@ public class User extends DomainObject<Long> {
 
 	@ElementCollection
 	@SortNatural
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 	@JoinTable(name = "user_role")
 	@Enumerated(EnumType.STRING)
 	@Column(name = "role", length = 20, nullable = false)
@@ -98,6 +111,15 @@ public class User extends DomainObject<Long> {
 	@Field
 	private SortedSet<Role> roles = new TreeSet<>();
 
+	/**
+	 * Only mapped so that the posts embedding the author in their index documents are reindexed when
+	 * the user changes. Deliberately has no accessors, so that {@link org.wallride.support.AuthorizedUser}
+	 * does not copy it.
+	 */
+	@OneToMany(mappedBy = "author")
+	@ContainedIn
+	private Set<Post> posts;
+
 	@Override
 	public Long getId() {
 		return id;
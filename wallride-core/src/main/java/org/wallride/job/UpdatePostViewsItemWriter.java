@@ -122,8 +122,7 @@ public class UpdatePostViewsItemWriter implements ItemWriter<ReportRow> {
 
 			Long itemViews = Long.parseLong((String) item.getMetrics().get(0).getValues().get(0));
 			logger.info("Update the PageView. Post ID [{}]: {} -> {}", post.getId(), post.getViews(), itemViews);
-			post.setViews(itemViews);
-			postRepository.saveAndFlush(post);
+			postRepository.updateViews(post.getId(), itemViews);
 		}
 	}
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wallride.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The published articles of a language in reading order, newest first, to find the neighbours of
+ * an article by binary search.
+ */
+@SuppressWarnings("serial")
+public class ArticleNavigation implements Serializable {
+
+	private final String language;
+
+	private final long[] dates;
+
+	private final long[] ids;
+
+	/**
+	 * @param rows the id and the date of each article
+	 */
+	public ArticleNavigation(String language, List<Object[]> rows) {
+		long[][] entries = new long[rows.size()][];
+		for (int i = 0; i < entries.length; i++) {
+			Object[] row = rows.get(i);
+			entries[i] = new long[] {toKey((LocalDateTime) row[1]), (Long) row[0]};
+		}
+		Arrays.sort(entries, Comparator.<long[]>comparingLong(entry -> entry[0]).thenComparingLong(entry -> entry[1]).reversed());
+
+		this.language = language;
+		this.dates = new long[entries.length];
+		this.ids = new long[entries.length];
+		for (int i = 0; i < entries.length; i++) {
+			dates[i] = entries[i][0];
+			ids[i] = entries[i][1];
+		}
+	}
+
+	public String getLanguage() {
+		return language;
+	}
+
+	public int size() {
+		return ids.length;
+	}
+
+	/**
+	 * @return the id of the article published just before the given one, or {@code null}
+	 */
+	public Long getNextId(long id, LocalDateTime date) {
+		int index = indexOf(id, date);
+		return (index >= 0 && index < ids.length - 1) ? ids[index + 1] : null;
+	}
+
+	/**
+	 * @return the id of the article published just after the given one, or {@code null}
+	 */
+	public Long getPreviousId(long id, LocalDateTime date) {
+		int index = indexOf(id, date);
+		return (index > 0) ? ids[index - 1] : null;
+	}
+
+	private int indexOf(long id, LocalDateTime date) {
+		long key = toKey(date);
+		int low = 0;
+		int high = ids.length - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			// Descending by date then by id
+			int r = (dates[middle] != key) ? Long.compare(key, dates[middle]) : Long.compare(id, ids[middle]);
+			if (r == 0) {
+				return middle;
+			}
+			if (r > 0) {
+				high = middle - 1;
+			}
+			else {
+				low = middle + 1;
+			}
+		}
+		return -1;
+	}
+
+	private static long toKey(LocalDateTime date) {
+		return (date != null) ? date.toInstant(ZoneOffset.UTC).toEpochMilli() : Long.MIN_VALUE;
+	}
+}
@@ -21,9 +21,12 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.data.domain.Sort;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
@@ -40,9 +43,12 @@ public class ArticleSearchRequest implements Serializable {
 	private Collection<Long> tagIds;
 	private Collection<String> tagNames;
 	private MultiValueMap<String, Object> customFields;
+	private Sort.Order customFieldOrder;
 	private Long authorId;
 	private Post.Status status;
 	private String language;
+	private PostCursor after;
+	private PostCursor before;
 
 	public ArticleSearchRequest() {
 		this.language = LocaleContextHolder.getLocale().getLanguage();
@@ -212,6 +218,24 @@ public class ArticleSearchRequest implements Serializable {
 		return this;
 	}
 
+	public Sort.Order getCustomFieldOrder() {
+		return customFieldOrder;
+	}
+
+	public void setCustomFieldOrder(Sort.Order customFieldOrder) {
+		this.customFieldOrder = customFieldOrder;
+	}
+
+	/**
+	 * Sorts the articles by the number, date or datetime custom field named by the property of the
+	 * order, the articles without a value last, then in reading order. It is meant for offset
+	 * paging, as cursors follow the reading order.
+	 */
+	public ArticleSearchRequest withCustomFieldOrder(Sort.Order customFieldOrder) {
+		this.customFieldOrder = customFieldOrder;
+		return this;
+	}
+
 	public Long getAuthorId() {
 		return authorId;
 	}
@@ -251,6 +275,40 @@ public class ArticleSearchRequest implements Serializable {
 		return this;
 	}
 
+	public PostCursor getAfter() {
+		return after;
+	}
+
+	public void setAfter(PostCursor after) {
+		this.after = after;
+	}
+
+	/**
+	 * Restricts the search to the articles following the given one in reading order, the offset
+	 * of the pageable is then ignored.
+	 */
+	public ArticleSearchRequest withAfter(PostCursor after) {
+		this.after = after;
+		return this;
+	}
+
+	public PostCursor getBefore() {
+		return before;
+	}
+
+	public void setBefore(PostCursor before) {
+		this.before = before;
+	}
+
+	/**
+	 * Restricts the search to the articles preceding the given one in reading order, the offset
+	 * of the pageable is then ignored.
+	 */
+	public ArticleSearchRequest withBefore(PostCursor before) {
+		this.before = before;
+		return this;
+	}
+
 	public boolean isEmpty() {
 		if (StringUtils.hasText(getKeyword())) {
 			return false;
@@ -282,6 +340,49 @@ public class ArticleSearchRequest implements Serializable {
 		return true;
 	}
 
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) return true;
+		if (other == null || !(other instanceof ArticleSearchRequest)) return false;
+		ArticleSearchRequest that = (ArticleSearchRequest) other;
+		return new EqualsBuilder()
+				.append(getKeyword(), that.getKeyword())
+				.append(getDateFrom(), that.getDateFrom())
+				.append(getDateTo(), that.getDateTo())
+				.append(getCategoryIds(), that.getCategoryIds())
+				.append(getCategoryCodes(), that.getCategoryCodes())
+				.append(getTagIds(), that.getTagIds())
+				.append(getTagNames(), that.getTagNames())
+				.append(getCustomFields(), that.getCustomFields())
+				.append(getCustomFieldOrder(), that.getCustomFieldOrder())
+				.append(getAuthorId(), that.getAuthorId())
+				.append(getStatus(), that.getStatus())
+				.append(getLanguage(), that.getLanguage())
+				.append(getAfter(), that.getAfter())
+				.append(getBefore(), that.getBefore())
+				.isEquals();
+	}
+
+	@Override
+	public int hashCode() {
+		return new HashCodeBuilder()
+				.append(getKeyword())
+				.append(getDateFrom())
+				.append(getDateTo())
+				.append(getCategoryIds())
+				.append(getCategoryCodes())
+				.append(getTagIds())
+				.append(getTagNames())
+				.append(getCustomFields())
+				.append(getCustomFieldOrder())
+				.append(getAuthorId())
+				.append(getStatus())
+				.append(getLanguage())
+				.append(getAfter())
+				.append(getBefore())
+				.toHashCode();
+	}
+
 	@Override
 	public String toString() {
 		return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
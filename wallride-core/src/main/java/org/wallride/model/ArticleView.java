@@ -0,0 +1,41 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.model;
+
+import org.wallride.domain.Article;
+
+/**
+ * Immutable snapshot of an {@link Article}, ordered like the entity.
+ */
+@SuppressWarnings("serial")
+public class ArticleView extends PostView implements Comparable<ArticleView> {
+
+	public ArticleView(Article article) {
+		super(article);
+	}
+
+	@Override
+	public int compareTo(ArticleView article) {
+		if (getDate() != null && article.getDate() == null) return 1;
+		if (getDate() == null && article.getDate() != null) return -1;
+		if (getDate() != null && article.getDate() != null) {
+			int r = getDate().compareTo(article.getDate());
+			if (r != 0) return r * -1;
+		}
+		return (int) (article.getId() - getId());
+	}
+}
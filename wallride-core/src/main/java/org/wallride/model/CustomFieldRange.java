@@ -0,0 +1,87 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.model;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.io.Serializable;
+
+/**
+ * A range of the values of a number, date or datetime custom field, given as a value of
+ * {@link ArticleSearchRequest#getCustomFields()}. Both bounds are inclusive, and a {@code null}
+ * bound leaves the range open on that side. The bounds are numbers, dates or datetimes, or their
+ * decimal or ISO representation.
+ */
+@SuppressWarnings("serial")
+public class CustomFieldRange implements Serializable {
+
+	private final Object from;
+
+	private final Object to;
+
+	public CustomFieldRange(Object from, Object to) {
+		this.from = from;
+		this.to = to;
+	}
+
+	public static CustomFieldRange between(Object from, Object to) {
+		return new CustomFieldRange(from, to);
+	}
+
+	public static CustomFieldRange atLeast(Object from) {
+		return new CustomFieldRange(from, null);
+	}
+
+	public static CustomFieldRange atMost(Object to) {
+		return new CustomFieldRange(null, to);
+	}
+
+	public Object getFrom() {
+		return from;
+	}
+
+	public Object getTo() {
+		return to;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) return true;
+		if (other == null || !(other instanceof CustomFieldRange)) return false;
+		CustomFieldRange that = (CustomFieldRange) other;
+		return new EqualsBuilder()
+				.append(getFrom(), that.getFrom())
+				.append(getTo(), that.getTo())
+				.isEquals();
+	}
+
+	@Override
+	public int hashCode() {
+		return new HashCodeBuilder()
+				.append(getFrom())
+				.append(getTo())
+				.toHashCode();
+	}
+
+	@Override
+	public String toString() {
+		return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+	}
+}
@@ -20,6 +20,8 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 import org.springframework.context.i18n.LocaleContextHolder;
@@ -253,6 +255,39 @@ public class PageSearchRequest implements Serializable {
 		return true;
 	}
 
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) return true;
+		if (other == null || !(other instanceof PageSearchRequest)) return false;
+		PageSearchRequest that = (PageSearchRequest) other;
+		return new EqualsBuilder()
+				.append(getKeyword(), that.getKeyword())
+				.append(getTagIds(), that.getTagIds())
+				.append(getTagNames(), that.getTagNames())
+				.append(getCategoryIds(), that.getCategoryIds())
+				.append(getCategoryCodes(), that.getCategoryCodes())
+				.append(getCustomFields(), that.getCustomFields())
+				.append(getAuthorId(), that.getAuthorId())
+				.append(getStatus(), that.getStatus())
+				.append(getLanguage(), that.getLanguage())
+				.isEquals();
+	}
+
+	@Override
+	public int hashCode() {
+		return new HashCodeBuilder()
+				.append(getKeyword())
+				.append(getTagIds())
+				.append(getTagNames())
+				.append(getCategoryIds())
+				.append(getCategoryCodes())
+				.append(getCustomFields())
+				.append(getAuthorId())
+				.append(getStatus())
+				.append(getLanguage())
+				.toHashCode();
+	}
+
 	@Override
 	public String toString() {
 		return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
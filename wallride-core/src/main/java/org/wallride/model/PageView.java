@@ -0,0 +1,59 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.model;
+
+import org.wallride.domain.Page;
+
+/**
+ * Immutable snapshot of a {@link Page}. The parent is kept as an id, so the hierarchy is rebuilt
+ * from the snapshots of the other pages.
+ */
+@SuppressWarnings("serial")
+public class PageView extends PostView implements Comparable<PageView> {
+
+	private final Long parentId;
+	private final int lft;
+	private final int rgt;
+
+	public PageView(Page page) {
+		super(page);
+		this.parentId = (page.getParent() != null) ? page.getParent().getId() : null;
+		this.lft = page.getLft();
+		this.rgt = page.getRgt();
+	}
+
+	public Long getParentId() {
+		return parentId;
+	}
+
+	public int getLft() {
+		return lft;
+	}
+
+	public int getRgt() {
+		return rgt;
+	}
+
+	@Override
+	public int compareTo(PageView page) {
+		int lftDiff = getLft() - page.getLft();
+		if (lftDiff != 0) {
+			return lftDiff;
+		}
+		return (int) (page.getId() - getId());
+	}
+}
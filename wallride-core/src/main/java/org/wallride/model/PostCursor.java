@@ -0,0 +1,97 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wallride.model;
+
+import org.wallride.domain.Post;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+
+/**
+ * Position of a post in reading order, newest first, to page through the posts following or
+ * preceding it without skipping the posts in between. Written as {@code <date>_<id>} in URLs.
+ */
+@SuppressWarnings("serial")
+public final class PostCursor implements Serializable {
+
+	private static final char SEPARATOR = '_';
+
+	private final LocalDateTime date;
+
+	private final long id;
+
+	public PostCursor(LocalDateTime date, long id) {
+		this.date = date;
+		this.id = id;
+	}
+
+	public static PostCursor of(Post post) {
+		return new PostCursor(post.getDate(), post.getId());
+	}
+
+	public static PostCursor of(PostView post) {
+		return new PostCursor(post.getDate(), post.getId());
+	}
+
+	/**
+	 * @return the cursor written in the given value, or {@code null} when it is empty or malformed
+	 */
+	public static PostCursor parse(String value) {
+		if (value == null) {
+			return null;
+		}
+		int index = value.lastIndexOf(SEPARATOR);
+		if (index <= 0) {
+			return null;
+		}
+		try {
+			return new PostCursor(LocalDateTime.parse(value.substring(0, index)), Long.parseLong(value.substring(index + 1)));
+		}
+		catch (DateTimeParseException | NumberFormatException e) {
+			return null;
+		}
+	}
+
+	public LocalDateTime getDate() {
+		return date;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) return true;
+		if (!(other instanceof PostCursor)) return false;
+		PostCursor that = (PostCursor) other;
+		return id == that.id && Objects.equals(date, that.date);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(date, id);
+	}
+
+	@Override
+	public String toString() {
+		return date + String.valueOf(SEPARATOR) + id;
+	}
+}
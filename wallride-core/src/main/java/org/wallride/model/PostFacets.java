@@ -0,0 +1,66 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.model;
+
+import java.io.Serializable;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The number of posts matching a search per category, tag, author and month, each ordered by
+ * descending count. Values without any matching post are left out.
+ */
+@SuppressWarnings("serial")
+public class PostFacets implements Serializable {
+
+	private final Map<Long, Long> categories = new LinkedHashMap<>();
+
+	private final Map<Long, Long> tags = new LinkedHashMap<>();
+
+	private final Map<Long, Long> authors = new LinkedHashMap<>();
+
+	private final Map<YearMonth, Long> months = new LinkedHashMap<>();
+
+	/**
+	 * @return the number of posts per category id
+	 */
+	public Map<Long, Long> getCategories() {
+		return categories;
+	}
+
+	/**
+	 * @return the number of posts per tag id
+	 */
+	public Map<Long, Long> getTags() {
+		return tags;
+	}
+
+	/**
+	 * @return the number of posts per author id
+	 */
+	public Map<Long, Long> getAuthors() {
+		return authors;
+	}
+
+	/**
+	 * @return the number of posts per month of their date
+	 */
+	public Map<YearMonth, Long> getMonths() {
+		return months;
+	}
+}
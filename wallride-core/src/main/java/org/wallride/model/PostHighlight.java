@@ -0,0 +1,47 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.model;
+
+import java.io.Serializable;
+
+/**
+ * The title and an excerpt of the body of a search hit as HTML, escaped and with the matched
+ * terms wrapped in {@code <mark>}.
+ */
+@SuppressWarnings("serial")
+public class PostHighlight implements Serializable {
+
+	private final String title;
+
+	private final String snippet;
+
+	public PostHighlight(String title, String snippet) {
+		this.title = title;
+		this.snippet = snippet;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	/**
+	 * @return the part of the body with the most matches, or its beginning if it has none
+	 */
+	public String getSnippet() {
+		return snippet;
+	}
+}
@@ -32,6 +32,8 @@ public class PostSearchRequest {
 	private LocalDateTime dateFrom;
 	private LocalDateTime dateTo;
 	private String language;
+	private PostCursor after;
+	private PostCursor before;
 
 	public PostSearchRequest(String language) {
 		this.language = language;
@@ -155,4 +157,30 @@ public class PostSearchRequest {
 		this.language = language;
 		return this;
 	}
+
+	public PostCursor getAfter() {
+		return after;
+	}
+
+	public void setAfter(PostCursor after) {
+		this.after = after;
+	}
+
+	public PostSearchRequest withAfter(PostCursor after) {
+		this.after = after;
+		return this;
+	}
+
+	public PostCursor getBefore() {
+		return before;
+	}
+
+	public void setBefore(PostCursor before) {
+		this.before = before;
+	}
+
+	public PostSearchRequest withBefore(PostCursor before) {
+		this.before = before;
+		return this;
+	}
 }
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wallride.model;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.wallride.domain.Post;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The part of a {@link Post} rendered as a row of a listing, read from the fields stored in the
+ * search index rather than from the database.
+ */
+@SuppressWarnings("serial")
+public class PostSummary implements Serializable {
+
+	private final long id;
+	private final String code;
+	private final String language;
+	private final String title;
+	private final String excerpt;
+	private final LocalDateTime date;
+	private final Post.Status status;
+	private final long views;
+	private final String cover;
+	private final Author author;
+	private final List<Category> categories;
+	private final List<Tag> tags;
+
+	public PostSummary(long id, String code, String language, String title, String excerpt, LocalDateTime date, Post.Status status, long views, String cover, Author author, List<Category> categories, List<Tag> tags) {
+		this.id = id;
+		this.code = code;
+		this.language = language;
+		this.title = title;
+		this.excerpt = excerpt;
+		this.date = date;
+		this.status = status;
+		this.views = views;
+		this.cover = cover;
+		this.author = author;
+		this.categories = Collections.unmodifiableList(categories);
+		this.tags = Collections.unmodifiableList(tags);
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String getCode() {
+		return code;
+	}
+
+	public String getLanguage() {
+		return language;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	/**
+	 * @return the beginning of the body as plain text
+	 */
+	public String getExcerpt() {
+		return excerpt;
+	}
+
+	public LocalDateTime getDate() {
+		return date;
+	}
+
+	public Post.Status getStatus() {
+		return status;
+	}
+
+	public long getViews() {
+		return views;
+	}
+
+	/**
+	 * @return the id of the cover media
+	 */
+	public String getCover() {
+		return cover;
+	}
+
+	public Author getAuthor() {
+		return author;
+	}
+
+	public List<Category> getCategories() {
+		return categories;
+	}
+
+	public List<Tag> getTags() {
+		return tags;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) return true;
+		if (other == null || !(other instanceof PostSummary)) return false;
+		PostSummary that = (PostSummary) other;
+		return new EqualsBuilder().append(getId(), that.getId()).isEquals();
+	}
+
+	@Override
+	public int hashCode() {
+		return new HashCodeBuilder().append(getId()).toHashCode();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [id=" + getId() + "]";
+	}
+
+	public static class Author implements Serializable {
+
+		private final long id;
+		private final String loginId;
+		private final String name;
+
+		public Author(long id, String loginId, String name) {
+			this.id = id;
+			this.loginId = loginId;
+			this.name = name;
+		}
+
+		public long getId() {
+			return id;
+		}
+
+		public String getLoginId() {
+			return loginId;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	public static class Category implements Serializable {
+
+		private final long id;
+		private final String code;
+		private final String name;
+
+		public Category(long id, String code, String name) {
+			this.id = id;
+			this.code = code;
+			this.name = name;
+		}
+
+		public long getId() {
+			return id;
+		}
+
+		public String getCode() {
+			return code;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	public static class Tag implements Serializable {
+
+		private final long id;
+		private final String name;
+
+		public Tag(long id, String name) {
+			this.id = id;
+			this.name = name;
+		}
+
+		public long getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.model;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.wallride.domain.Post;
+import org.wallride.domain.User;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable snapshot of a {@link Post} as rendered to guests. Everything a template needs is
+ * resolved when the snapshot is taken, so it can be cached and shared between threads without
+ * an open persistence context.
+ */
+@SuppressWarnings("serial")
+public abstract class PostView implements Serializable {
+
+	private final long id;
+	private final String code;
+	private final String language;
+	private final String title;
+	private final String body;
+	private final LocalDateTime date;
+	private final Post.Status status;
+	private final String seoTitle;
+	private final String seoDescription;
+	private final String seoKeywords;
+	private final String cover;
+	private final Author author;
+	private final List<Category> categories;
+	private final List<Tag> tags;
+	private final List<CustomFieldValue> customFieldValues;
+
+	protected PostView(Post post) {
+		this.id = post.getId();
+		this.code = post.getCode();
+		this.language = post.getLanguage();
+		this.title = post.getTitle();
+		this.body = post.getBody();
+		this.date = post.getDate();
+		this.status = post.getStatus();
+		this.seoTitle = (post.getSeo() != null) ? post.getSeo().getTitle() : null;
+		this.seoDescription = (post.getSeo() != null) ? post.getSeo().getDescription() : null;
+		this.seoKeywords = (post.getSeo() != null) ? post.getSeo().getKeywords() : null;
+		this.cover = (post.getCover() != null) ? post.getCover().getId() : null;
+		this.author = (post.getAuthor() != null) ? new Author(post.getAuthor()) : null;
+
+		List<Category> categories = new ArrayList<>(post.getCategories().size());
+		for (org.wallride.domain.Category category : post.getCategories()) {
+			categories.add(new Category(category));
+		}
+		this.categories = Collections.unmodifiableList(categories);
+
+		List<Tag> tags = new ArrayList<>(post.getTags().size());
+		for (org.wallride.domain.Tag tag : post.getTags()) {
+			tags.add(new Tag(tag));
+		}
+		this.tags = Collections.unmodifiableList(tags);
+
+		List<CustomFieldValue> customFieldValues = new ArrayList<>(post.getCustomFieldValues().size());
+		for (org.wallride.domain.CustomFieldValue value : post.getCustomFieldValues()) {
+			customFieldValues.add(new CustomFieldValue(value));
+		}
+		this.customFieldValues = Collections.unmodifiableList(customFieldValues);
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String getCode() {
+		return code;
+	}
+
+	public String getLanguage() {
+		return language;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public String getBody() {
+		return body;
+	}
+
+	public LocalDateTime getDate() {
+		return date;
+	}
+
+	public Post.Status getStatus() {
+		return status;
+	}
+
+	public String getSeoTitle() {
+		return seoTitle;
+	}
+
+	public String getSeoDescription() {
+		return seoDescription;
+	}
+
+	public String getSeoKeywords() {
+		return seoKeywords;
+	}
+
+	/**
+	 * @return the id of the cover media
+	 */
+	public String getCover() {
+		return cover;
+	}
+
+	public Author getAuthor() {
+		return author;
+	}
+
+	public List<Category> getCategories() {
+		return categories;
+	}
+
+	public List<Tag> getTags() {
+		return tags;
+	}
+
+	public List<CustomFieldValue> getCustomFieldValues() {
+		return customFieldValues;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) return true;
+		if (other == null || !(other instanceof PostView)) return false;
+		PostView that = (PostView) other;
+		return new EqualsBuilder().append(getId(), that.getId()).isEquals();
+	}
+
+	@Override
+	public int hashCode() {
+		return new HashCodeBuilder().append(getId()).toHashCode();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [id=" + getId() + "]";
+	}
+
+	public static class Author implements Serializable {
+
+		private final long id;
+		private final String loginId;
+		private final String nickname;
+		private final String name;
+
+		public Author(User user) {
+			this.id = user.getId();
+			this.loginId = user.getLoginId();
+			this.nickname = user.getNickname();
+			this.name = user.toString();
+		}
+
+		public long getId() {
+			return id;
+		}
+
+		public String getLoginId() {
+			return loginId;
+		}
+
+		public String getNickname() {
+			return nickname;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	public static class Category implements Serializable {
+
+		private final long id;
+		private final String code;
+		private final String name;
+		private final String language;
+
+		public Category(org.wallride.domain.Category category) {
+			this.id = category.getId();
+			this.code = category.getCode();
+			this.name = category.getName();
+			this.language = category.getLanguage();
+		}
+
+		public long getId() {
+			return id;
+		}
+
+		public String getCode() {
+			return code;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getLanguage() {
+			return language;
+		}
+	}
+
+	public static class Tag implements Serializable {
+
+		private final long id;
+		private final String name;
+		private final String language;
+
+		public Tag(org.wallride.domain.Tag tag) {
+			this.id = tag.getId();
+			this.name = tag.getName();
+			this.language = tag.getLanguage();
+		}
+
+		public long getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getLanguage() {
+			return language;
+		}
+	}
+
+	public static class CustomField implements Serializable {
+
+		private final long id;
+		private final String code;
+		private final String name;
+		private final String language;
+		private final org.wallride.domain.CustomField.FieldType fieldType;
+
+		public CustomField(org.wallride.domain.CustomField customField) {
+			this.id = customField.getId();
+			this.code = customField.getCode();
+			this.name = customField.getName();
+			this.language = customField.getLanguage();
+			this.fieldType = customField.getFieldType();
+		}
+
+		public long getId() {
+			return id;
+		}
+
+		public String getCode() {
+			return code;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getLanguage() {
+			return language;
+		}
+
+		public org.wallride.domain.CustomField.FieldType getFieldType() {
+			return fieldType;
+		}
+	}
+
+	public static class CustomFieldValue implements Serializable {
+
+		private final CustomField customField;
+		private final Serializable value;
+		private final String textValue;
+
+		public CustomFieldValue(org.wallride.domain.CustomFieldValue customFieldValue) {
+			this.customField = new CustomField(customFieldValue.getCustomField());
+			this.value = (Serializable) customFieldValue.getValue();
+			this.textValue = customFieldValue.getTextValue();
+		}
+
+		public CustomField getCustomField() {
+			return customField;
+		}
+
+		public Object getValue() {
+			return value;
+		}
+
+		public String getTextValue() {
+			return textValue;
+		}
+	}
+}
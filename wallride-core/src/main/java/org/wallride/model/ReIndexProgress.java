@@ -0,0 +1,152 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wallride.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a re-index run, updated by the indexing threads and read by the admin screens.
+ */
+public class ReIndexProgress {
+
+	public enum Status {
+		RUNNING, COMPLETED, FAILED
+	}
+
+	public enum Mode {
+		/** Every entity is indexed from scratch. */
+		FULL,
+		/** An interrupted full run continues from its checkpoint. */
+		RESUMED,
+		/** Only the entities updated or deleted since the last run are indexed or purged. */
+		DELTA,
+	}
+
+	private final Instant startedAt = Instant.now();
+
+	private final AtomicLong total = new AtomicLong();
+
+	private final AtomicLong indexed = new AtomicLong();
+
+	private final AtomicLong purged = new AtomicLong();
+
+	private volatile Instant finishedAt;
+
+	private volatile Status status = Status.RUNNING;
+
+	private volatile String error;
+
+	private final Mode mode;
+
+	public ReIndexProgress(Mode mode) {
+		this.mode = mode;
+	}
+
+	public void addTotal(long count) {
+		total.addAndGet(count);
+	}
+
+	public void addIndexed(long count) {
+		indexed.addAndGet(count);
+	}
+
+	public void addPurged(long count) {
+		purged.addAndGet(count);
+	}
+
+	public void complete() {
+		finishedAt = Instant.now();
+		status = Status.COMPLETED;
+	}
+
+	public void fail(Throwable cause) {
+		finishedAt = Instant.now();
+		error = cause.toString();
+		status = Status.FAILED;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	public Instant getStartedAt() {
+		return startedAt;
+	}
+
+	public Instant getFinishedAt() {
+		return finishedAt;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	/**
+	 * @return the number of entities to index in this run, excluding those indexed before a resume
+	 */
+	public long getTotal() {
+		return total.get();
+	}
+
+	public long getIndexed() {
+		return indexed.get();
+	}
+
+	public long getPurged() {
+		return purged.get();
+	}
+
+	public int getPercentage() {
+		long total = getTotal();
+		return (total > 0) ? (int) Math.min(100, getIndexed() * 100 / total) : 0;
+	}
+
+	public long getElapsedSeconds() {
+		Instant end = (finishedAt != null) ? finishedAt : Instant.now();
+		return Duration.between(startedAt, end).getSeconds();
+	}
+
+	/**
+	 * @return the entities indexed per second since the start
+	 */
+	public double getThroughput() {
+		Instant end = (finishedAt != null) ? finishedAt : Instant.now();
+		long millis = Duration.between(startedAt, end).toMillis();
+		return (millis > 0) ? getIndexed() * 1000.0 / millis : 0;
+	}
+
+	/**
+	 * @return the estimated seconds left at the current throughput, or -1 when unknown
+	 */
+	public long getEtaSeconds() {
+		if (status != Status.RUNNING) {
+			return 0;
+		}
+		double throughput = getThroughput();
+		if (throughput <= 0) {
+			return -1;
+		}
+		return (long) Math.ceil(Math.max(0, getTotal() - getIndexed()) / throughput);
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.model;
+
+import java.io.Serializable;
+
+/**
+ * An entry of a typeahead, read from the search index.
+ */
+@SuppressWarnings("serial")
+public class Suggestion implements Serializable {
+
+	private final long id;
+
+	private final String label;
+
+	public Suggestion(long id, String label) {
+		this.id = id;
+		this.label = label;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String getLabel() {
+		return label;
+	}
+}
@@ -16,8 +16,6 @@
 
 package org.wallride.model;
 
-import org.wallride.domain.Page;
-
 import java.util.ArrayList;
 import java.util.List;
 
@@ -53,12 +51,12 @@ public class TreeNode<T> {
 		this.children = children;
 	}
 
-	public boolean contains(Page page) {
-		if (getObject().equals(page)) {
+	public boolean contains(T object) {
+		if (getObject().equals(object)) {
 			return true;
 		}
 		for (TreeNode<T> node : getChildren()) {
-			if (node.contains(page)) {
+			if (node.contains(object)) {
 				return true;
 			}
 		}
@@ -20,6 +20,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.wallride.domain.Article;
 import org.wallride.model.ArticleSearchRequest;
+import org.wallride.model.PostFacets;
+import org.wallride.model.PostSummary;
 
 import java.util.List;
 
@@ -27,5 +29,8 @@ public interface ArticleRepositoryCustom {
 
 	Page<Article> search(ArticleSearchRequest request);
 	Page<Article> search(ArticleSearchRequest request, Pageable pageable);
+	Page<PostSummary> searchSummaries(ArticleSearchRequest request, Pageable pageable);
+	FacetedPage<Article> searchWithFacets(ArticleSearchRequest request, Pageable pageable);
+	PostFacets countFacets(ArticleSearchRequest request);
 	List<Long> searchForId(ArticleSearchRequest request);
 }
@@ -17,10 +17,10 @@
 package org.wallride.repository;
 
 import org.apache.lucene.analysis.Analyzer;
-import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
 import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.NumericRangeQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
@@ -32,20 +32,26 @@ import org.hibernate.search.jpa.FullTextQuery;
 import org.hibernate.search.jpa.Search;
 import org.hibernate.search.query.dsl.BooleanJunction;
 import org.hibernate.search.query.dsl.QueryBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 import org.wallride.domain.Article;
 import org.wallride.domain.CustomField;
 import org.wallride.model.ArticleSearchRequest;
+import org.wallride.model.CustomFieldRange;
+import org.wallride.model.PostFacets;
+import org.wallride.model.PostSummary;
+import org.wallride.support.CustomFieldRegistry;
+import org.wallride.support.CustomFieldValuesBridge;
+import org.wallride.support.IndexWarmer;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class ArticleRepositoryImpl implements ArticleRepositoryCustom {
@@ -53,6 +59,12 @@ public class ArticleRepositoryImpl implements ArticleRepositoryCustom {
 	@PersistenceContext
 	private EntityManager entityManager;
 
+	@Autowired(required = false)
+	private IndexWarmer indexWarmer;
+
+	@Autowired
+	private CustomFieldRegistry customFieldRegistry;
+
 	@Override
 	public Page<Article> search(ArticleSearchRequest request) {
 		return search(request, Pageable.unpaged());
@@ -60,19 +72,42 @@ public class ArticleRepositoryImpl implements ArticleRepositoryCustom {
 
 	@Override
 	public Page<Article> search(ArticleSearchRequest request, Pageable pageable) {
+		if (indexWarmer != null && !indexWarmer.isWarm()
+				&& !StringUtils.hasText(request.getKeyword()) && CollectionUtils.isEmpty(request.getCustomFields())
+				&& request.getCustomFieldOrder() == null) {
+			return PostSpecifications.page(entityManager, Article.class, listing(request), pageable, request.getAfter(), request.getBefore());
+		}
 		Session session = (Session) entityManager.getDelegate();
 		Criteria criteria = session.createCriteria(Article.class)
 				.setFetchMode("cover", FetchMode.JOIN)
-				.setFetchMode("user", FetchMode.JOIN)
-				.setFetchMode("categories", FetchMode.JOIN)
-				.setFetchMode("tags", FetchMode.JOIN)
-				.setFetchMode("customFieldValues", FetchMode.JOIN)
-				.setFetchMode("customFieldValues.customField", FetchMode.JOIN);
+				.setFetchMode("author", FetchMode.JOIN);
 
 		FullTextQuery persistenceQuery = buildFullTextQuery(request, pageable, criteria);
-		int resultSize = persistenceQuery.getResultSize();
-		List<Article> results = persistenceQuery.getResultList();
-		return new PageImpl<>(results, pageable, resultSize);
+		return FullTextQueries.page(persistenceQuery, pageable, request.getAfter(), request.getBefore());
+	}
+
+	@Override
+	public FacetedPage<Article> searchWithFacets(ArticleSearchRequest request, Pageable pageable) {
+		Session session = (Session) entityManager.getDelegate();
+		Criteria criteria = session.createCriteria(Article.class)
+				.setFetchMode("cover", FetchMode.JOIN)
+				.setFetchMode("author", FetchMode.JOIN);
+
+		FullTextQuery persistenceQuery = buildFacetedQuery(request, pageable, criteria);
+		Page<Article> page = FullTextQueries.page(persistenceQuery, pageable, request.getAfter(), request.getBefore());
+		return new FacetedPage<>(page, FullTextQueries.postFacets(persistenceQuery));
+	}
+
+	@Override
+	public PostFacets countFacets(ArticleSearchRequest request) {
+		FullTextQuery persistenceQuery = buildFacetedQuery(request, Pageable.unpaged(), null);
+		return FullTextQueries.postFacets(persistenceQuery);
+	}
+
+	@Override
+	public Page<PostSummary> searchSummaries(ArticleSearchRequest request, Pageable pageable) {
+		FullTextQuery persistenceQuery = buildFullTextQuery(request, pageable, null);
+		return FullTextQueries.summaryPage(persistenceQuery, pageable, request.getAfter(), request.getBefore());
 	}
 
 	@Override
@@ -84,22 +119,141 @@ public class ArticleRepositoryImpl implements ArticleRepositoryCustom {
 		return nos;
 	}
 
-	private FullTextQuery buildFullTextQuery(ArticleSearchRequest request, Pageable pageable, Criteria criteria) {
-		FullTextEntityManager fullTextEntityManager =  Search.getFullTextEntityManager(entityManager);
-		QueryBuilder qb = fullTextEntityManager.getSearchFactory()
+	/**
+	 * @return the filters of the request without keyword and custom fields, evaluated by the database
+	 */
+	private Specification<Article> listing(ArticleSearchRequest request) {
+		Specification<Article> spec = Specification.where(PostSpecifications.notDrafted());
+		if (request.getStatus() != null) {
+			spec = spec.and(PostSpecifications.status(request.getStatus()));
+		}
+		if (StringUtils.hasText(request.getLanguage())) {
+			spec = spec.and(PostSpecifications.language(request.getLanguage()));
+		}
+		if (request.getDateFrom() != null) {
+			spec = spec.and(PostSpecifications.dateFrom(request.getDateFrom()));
+		}
+		if (request.getDateTo() != null) {
+			spec = spec.and(PostSpecifications.dateTo(request.getDateTo()));
+		}
+		if (!CollectionUtils.isEmpty(request.getCategoryIds())) {
+			spec = spec.and(PostSpecifications.categoryIds(request.getCategoryIds()));
+		}
+		if (!CollectionUtils.isEmpty(request.getCategoryCodes())) {
+			spec = spec.and(PostSpecifications.categoryCodes(request.getCategoryCodes()));
+		}
+		if (!CollectionUtils.isEmpty(request.getTagIds())) {
+			spec = spec.and(PostSpecifications.tagIds(request.getTagIds()));
+		}
+		if (!CollectionUtils.isEmpty(request.getTagNames())) {
+			spec = spec.and(PostSpecifications.tagNames(request.getTagNames()));
+		}
+		if (request.getAuthorId() != null) {
+			spec = spec.and(PostSpecifications.authorId(request.getAuthorId()));
+		}
+		return spec;
+	}
+
+	/**
+	 * @return the type of the custom field of the given code
+	 * @throws IllegalArgumentException if the language of the request has no such custom field
+	 */
+	private CustomField.FieldType customFieldType(String language, String code) {
+		CustomField.FieldType fieldType = customFieldRegistry.getFieldType(language, code);
+		if (fieldType == null) {
+			throw new IllegalArgumentException("Unknown custom field [" + code + "] for language [" + language + "]");
+		}
+		return fieldType;
+	}
+
+	/**
+	 * Matches a text value as a keyword or a phrase, and a number, date or datetime value or
+	 * {@link CustomFieldRange} on the values indexed as numbers.
+	 */
+	private Query customFieldQuery(QueryBuilder qb, String code, CustomField.FieldType fieldType, Object value) {
+		switch (fieldType) {
+			case NUMBER:
+			case DATE:
+			case DATETIME:
+				if (value instanceof CustomFieldRange) {
+					CustomFieldRange range = (CustomFieldRange) value;
+					return numberRangeQuery(code, fieldType, range.getFrom(), range.getTo());
+				}
+				return numberRangeQuery(code, fieldType, value, value);
+			default:
+				if (value instanceof CustomFieldRange) {
+					throw new IllegalArgumentException("Custom field [" + code + "] of type " + fieldType + " cannot be searched by range");
+				}
+				if (fieldType == CustomField.FieldType.TEXT || fieldType == CustomField.FieldType.TEXTAREA || fieldType == CustomField.FieldType.HTML) {
+					return qb.keyword().onField("customFieldValues." + code).ignoreFieldBridge().matching(value.toString()).createQuery();
+				}
+				return qb.phrase().onField("customFieldValues." + code).ignoreFieldBridge().sentence(value.toString()).createQuery();
+		}
+	}
+
+	private Query numberRangeQuery(String code, CustomField.FieldType fieldType, Object from, Object to) {
+		String field = CustomFieldValuesBridge.numberField(code);
+		Number min;
+		Number max;
+		try {
+			min = CustomFieldValuesBridge.toNumber(fieldType, from);
+			max = CustomFieldValuesBridge.toNumber(fieldType, to);
+		}
+		catch (NumberFormatException | DateTimeParseException e) {
+			throw new IllegalArgumentException("Custom field [" + code + "] of type " + fieldType + " cannot be searched by [" + from + ", " + to + "]", e);
+		}
+		if (fieldType == CustomField.FieldType.NUMBER) {
+			return NumericRangeQuery.newDoubleRange(field, (Double) min, (Double) max, true, true);
+		}
+		return NumericRangeQuery.newLongRange(field, (Long) min, (Long) max, true, true);
+	}
+
+	/**
+	 * @return the order of a number, date or datetime custom field, the articles without a value
+	 * last, then the given order
+	 */
+	private Sort customFieldSort(org.springframework.data.domain.Sort.Order order, CustomField.FieldType fieldType, Sort then) {
+		SortField customField;
+		switch (fieldType) {
+			case NUMBER:
+				customField = new SortField(CustomFieldValuesBridge.numberField(order.getProperty()), SortField.Type.DOUBLE, order.isDescending());
+				customField.setMissingValue(order.isDescending() ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+				break;
+			case DATE:
+			case DATETIME:
+				customField = new SortField(CustomFieldValuesBridge.numberField(order.getProperty()), SortField.Type.LONG, order.isDescending());
+				customField.setMissingValue(order.isDescending() ? Long.MIN_VALUE : Long.MAX_VALUE);
+				break;
+			default:
+				throw new IllegalArgumentException("Custom field [" + order.getProperty() + "] of type " + fieldType + " cannot be sorted");
+		}
+		SortField[] fields = new SortField[then.getSort().length + 1];
+		fields[0] = customField;
+		System.arraycopy(then.getSort(), 0, fields, 1, then.getSort().length);
+		return new Sort(fields);
+	}
+
+	private FullTextQuery buildFacetedQuery(ArticleSearchRequest request, Pageable pageable, Criteria criteria) {
+		FullTextQuery persistenceQuery = buildFullTextQuery(request, pageable, criteria);
+		QueryBuilder qb = Search.getFullTextEntityManager(entityManager).getSearchFactory()
 				.buildQueryBuilder()
 				.forEntity(Article.class)
 				.get();
+		FullTextQueries.enablePostFacets(persistenceQuery, qb);
+		return persistenceQuery;
+	}
+
+	private FullTextQuery buildFullTextQuery(ArticleSearchRequest request, Pageable pageable, Criteria criteria) {
+		FullTextEntityManager fullTextEntityManager =  Search.getFullTextEntityManager(entityManager);
+		QueryBuilder qb = FullTextQueries.postQueryBuilder(fullTextEntityManager, Article.class, request.getLanguage());
 
 		@SuppressWarnings("rawtypes")
 		BooleanJunction<BooleanJunction> junction = qb.bool();
-		junction.must(qb.all().createQuery());
-
-		junction.must(qb.keyword().onField("drafted").ignoreAnalyzer().matching("_null_").createQuery());
+		junction.must(FullTextQueries.postFilter(qb, request.getStatus(),
+				StringUtils.hasText(request.getLanguage()) ? request.getLanguage() : null)).disableScoring();
 
 		if (StringUtils.hasText(request.getKeyword())) {
-//			Analyzer analyzer = fullTextEntityManager.getSearchFactory().getAnalyzer("synonyms");
-			Analyzer analyzer = new WhitespaceAnalyzer();
+			Analyzer analyzer = FullTextQueries.keywordAnalyzer(fullTextEntityManager, Article.class, request.getLanguage());
 			String[] fields = new String[] {
 					"title", "body",
 					"categories.name", "tags.name",
@@ -121,12 +275,6 @@ public class ArticleRepositoryImpl implements ArticleRepositoryCustom {
 			}
 			junction.must(query);
 		}
-		if (request.getStatus() != null) {
-			junction.must(qb.keyword().onField("status").matching(request.getStatus()).createQuery());
-		}
-		if (StringUtils.hasText(request.getLanguage())) {
-			junction.must(qb.keyword().onField("language").matching(request.getLanguage()).createQuery());
-		}
 
 		if (request.getDateFrom() != null) {
 			junction.must(qb.range().onField("date").above(request.getDateFrom()).createQuery());
@@ -166,38 +314,14 @@ public class ArticleRepositoryImpl implements ArticleRepositoryCustom {
 		}
 
 		if (!CollectionUtils.isEmpty(request.getCustomFields())) {
-			javax.persistence.Query query = entityManager.createQuery("from CustomField where language = :language and code in (:codes)", CustomField.class);
-			query.setParameter("language", request.getLanguage())
-					.setParameter("codes", request.getCustomFields().keySet());
-			List<CustomField> customFields = query.getResultList();
-
-			if (!CollectionUtils.isEmpty(customFields)) {
-				Map<String, CustomField> customFieldMap = customFields.stream()
-						.collect(Collectors.toMap(
-								CustomField::getCode,
-								Function.identity()
-						));
-
-				BooleanJunction<BooleanJunction> subJunction = qb.bool();
-				for (String key : request.getCustomFields().keySet()) {
-					List<Object> values = request.getCustomFields().get(key);
-					CustomField target = customFieldMap.get(key);
-					BooleanJunction<BooleanJunction> customFieldJunction = qb.bool();
-					switch (target.getFieldType()) {
-						case TEXT:
-						case TEXTAREA:
-						case HTML:
-							for(Object value : values) {
-								customFieldJunction.must(qb.keyword().onField("customFieldValues." + key).ignoreFieldBridge().matching(value.toString()).createQuery());
-							}
-							break;
-						default:
-							for(Object value : values) {
-								customFieldJunction.must(qb.phrase().onField("customFieldValues." + key).ignoreFieldBridge().sentence(value.toString()).createQuery());
-							}
-					}
-					subJunction.must(customFieldJunction.createQuery());
+			BooleanJunction<BooleanJunction> subJunction = qb.bool();
+			for (String key : request.getCustomFields().keySet()) {
+				CustomField.FieldType fieldType = customFieldType(request.getLanguage(), key);
+				for (Object value : request.getCustomFields().get(key)) {
+					subJunction.must(customFieldQuery(qb, key, fieldType, value));
 				}
+			}
+			if (!subJunction.isEmpty()) {
 				junction.must(subJunction.createQuery());
 			}
 		}
@@ -206,11 +330,20 @@ public class ArticleRepositoryImpl implements ArticleRepositoryCustom {
 			junction.must(qb.keyword().onField("author.id").matching(request.getAuthorId()).createQuery());
 		}
 
+		if (request.getAfter() != null) {
+			junction.must(FullTextQueries.after(request.getAfter()));
+		}
+		if (request.getBefore() != null) {
+			junction.must(FullTextQueries.before(request.getBefore()));
+		}
+
 		Query searchQuery = junction.createQuery();
 
-		Sort sort = new Sort(
-				new SortField("sortDate", SortField.Type.STRING, true),
-				new SortField("sortId", SortField.Type.LONG, true));
+		Sort sort = FullTextQueries.postSort(request.getBefore());
+		if (request.getCustomFieldOrder() != null) {
+			org.springframework.data.domain.Sort.Order order = request.getCustomFieldOrder();
+			sort = customFieldSort(order, customFieldType(request.getLanguage(), order.getProperty()), sort);
+		}
 
 		FullTextQuery persistenceQuery = fullTextEntityManager
 				.createFullTextQuery(searchQuery, Article.class)
@@ -19,16 +19,19 @@ package org.wallride.repository;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.wallride.domain.Blog;
 
 import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 
 @Repository
 @Transactional
 public interface BlogRepository extends JpaRepository<Blog, Long> {
 
+	@QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
 	@EntityGraph(value = Blog.DEEP_GRAPH_NAME, type = EntityGraph.EntityGraphType.FETCH)
 	Blog findOneById(Long id);
 
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.repository;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.LRUQueryCache;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryCachingPolicy;
+import org.apache.lucene.search.Weight;
+
+import java.io.IOException;
+
+/**
+ * A filter whose matches are kept per index segment in a cache of its own, so that they are only
+ * computed for the segments written since the filter was last used. The cache is bounded, and the
+ * matches of a segment are dropped when the last reader of the segment is closed.
+ * <p>
+ * The query cache of the index searcher only caches a filter once it has been used a few times
+ * and not on small segments, which is where a freshly written post lands.
+ */
+class CachedFilterQuery extends Query {
+
+	private static final LRUQueryCache CACHE = new LRUQueryCache(100, 32 * 1024 * 1024);
+
+	private static final QueryCachingPolicy ALWAYS = new QueryCachingPolicy() {
+		@Override
+		public void onUse(Query query) {
+		}
+
+		@Override
+		public boolean shouldCache(Query query, LeafReaderContext context) {
+			return true;
+		}
+	};
+
+	private final Query filter;
+
+	CachedFilterQuery(Query filter) {
+		this.filter = filter;
+	}
+
+	@Override
+	public Query rewrite(IndexReader reader) throws IOException {
+		Query rewritten = filter.rewrite(reader);
+		return (rewritten != filter) ? new CachedFilterQuery(rewritten) : super.rewrite(reader);
+	}
+
+	@Override
+	public Weight createWeight(IndexSearcher searcher, boolean needsScores) throws IOException {
+		return CACHE.doCache(filter.createWeight(searcher, false), ALWAYS);
+	}
+
+	@Override
+	public String toString(String field) {
+		return "cached(" + filter.toString(field) + ")";
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return super.equals(other) && filter.equals(((CachedFilterQuery) other).filter);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * super.hashCode() + filter.hashCode();
+	}
+}
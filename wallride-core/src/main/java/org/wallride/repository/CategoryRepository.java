@@ -25,6 +25,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.wallride.domain.Category;
 
 import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.util.List;
 
 @Repository
@@ -38,12 +39,14 @@ public interface CategoryRepository extends JpaRepository<Category, Long>, Categ
 //	@Lock(LockModeType.PESSIMISTIC_WRITE)
 //	Category findOneForUpdateByIdAndLanguage(Long id, String language);
 
+	@QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
 	@EntityGraph(value = Category.DEEP_GRAPH_NAME, type = EntityGraph.EntityGraphType.FETCH)
 	Category findOneByCodeAndLanguage(String code, String language);
 
 	@EntityGraph(value = Category.SHALLOW_GRAPH_NAME, type = EntityGraph.EntityGraphType.FETCH)
 	List<Category> findAll(Specification<Category> spec, Sort sort);
 
+	@QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
 	@EntityGraph(value = Category.SHALLOW_GRAPH_NAME, type = EntityGraph.EntityGraphType.FETCH)
 	List<Category> findAllDistinctByLanguageOrderByLftAsc(String language);
 
@@ -31,7 +31,6 @@ import org.hibernate.search.jpa.Search;
 import org.hibernate.search.query.dsl.BooleanJunction;
 import org.hibernate.search.query.dsl.QueryBuilder;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.util.StringUtils;
 import org.wallride.domain.Category;
@@ -120,10 +119,6 @@ public class CategoryRepositoryImpl implements CategoryRepositoryCustom {
 			persistenceQuery.setMaxResults(pageable.getPageSize());
 		}
 
-		int resultSize = persistenceQuery.getResultSize();
-
-		@SuppressWarnings("unchecked")
-		List<Category> results = persistenceQuery.getResultList();
-		return new PageImpl<>(results, pageable, resultSize);
+		return FullTextQueries.page(persistenceQuery, pageable);
 	}
 }
\ No newline at end of file
@@ -32,7 +32,6 @@ import org.hibernate.search.jpa.Search;
 import org.hibernate.search.query.dsl.BooleanJunction;
 import org.hibernate.search.query.dsl.QueryBuilder;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.util.StringUtils;
 import org.wallride.domain.Comment;
@@ -126,10 +125,6 @@ public class CommentRepositoryImpl implements CommentRepositoryCustom {
 		persistenceQuery.setFirstResult((int) pageable.getOffset());
 		persistenceQuery.setMaxResults(pageable.getPageSize());
 
-		int resultSize = persistenceQuery.getResultSize();
-
-		@SuppressWarnings("unchecked")
-		List<Comment> results = persistenceQuery.getResultList();
-		return new PageImpl<>(results, pageable, resultSize);
+		return FullTextQueries.page(persistenceQuery, pageable);
 	}
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wallride.repository;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page read from a cursor rather than from an offset, which knows whether there are more
+ * elements on each side but not its own page number.
+ */
+@SuppressWarnings("serial")
+public class CursorPage<T> extends PageImpl<T> {
+
+	private final boolean hasPrevious;
+
+	private final boolean hasNext;
+
+	public CursorPage(List<T> content, Pageable pageable, long total, boolean hasPrevious, boolean hasNext) {
+		super(content, pageable, total);
+		this.hasPrevious = hasPrevious;
+		this.hasNext = hasNext;
+	}
+
+	@Override
+	public boolean hasPrevious() {
+		return hasPrevious;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return hasNext;
+	}
+
+	@Override
+	public boolean isFirst() {
+		return !hasPrevious;
+	}
+
+	@Override
+	public boolean isLast() {
+		return !hasNext;
+	}
+
+	@Override
+	public <U> CursorPage<U> map(Function<? super T, ? extends U> converter) {
+		return new CursorPage<>(getConvertedContent(converter), getPageable(), getTotalElements(), hasPrevious, hasNext);
+	}
+}
@@ -7,6 +7,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.wallride.domain.CustomField;
 
 import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.util.List;
 
 @Repository
@@ -25,12 +26,15 @@ public interface CustomFieldRepository extends JpaRepository<CustomField, Long>,
 	@Lock(LockModeType.PESSIMISTIC_WRITE)
 	CustomField findOneForUpdateByIdAndLanguage(Long id, String language);
 
+	@QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
 	@EntityGraph(value = CustomField.DEEP_GRAPH_NAME, type = EntityGraph.EntityGraphType.FETCH)
 	CustomField findOneByNameAndLanguage(String name, String language);
 
+	@QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
 	@EntityGraph(value = CustomField.DEEP_GRAPH_NAME, type = EntityGraph.EntityGraphType.FETCH)
 	CustomField findOneByCodeAndLanguage(String code, String language);
 
+	@QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
 	@EntityGraph(value = CustomField.DEEP_GRAPH_NAME, type = EntityGraph.EntityGraphType.FETCH)
 	List<CustomField> findAllByLanguage(String language);
 
@@ -32,7 +32,6 @@ import org.hibernate.search.jpa.Search;
 import org.hibernate.search.query.dsl.BooleanJunction;
 import org.hibernate.search.query.dsl.QueryBuilder;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.util.StringUtils;
 import org.wallride.domain.CustomField;
@@ -75,9 +74,7 @@ public class CustomFieldRepositoryImpl implements CustomFieldRepositoryCustom {
 				.setFetchMode("options", FetchMode.JOIN);
 
 		FullTextQuery persistenceQuery = buildFullTextQuery(request, pageable, criteria);
-		int resultSize = persistenceQuery.getResultSize();
-		List<CustomField> results = persistenceQuery.getResultList();
-		return new PageImpl<>(results, pageable, resultSize);
+		return FullTextQueries.page(persistenceQuery, pageable);
 	}
 
 	@Override
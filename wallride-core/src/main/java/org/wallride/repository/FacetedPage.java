@@ -0,0 +1,47 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.repository;
+
+import org.springframework.data.domain.Page;
+import org.wallride.model.PostFacets;
+
+import java.io.Serializable;
+
+/**
+ * A page of search results together with the facets counted over all the hits of the search,
+ * not only over the page.
+ */
+@SuppressWarnings("serial")
+public class FacetedPage<T> implements Serializable {
+
+	private final Page<T> page;
+
+	private final PostFacets facets;
+
+	public FacetedPage(Page<T> page, PostFacets facets) {
+		this.page = page;
+		this.facets = facets;
+	}
+
+	public Page<T> getPage() {
+		return page;
+	}
+
+	public PostFacets getFacets() {
+		return facets;
+	}
+}
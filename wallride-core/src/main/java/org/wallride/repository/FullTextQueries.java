@@ -0,0 +1,343 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wallride.repository;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.DocValuesRangeQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.util.BytesRef;
+import org.hibernate.search.bridge.builtin.time.impl.LocalDateTimeBridge;
+import org.hibernate.search.SearchFactory;
+import org.hibernate.search.engine.ProjectionConstants;
+import org.hibernate.search.jpa.FullTextEntityManager;
+import org.hibernate.search.jpa.FullTextQuery;
+import org.hibernate.search.query.dsl.BooleanJunction;
+import org.hibernate.search.query.dsl.EntityContext;
+import org.hibernate.search.query.dsl.QueryBuilder;
+import org.hibernate.search.query.engine.spi.FacetManager;
+import org.hibernate.search.query.facet.Facet;
+import org.hibernate.search.query.facet.FacetSortOrder;
+import org.hibernate.search.query.facet.FacetingRequest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.StringUtils;
+import org.wallride.domain.Post;
+import org.wallride.model.PostCursor;
+import org.wallride.model.PostFacets;
+import org.wallride.model.PostSummary;
+import org.wallride.model.Suggestion;
+import org.wallride.support.LanguageAnalyzerDiscriminator;
+import org.wallride.support.PostSummaryBridge;
+import org.wallride.support.SuggestBridge;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public class FullTextQueries {
+
+	private static final String CATEGORY_FACET = "categories";
+	private static final String TAG_FACET = "tags";
+	private static final String AUTHOR_FACET = "authors";
+	private static final String MONTH_FACET = "months";
+
+	/**
+	 * Runs the query once for both the hits of the page and the total. The total hit count is
+	 * collected along with the top hits and kept by the query, whereas asking for it first runs a
+	 * separate counting search.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Page<T> page(FullTextQuery persistenceQuery, Pageable pageable) {
+		List<T> results = persistenceQuery.getResultList();
+		if (pageable.isUnpaged()) {
+			return new PageImpl<>(results, pageable, results.size());
+		}
+		return new PageImpl<>(results, pageable, persistenceQuery.getResultSize());
+	}
+
+	/**
+	 * Runs a query restricted by {@link #after} or {@link #before} and sorted by
+	 * {@link #postSort}. Only the page size of the pageable is used, so the search costs the same
+	 * however far the cursor is.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Page<T> page(FullTextQuery persistenceQuery, Pageable pageable, PostCursor after, PostCursor before) {
+		if (after == null && before == null) {
+			return page(persistenceQuery, pageable);
+		}
+		persistenceQuery.setFirstResult(0);
+		persistenceQuery.setMaxResults(pageable.getPageSize());
+		List<T> results = persistenceQuery.getResultList();
+		boolean hasMore = persistenceQuery.getResultSize() > results.size();
+		if (before != null) {
+			// Read backwards from the cursor
+			Collections.reverse(results);
+		}
+		Pageable first = PageRequest.of(0, pageable.getPageSize(), pageable.getSort());
+		return new CursorPage<>(results, first, persistenceQuery.getResultSize(), before == null || hasMore, before != null || hasMore);
+	}
+
+	/**
+	 * Runs a query as {@link #page(FullTextQuery, Pageable, PostCursor, PostCursor)} does, projecting
+	 * the summaries stored by {@link PostSummaryBridge} instead of loading the posts from the database.
+	 */
+	public static Page<PostSummary> summaryPage(FullTextQuery persistenceQuery, Pageable pageable, PostCursor after, PostCursor before) {
+		return summaryPage(persistenceQuery, pageable, after, before, new HashMap<>());
+	}
+
+	/**
+	 * Runs a query as {@link #summaryPage(FullTextQuery, Pageable, PostCursor, PostCursor)} does,
+	 * putting the id of the Lucene document of each hit in the given map by post id.
+	 */
+	public static Page<PostSummary> summaryPage(FullTextQuery persistenceQuery, Pageable pageable, PostCursor after, PostCursor before, Map<Long, Integer> documentIds) {
+		persistenceQuery.setProjection(ProjectionConstants.ID, ProjectionConstants.DOCUMENT, ProjectionConstants.DOCUMENT_ID);
+		Page<Object[]> rows = page(persistenceQuery, pageable, after, before);
+		for (Object[] row : rows) {
+			documentIds.put((Long) row[0], (Integer) row[2]);
+		}
+		return rows.map(row -> PostSummaryBridge.read((Long) row[0], (Document) row[1]));
+	}
+
+	/**
+	 * Runs a query on posts as {@link #page(FullTextQuery, Pageable, PostCursor, PostCursor)} does,
+	 * putting the id of the Lucene document of each hit in the given map by post id. The hits whose
+	 * post is missing from the database are left out, as they are when the posts alone are loaded.
+	 */
+	public static <T extends Post> Page<T> page(FullTextQuery persistenceQuery, Pageable pageable, PostCursor after, PostCursor before, Map<Long, Integer> documentIds) {
+		persistenceQuery.setProjection(ProjectionConstants.THIS, ProjectionConstants.DOCUMENT_ID);
+		Page<Object[]> rows = page(persistenceQuery, pageable, after, before);
+		List<T> posts = new ArrayList<>(rows.getNumberOfElements());
+		for (Object[] row : rows) {
+			@SuppressWarnings("unchecked")
+			T post = (T) row[0];
+			if (post != null) {
+				posts.add(post);
+				documentIds.put(post.getId(), (Integer) row[1]);
+			}
+		}
+		if (rows instanceof CursorPage) {
+			return new CursorPage<>(posts, rows.getPageable(), rows.getTotalElements(), rows.hasPrevious(), rows.hasNext());
+		}
+		return new PageImpl<>(posts, rows.getPageable(), rows.getTotalElements());
+	}
+
+	/**
+	 * @return a query builder on posts analysing the text fields like the posts of the given
+	 * language, as {@link LanguageAnalyzerDiscriminator} does when they are indexed
+	 */
+	public static QueryBuilder postQueryBuilder(FullTextEntityManager fullTextEntityManager, Class<?> entityType, String language) {
+		EntityContext context = fullTextEntityManager.getSearchFactory()
+				.buildQueryBuilder()
+				.forEntity(entityType);
+		String analyzerName = LanguageAnalyzerDiscriminator.analyzerName(language);
+		for (String field : LanguageAnalyzerDiscriminator.FIELDS) {
+			context.overridesForField(field, analyzerName);
+		}
+		return context.get();
+	}
+
+	/**
+	 * @return an analyzer of the keywords of a post search, analysing the text fields like the posts
+	 * of the given language and the other fields with their own analyzer
+	 */
+	public static Analyzer keywordAnalyzer(FullTextEntityManager fullTextEntityManager, Class<?> entityType, String language) {
+		SearchFactory searchFactory = fullTextEntityManager.getSearchFactory();
+		Analyzer textAnalyzer = searchFactory.getAnalyzer(LanguageAnalyzerDiscriminator.analyzerName(language));
+		Map<String, Analyzer> fieldAnalyzers = new HashMap<>();
+		for (String field : LanguageAnalyzerDiscriminator.FIELDS) {
+			fieldAnalyzers.put(field, textAnalyzer);
+		}
+		return new PerFieldAnalyzerWrapper(searchFactory.getAnalyzer(entityType), fieldAnalyzers);
+	}
+
+	/**
+	 * @return a query builder analysing the words of {@link #suggestQuery} as typed, rather than
+	 * into prefixes as they are indexed
+	 */
+	public static QueryBuilder suggestQueryBuilder(FullTextEntityManager fullTextEntityManager, Class<?> entityType) {
+		return fullTextEntityManager.getSearchFactory()
+				.buildQueryBuilder()
+				.forEntity(entityType)
+				.overridesForField(SuggestBridge.FIELD, "suggestQuery")
+				.get();
+	}
+
+	/**
+	 * @return a query on the entities with a word starting with each word of the keyword, or on all
+	 * of them when the keyword is empty
+	 */
+	@SuppressWarnings("rawtypes")
+	public static Query suggestQuery(QueryBuilder qb, String keyword) {
+		String[] words = StringUtils.tokenizeToStringArray(keyword, " \t\r\n\u3000");
+		if (words.length == 0) {
+			return qb.all().createQuery();
+		}
+		BooleanJunction<BooleanJunction> junction = qb.bool();
+		for (String word : words) {
+			junction.must(qb.keyword().onField(SuggestBridge.FIELD).matching(word).createQuery());
+		}
+		return junction.createQuery();
+	}
+
+	/**
+	 * Runs a query for the first suggestions, projecting the labels stored by {@link SuggestBridge}
+	 * without counting the hits or loading the entities from the database.
+	 */
+	@SuppressWarnings("unchecked")
+	public static List<Suggestion> suggestions(FullTextQuery persistenceQuery, int size) {
+		persistenceQuery.setProjection(ProjectionConstants.ID, SuggestBridge.LABEL);
+		persistenceQuery.setFirstResult(0);
+		persistenceQuery.setMaxResults(size);
+		List<Object[]> rows = persistenceQuery.getResultList();
+		List<Suggestion> suggestions = new ArrayList<>(rows.size());
+		for (Object[] row : rows) {
+			String label = (String) row[1];
+			if (label != null) {
+				suggestions.add(new Suggestion(((Number) row[0]).longValue(), label));
+			}
+		}
+		return suggestions;
+	}
+
+	/**
+	 * Counts the posts per category, tag, author and month along with the hits of the query. The
+	 * counts are read with {@link #postFacets} once the query has run, or run the query alone if it
+	 * has not.
+	 */
+	public static void enablePostFacets(FullTextQuery persistenceQuery, QueryBuilder qb) {
+		FacetManager facetManager = persistenceQuery.getFacetManager();
+		facetManager.enableFaceting(facetingRequest(qb, CATEGORY_FACET, "categories.facetId"));
+		facetManager.enableFaceting(facetingRequest(qb, TAG_FACET, "tags.facetId"));
+		facetManager.enableFaceting(facetingRequest(qb, AUTHOR_FACET, "author.facetId"));
+		facetManager.enableFaceting(facetingRequest(qb, MONTH_FACET, "facetMonth"));
+	}
+
+	public static PostFacets postFacets(FullTextQuery persistenceQuery) {
+		FacetManager facetManager = persistenceQuery.getFacetManager();
+		PostFacets facets = new PostFacets();
+		putCounts(facetManager.getFacets(CATEGORY_FACET), facets.getCategories(), Long::valueOf);
+		putCounts(facetManager.getFacets(TAG_FACET), facets.getTags(), Long::valueOf);
+		putCounts(facetManager.getFacets(AUTHOR_FACET), facets.getAuthors(), Long::valueOf);
+		putCounts(facetManager.getFacets(MONTH_FACET), facets.getMonths(), YearMonth::parse);
+		return facets;
+	}
+
+	private static FacetingRequest facetingRequest(QueryBuilder qb, String name, String field) {
+		return qb.facet()
+				.name(name)
+				.onField(field)
+				.discrete()
+				.orderedBy(FacetSortOrder.COUNT_DESC)
+				.includeZeroCounts(false)
+				.createFacetingRequest();
+	}
+
+	private static <K> void putCounts(List<Facet> facets, Map<K, Long> counts, Function<String, K> key) {
+		for (Facet facet : facets) {
+			counts.put(key.apply(facet.getValue()), (long) facet.getCount());
+		}
+	}
+
+	/**
+	 * @return a filter on the posts that are not drafts, with the given status and language when not
+	 * {@code null}. It is meant to be added as a non-scoring clause, and its matches are cached per
+	 * index segment and per status and language, see {@link CachedFilterQuery}.
+	 */
+	public static Query postFilter(QueryBuilder qb, Post.Status status, String language) {
+		List<Query> clauses = new ArrayList<>();
+		clauses.add(qb.keyword().onField("drafted").ignoreAnalyzer().matching("_null_").createQuery());
+		if (status != null) {
+			clauses.add(qb.keyword().onField("status").matching(status).createQuery());
+		}
+		if (language != null) {
+			clauses.add(qb.keyword().onField("language").matching(language).createQuery());
+		}
+		return cachedFilter(clauses);
+	}
+
+	/**
+	 * @return a conjunction of the given clauses whose matches are cached per index segment
+	 */
+	static Query cachedFilter(List<Query> clauses) {
+		BooleanQuery.Builder builder = new BooleanQuery.Builder();
+		for (Query clause : clauses) {
+			builder.add(clause, BooleanClause.Occur.FILTER);
+		}
+		return new CachedFilterQuery(builder.build());
+	}
+
+	/**
+	 * @return the reading order of posts, newest first, or the reverse when reading backwards
+	 * from a cursor
+	 */
+	public static Sort postSort(PostCursor before) {
+		boolean reverse = (before == null);
+		return new Sort(
+				new SortField("sortDate", SortField.Type.STRING, reverse),
+				new SortField("sortId", SortField.Type.LONG, reverse));
+	}
+
+	/**
+	 * @return a filter on the posts following the given one in reading order
+	 */
+	public static Query after(PostCursor cursor) {
+		return cursorQuery(cursor, false);
+	}
+
+	/**
+	 * @return a filter on the posts preceding the given one in reading order
+	 */
+	public static Query before(PostCursor cursor) {
+		return cursorQuery(cursor, true);
+	}
+
+	/**
+	 * Compares the doc values of the sort fields, which are not indexed as terms.
+	 */
+	private static Query cursorQuery(PostCursor cursor, boolean newer) {
+		BytesRef date = new BytesRef(LocalDateTimeBridge.INSTANCE.objectToString(cursor.getDate()));
+		Query otherDates = newer
+				? DocValuesRangeQuery.newBytesRefRange("sortDate", date, null, false, false)
+				: DocValuesRangeQuery.newBytesRefRange("sortDate", null, date, false, false);
+		Query sameDate = DocValuesRangeQuery.newBytesRefRange("sortDate", date, date, true, true);
+		Query otherIds = newer
+				? DocValuesRangeQuery.newLongRange("sortId", cursor.getId(), null, false, false)
+				: DocValuesRangeQuery.newLongRange("sortId", null, cursor.getId(), false, false);
+
+		BooleanQuery.Builder sameDateOtherIds = new BooleanQuery.Builder()
+				.add(sameDate, BooleanClause.Occur.FILTER)
+				.add(otherIds, BooleanClause.Occur.FILTER);
+		return new BooleanQuery.Builder()
+				.add(otherDates, BooleanClause.Occur.SHOULD)
+				.add(sameDateOtherIds.build(), BooleanClause.Occur.SHOULD)
+				.setMinimumNumberShouldMatch(1)
+				.build();
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.repository;
+
+import org.springframework.data.domain.Page;
+import org.wallride.model.PostHighlight;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * A page of search results together with the highlight of each hit by post id.
+ */
+@SuppressWarnings("serial")
+public class HighlightedPage<T> implements Serializable {
+
+	private final Page<T> page;
+
+	private final Map<Long, PostHighlight> highlights;
+
+	public HighlightedPage(Page<T> page, Map<Long, PostHighlight> highlights) {
+		this.page = page;
+		this.highlights = highlights;
+	}
+
+	public Page<T> getPage() {
+		return page;
+	}
+
+	public Map<Long, PostHighlight> getHighlights() {
+		return highlights;
+	}
+
+	public PostHighlight getHighlight(long id) {
+		return highlights.get(id);
+	}
+}
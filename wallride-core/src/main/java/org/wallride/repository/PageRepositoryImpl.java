@@ -31,7 +31,6 @@ import org.hibernate.search.jpa.FullTextQuery;
 import org.hibernate.search.jpa.Search;
 import org.hibernate.search.query.dsl.BooleanJunction;
 import org.hibernate.search.query.dsl.QueryBuilder;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
@@ -62,17 +61,10 @@ public class PageRepositoryImpl implements PageRepositoryCustom {
 		Criteria criteria = session.createCriteria(Page.class)
 				.setFetchMode("cover", FetchMode.JOIN)
 				.setFetchMode("author", FetchMode.JOIN)
-				.setFetchMode("categories", FetchMode.JOIN)
-				.setFetchMode("tags", FetchMode.JOIN)
-				.setFetchMode("customFieldValues", FetchMode.JOIN)
-				.setFetchMode("customFieldValues.customField", FetchMode.JOIN)
-				.setFetchMode("parent", FetchMode.JOIN)
-				.setFetchMode("children", FetchMode.JOIN);
+				.setFetchMode("parent", FetchMode.JOIN);
 
 		FullTextQuery persistenceQuery = buildFullTextQuery(request, pageable, criteria);
-		int resultSize = persistenceQuery.getResultSize();
-		List<Page> results = persistenceQuery.getResultList();
-		return new PageImpl<>(results, pageable, resultSize);
+		return FullTextQueries.page(persistenceQuery, pageable);
 	}
 
 	@Override
@@ -86,19 +78,15 @@ public class PageRepositoryImpl implements PageRepositoryCustom {
 
 	private FullTextQuery buildFullTextQuery(PageSearchRequest request, Pageable pageable, Criteria criteria) {
 		FullTextEntityManager fullTextEntityManager =  Search.getFullTextEntityManager(entityManager);
-		QueryBuilder qb = fullTextEntityManager.getSearchFactory()
-				.buildQueryBuilder()
-				.forEntity(Page.class)
-				.get();
+		QueryBuilder qb = FullTextQueries.postQueryBuilder(fullTextEntityManager, Page.class, request.getLanguage());
 
 		@SuppressWarnings("rawtypes")
 		BooleanJunction<BooleanJunction> junction = qb.bool();
-		junction.must(qb.all().createQuery());
-
-		junction.must(qb.keyword().onField("drafted").ignoreAnalyzer().matching("_null_").createQuery());
+		junction.must(FullTextQueries.postFilter(qb, request.getStatus(),
+				StringUtils.hasText(request.getLanguage()) ? request.getLanguage() : null)).disableScoring();
 
 		if (StringUtils.hasText(request.getKeyword())) {
-			Analyzer analyzer = fullTextEntityManager.getSearchFactory().getAnalyzer("synonyms");
+			Analyzer analyzer = FullTextQueries.keywordAnalyzer(fullTextEntityManager, Page.class, request.getLanguage());
 			String[] fields = new String[] {
 					"title", "body", "tags.name",
 			};
@@ -118,13 +106,6 @@ public class PageRepositoryImpl implements PageRepositoryCustom {
 			}
 			junction.must(query);
 		}
-		if (StringUtils.hasText(request.getLanguage())) {
-			junction.must(qb.keyword().onField("language").matching(request.getLanguage()).createQuery());
-		}
-
-		if (request.getStatus() != null) {
-			junction.must(qb.keyword().onField("status").matching(request.getStatus()).createQuery());
-		}
 
 		if (!CollectionUtils.isEmpty(request.getCategoryIds())) {
 			BooleanJunction<BooleanJunction> subJunction = qb.bool();
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.repository;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.MultiFields;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.util.Bits;
+import org.hibernate.search.SearchFactory;
+import org.hibernate.search.indexes.IndexReaderAccessor;
+import org.hibernate.search.jpa.FullTextEntityManager;
+import org.hibernate.search.query.dsl.QueryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.util.HtmlUtils;
+import org.wallride.domain.Post;
+import org.wallride.model.PostHighlight;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Highlights the hits of a post search from the title and the body text stored in the index and
+ * the offsets of their terms kept in the term vectors, without loading the posts. The documents
+ * are read by the ids the search found them at, and only looked up by post id when the index has
+ * changed since.
+ */
+public class PostHighlighter {
+
+	public static final int SNIPPET_LENGTH = 160;
+
+	private static final String ID_FIELD = "id";
+
+	private static final Set<String> FIELDS = new HashSet<>(Arrays.asList(ID_FIELD, "title", "body"));
+
+	private static Logger logger = LoggerFactory.getLogger(PostHighlighter.class);
+
+	/**
+	 * @param documentIds the id of the Lucene document of each post to highlight by post id, as
+	 * projected by the search, or {@code null} if the post was not found by a full text search
+	 * @return the highlight of each of the given posts by id, matching the terms of the given query
+	 * or nothing if it is {@code null}. The posts missing from the index are left out.
+	 */
+	public static Map<Long, PostHighlight> highlight(FullTextEntityManager fullTextEntityManager, Query query, Map<Long, Integer> documentIds) {
+		Map<Long, PostHighlight> highlights = new LinkedHashMap<>();
+		if (documentIds.isEmpty()) {
+			return highlights;
+		}
+		SearchFactory searchFactory = fullTextEntityManager.getSearchFactory();
+		IndexReaderAccessor accessor = searchFactory.getIndexReaderAccessor();
+		IndexReader reader = accessor.open(Post.class);
+		try {
+			IndexSearcher searcher = new IndexSearcher(reader);
+			Set<Term> terms = new HashSet<>();
+			if (query != null) {
+				// Rewrites wildcard and fuzzy queries to the terms they match
+				searcher.createNormalizedWeight(query, false).extractTerms(terms);
+			}
+			Bits liveDocs = MultiFields.getLiveDocs(reader);
+			QueryBuilder qb = null;
+			for (Map.Entry<Long, Integer> entry : documentIds.entrySet()) {
+				long id = entry.getKey();
+				Integer doc = entry.getValue();
+				Document document = (doc != null) ? document(reader, liveDocs, doc, id) : null;
+				if (document == null) {
+					if (qb == null) {
+						qb = searchFactory.buildQueryBuilder().forEntity(Post.class).get();
+					}
+					TopDocs topDocs = searcher.search(qb.keyword().onField(ID_FIELD).matching(id).createQuery(), 1);
+					if (topDocs.totalHits == 0) {
+						continue;
+					}
+					doc = topDocs.scoreDocs[0].doc;
+					document = reader.document(doc, FIELDS);
+				}
+				String title = document.get("title");
+				String body = document.get("body");
+				highlights.put(id, new PostHighlight(
+						(title != null) ? highlight(title, offsets(reader, doc, "title", terms), 0, title.length()) : null,
+						(body != null) ? snippet(body, offsets(reader, doc, "body", terms), SNIPPET_LENGTH) : null));
+			}
+		}
+		catch (IOException e) {
+			logger.warn("Could not highlight the posts {}", documentIds.keySet(), e);
+		}
+		finally {
+			accessor.close(reader);
+		}
+		return highlights;
+	}
+
+	/**
+	 * @return the stored fields of the given document if it is still the live document of the
+	 * given post in the reader, or {@code null}
+	 */
+	private static Document document(IndexReader reader, Bits liveDocs, int doc, long id) throws IOException {
+		if (doc >= reader.maxDoc() || (liveDocs != null && !liveDocs.get(doc))) {
+			return null;
+		}
+		Document document = reader.document(doc, FIELDS);
+		return String.valueOf(id).equals(document.get(ID_FIELD)) ? document : null;
+	}
+
+	/**
+	 * @return the start and end offsets of the given terms in the given field of a document, sorted
+	 */
+	private static List<int[]> offsets(IndexReader reader, int doc, String field, Set<Term> terms) throws IOException {
+		List<int[]> offsets = new ArrayList<>();
+		Terms vector = reader.getTermVector(doc, field);
+		if (vector == null || !vector.hasOffsets()) {
+			return offsets;
+		}
+		TermsEnum termsEnum = vector.iterator();
+		PostingsEnum postings = null;
+		for (Term term : terms) {
+			if (!term.field().equals(field) || !termsEnum.seekExact(term.bytes())) {
+				continue;
+			}
+			// A term vector holds a single document
+			postings = termsEnum.postings(postings, PostingsEnum.OFFSETS);
+			postings.nextDoc();
+			for (int i = 0; i < postings.freq(); i++) {
+				postings.nextPosition();
+				offsets.add(new int[] { postings.startOffset(), postings.endOffset() });
+			}
+		}
+		offsets.sort(Comparator.comparingInt(offset -> offset[0]));
+		return offsets;
+	}
+
+	/**
+	 * @return the window of the given length centred on the densest run of matches, or the
+	 * beginning of the text when nothing matches, cut at word boundaries where the text has any
+	 */
+	static String snippet(String text, List<int[]> offsets, int length) {
+		if (text.length() <= length) {
+			return highlight(text, offsets, 0, text.length());
+		}
+		int spanStart = 0;
+		int spanEnd = 0;
+		int count = 0;
+		for (int i = 0, j = 0; i < offsets.size(); i++) {
+			j = Math.max(i, j);
+			while (j < offsets.size() && offsets.get(j)[1] <= offsets.get(i)[0] + length) {
+				j++;
+			}
+			if (j - i > count) {
+				count = j - i;
+				spanStart = offsets.get(i)[0];
+				spanEnd = offsets.get(j - 1)[1];
+			}
+		}
+		int start = (count > 0) ? (spanStart + spanEnd - length) / 2 : 0;
+		start = Math.max(0, Math.min(start, text.length() - length));
+		int end = start + length;
+		if (count == 0) {
+			spanStart = 0;
+			spanEnd = 0;
+		}
+
+		// Drops the words cut by the window, never the matches
+		if (start > 0 && !Character.isWhitespace(text.charAt(start - 1))) {
+			int space = indexOfWhitespace(text, start, spanStart);
+			if (space >= 0) {
+				start = space + 1;
+			}
+		}
+		if (end < text.length() && !Character.isWhitespace(text.charAt(end))) {
+			int space = lastIndexOfWhitespace(text, end - 1, spanEnd);
+			if (space >= 0) {
+				end = space;
+			}
+		}
+
+		StringBuilder html = new StringBuilder();
+		if (start > 0) {
+			html.append("…");
+		}
+		html.append(highlight(text, offsets, start, end));
+		if (end < text.length()) {
+			html.append("…");
+		}
+		return html.toString();
+	}
+
+	private static int indexOfWhitespace(String text, int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (Character.isWhitespace(text.charAt(i))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int lastIndexOfWhitespace(String text, int from, int to) {
+		for (int i = from; i >= to; i--) {
+			if (Character.isWhitespace(text.charAt(i))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the given part of the text escaped, with the matches lying within it marked
+	 */
+	static String highlight(String text, List<int[]> offsets, int start, int end) {
+		StringBuilder html = new StringBuilder();
+		int position = start;
+		for (int[] offset : offsets) {
+			// Skips the overlapping matches and those cut by the window
+			if (offset[0] < position || offset[1] > end) {
+				continue;
+			}
+			html.append(HtmlUtils.htmlEscape(text.substring(position, offset[0])));
+			html.append("<mark>").append(HtmlUtils.htmlEscape(text.substring(offset[0], offset[1]))).append("</mark>");
+			position = offset[1];
+		}
+		html.append(HtmlUtils.htmlEscape(text.substring(position, end)));
+		return html.toString();
+	}
+}
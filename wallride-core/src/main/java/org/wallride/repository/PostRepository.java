@@ -45,4 +45,10 @@ public interface PostRepository extends JpaRepository<Post, Long>, PostRepositor
 
 	@Query("select count(post.id) from Post post where post.status = :status and post.language = :language ")
 	long countByStatus(@Param("status") Post.Status status, @Param("language") String language);
+
+	@Query("select post.id from Post post where post.status = :status and post.language = :language order by post.id ")
+	List<Long> findIdsByStatus(@Param("status") Post.Status status, @Param("language") String language);
+
+	@Query("select post.id from Post post where post.status = :status and post.language = :language and post.updatedAt > :since order by post.id ")
+	List<Long> findIdsByStatusUpdatedAfter(@Param("status") Post.Status status, @Param("language") String language, @Param("since") LocalDateTime since);
 }
@@ -19,11 +19,36 @@ package org.wallride.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.wallride.domain.Post;
+import org.wallride.model.PostFacets;
 import org.wallride.model.PostSearchRequest;
+import org.wallride.model.PostSummary;
+import org.wallride.model.Suggestion;
+
+import java.util.List;
 
 public interface PostRepositoryCustom {
 
 	void lock(long id);
 
+	/**
+	 * Updates the page views of a post and its index document. The post is not otherwise changed,
+	 * so its {@code updatedAt} is left as is.
+	 */
+	void updateViews(long id, long views);
+
 	Page<Post> search(PostSearchRequest request, Pageable pageable);
+
+	Page<PostSummary> searchSummaries(PostSearchRequest request, Pageable pageable);
+
+	HighlightedPage<Post> searchWithHighlights(PostSearchRequest request, Pageable pageable);
+
+	HighlightedPage<PostSummary> searchSummariesWithHighlights(PostSearchRequest request, Pageable pageable);
+
+	FacetedPage<Post> searchWithFacets(PostSearchRequest request, Pageable pageable);
+
+	PostFacets countFacets(PostSearchRequest request);
+
+	List<Suggestion> suggest(String language, String keyword, int size);
+
+	List<Long> findRelatedIds(long id, String language, int size);
 }
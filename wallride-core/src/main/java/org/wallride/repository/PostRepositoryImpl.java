@@ -22,37 +22,54 @@ import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Sort;
-import org.apache.lucene.search.SortField;
 import org.hibernate.Criteria;
 import org.hibernate.FetchMode;
 import org.hibernate.Session;
+import org.hibernate.search.engine.ProjectionConstants;
+import org.hibernate.search.exception.SearchException;
 import org.hibernate.search.jpa.FullTextEntityManager;
 import org.hibernate.search.jpa.FullTextQuery;
 import org.hibernate.search.jpa.Search;
 import org.hibernate.search.query.dsl.BooleanJunction;
 import org.hibernate.search.query.dsl.QueryBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 import org.wallride.domain.Post;
 import org.wallride.domain.Post_;
 import org.wallride.model.PostSearchRequest;
+import org.wallride.model.PostFacets;
+import org.wallride.model.PostHighlight;
+import org.wallride.model.PostSummary;
+import org.wallride.model.Suggestion;
+import org.wallride.support.IndexWarmer;
 
 import javax.persistence.EntityManager;
 import javax.persistence.LockModeType;
 import javax.persistence.PersistenceContext;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
 import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class PostRepositoryImpl implements PostRepositoryCustom {
 
+	private static final String[] RELATED_FIELDS = { "title", "body", "tags.name" };
+
 	@PersistenceContext
 	private EntityManager entityManager;
 
+	@Autowired(required = false)
+	private IndexWarmer indexWarmer;
+
 	@Override
 	public void lock(long id) {
 		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
@@ -63,48 +80,218 @@ public class PostRepositoryImpl implements PostRepositoryCustom {
 		entityManager.createQuery(query).setLockMode(LockModeType.PESSIMISTIC_WRITE).getSingleResult();
 	}
 
+	@Override
+	public void updateViews(long id, long views) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaUpdate<Post> update = cb.createCriteriaUpdate(Post.class);
+		Root<Post> root = update.from(Post.class);
+		update.set(root.get(Post_.views), views);
+		update.where(cb.equal(root.get(Post_.id), id));
+		if (entityManager.createQuery(update).executeUpdate() == 0) {
+			return;
+		}
+		// A bulk update is not seen by Hibernate Search, so the summary in the index is refreshed here
+		Post post = entityManager.find(Post.class, id);
+		entityManager.refresh(post);
+		Search.getFullTextEntityManager(entityManager).index(post);
+	}
+
 	@Override
 	public Page<Post> search(PostSearchRequest request, Pageable pageable) {
+		if (indexWarmer != null && !indexWarmer.isWarm() && !StringUtils.hasText(request.getKeyword())) {
+			return PostSpecifications.page(entityManager, Post.class, listing(request), pageable, request.getAfter(), request.getBefore());
+		}
+		Session session = (Session) entityManager.getDelegate();
+		Criteria criteria = session.createCriteria(Post.class)
+				.setFetchMode("cover", FetchMode.JOIN)
+				.setFetchMode("author", FetchMode.JOIN);
+
+		FullTextQuery persistenceQuery = buildFullTextQuery(request, pageable, criteria);
+		return FullTextQueries.page(persistenceQuery, pageable, request.getAfter(), request.getBefore());
+	}
+
+	@Override
+	public FacetedPage<Post> searchWithFacets(PostSearchRequest request, Pageable pageable) {
+		Session session = (Session) entityManager.getDelegate();
+		Criteria criteria = session.createCriteria(Post.class)
+				.setFetchMode("cover", FetchMode.JOIN)
+				.setFetchMode("author", FetchMode.JOIN);
+
+		FullTextQuery persistenceQuery = buildFacetedQuery(request, pageable, criteria);
+		Page<Post> page = FullTextQueries.page(persistenceQuery, pageable, request.getAfter(), request.getBefore());
+		return new FacetedPage<>(page, FullTextQueries.postFacets(persistenceQuery));
+	}
+
+	@Override
+	public PostFacets countFacets(PostSearchRequest request) {
+		FullTextQuery persistenceQuery = buildFacetedQuery(request, Pageable.unpaged(), null);
+		return FullTextQueries.postFacets(persistenceQuery);
+	}
+
+	@Override
+	public HighlightedPage<Post> searchWithHighlights(PostSearchRequest request, Pageable pageable) {
+		Map<Long, Integer> documentIds = new LinkedHashMap<>();
+		Page<Post> page;
+		if (indexWarmer != null && !indexWarmer.isWarm() && !StringUtils.hasText(request.getKeyword())) {
+			page = search(request, pageable);
+			page.forEach(post -> documentIds.put(post.getId(), null));
+		}
+		else {
+			Session session = (Session) entityManager.getDelegate();
+			Criteria criteria = session.createCriteria(Post.class)
+					.setFetchMode("cover", FetchMode.JOIN)
+					.setFetchMode("author", FetchMode.JOIN);
+
+			FullTextQuery persistenceQuery = buildFullTextQuery(request, pageable, criteria);
+			page = FullTextQueries.page(persistenceQuery, pageable, request.getAfter(), request.getBefore(), documentIds);
+		}
+		return new HighlightedPage<>(page, highlight(request, documentIds));
+	}
+
+	@Override
+	public HighlightedPage<PostSummary> searchSummariesWithHighlights(PostSearchRequest request, Pageable pageable) {
+		Map<Long, Integer> documentIds = new LinkedHashMap<>();
+		FullTextQuery persistenceQuery = buildFullTextQuery(request, pageable, null);
+		Page<PostSummary> page = FullTextQueries.summaryPage(persistenceQuery, pageable, request.getAfter(), request.getBefore(), documentIds);
+		return new HighlightedPage<>(page, highlight(request, documentIds));
+	}
+
+	@Override
+	public Page<PostSummary> searchSummaries(PostSearchRequest request, Pageable pageable) {
+		FullTextQuery persistenceQuery = buildFullTextQuery(request, pageable, null);
+		return FullTextQueries.summaryPage(persistenceQuery, pageable, request.getAfter(), request.getBefore());
+	}
+
+	@Override
+	public List<Suggestion> suggest(String language, String keyword, int size) {
 		FullTextEntityManager fullTextEntityManager =  Search.getFullTextEntityManager(entityManager);
-		QueryBuilder qb = fullTextEntityManager.getSearchFactory()
-				.buildQueryBuilder()
-				.forEntity(Post.class)
-				.get();
+		QueryBuilder qb = FullTextQueries.suggestQueryBuilder(fullTextEntityManager, Post.class);
 
 		@SuppressWarnings("rawtypes")
 		BooleanJunction<BooleanJunction> junction = qb.bool();
-		junction.must(qb.all().createQuery());
+		junction.must(FullTextQueries.suggestQuery(qb, keyword));
+		junction.must(FullTextQueries.postFilter(qb, Post.Status.PUBLISHED, language)).disableScoring();
 
-		junction.must(qb.keyword().onField("drafted").ignoreAnalyzer().matching("_null_").createQuery());
+		FullTextQuery persistenceQuery = fullTextEntityManager.createFullTextQuery(junction.createQuery(), Post.class);
+		return FullTextQueries.suggestions(persistenceQuery, size);
+	}
 
-		if (StringUtils.hasText(request.getKeyword())) {
-			Analyzer analyzer = fullTextEntityManager.getSearchFactory().getAnalyzer("synonyms");
-			String[] fields = new String[] {
-					"title", "body",
-					"categories.code",
-					"tags.name",
-			};
-			MultiFieldQueryParser parser = new MultiFieldQueryParser(fields, analyzer);
-			parser.setDefaultOperator(QueryParser.Operator.AND);
-			Query query = null;
-			try {
-				query = parser.parse(request.getKeyword());
-			}
-			catch (ParseException e1) {
-				try {
-					query = parser.parse(QueryParser.escape(request.getKeyword()));
-				}
-				catch (ParseException e2) {
-					throw new RuntimeException(e2);
-				}
-			}
-			junction.must(query);
+	/**
+	 * @return the ids of the published posts of the given language most similar to the given post,
+	 * compared by the term vectors of its title, body and tags, or an empty list if the post is not
+	 * indexed
+	 */
+	@Override
+	public List<Long> findRelatedIds(long id, String language, int size) {
+		FullTextEntityManager fullTextEntityManager =  Search.getFullTextEntityManager(entityManager);
+		QueryBuilder qb = FullTextQueries.postQueryBuilder(fullTextEntityManager, Post.class, language);
+
+		Query moreLikeThis;
+		try {
+			moreLikeThis = qb.moreLikeThis()
+					.excludeEntityUsedForComparison()
+					.comparingFields(RELATED_FIELDS)
+					.toEntityWithId(id)
+					.createQuery();
+		}
+		catch (SearchException e) {
+			return Collections.emptyList();
+		}
+
+		@SuppressWarnings("rawtypes")
+		BooleanJunction<BooleanJunction> junction = qb.bool();
+		junction.must(moreLikeThis);
+		junction.must(FullTextQueries.postFilter(qb, Post.Status.PUBLISHED, language)).disableScoring();
+
+		FullTextQuery persistenceQuery = fullTextEntityManager.createFullTextQuery(junction.createQuery(), Post.class);
+		persistenceQuery.setProjection(ProjectionConstants.ID);
+		persistenceQuery.setMaxResults(size);
+
+		List<Long> ids = new ArrayList<>();
+		for (Object row : persistenceQuery.getResultList()) {
+			ids.add((Long) ((Object[]) row)[0]);
 		}
+		return ids;
+	}
+
+	private Map<Long, PostHighlight> highlight(PostSearchRequest request, Map<Long, Integer> documentIds) {
+		FullTextEntityManager fullTextEntityManager =  Search.getFullTextEntityManager(entityManager);
+		Query query = StringUtils.hasText(request.getKeyword()) ? keywordQuery(fullTextEntityManager, request) : null;
+		return PostHighlighter.highlight(fullTextEntityManager, query, documentIds);
+	}
+
+	/**
+	 * @return the filters of the request without keyword, evaluated by the database
+	 */
+	private Specification<Post> listing(PostSearchRequest request) {
+		Specification<Post> spec = Specification.where(PostSpecifications.notDrafted());
 		if (request.getStatus() != null) {
-			junction.must(qb.keyword().onField("status").matching(request.getStatus()).createQuery());
+			spec = spec.and(PostSpecifications.status(request.getStatus()));
 		}
 		if (StringUtils.hasText(request.getLanguage())) {
-			junction.must(qb.keyword().onField("language").matching(request.getLanguage()).createQuery());
+			spec = spec.and(PostSpecifications.language(request.getLanguage()));
+		}
+		if (request.getDateFrom() != null) {
+			spec = spec.and(PostSpecifications.dateFrom(request.getDateFrom()));
+		}
+		if (request.getDateTo() != null) {
+			spec = spec.and(PostSpecifications.dateTo(request.getDateTo()));
+		}
+		if (!CollectionUtils.isEmpty(request.getCategoryCodes())) {
+			spec = spec.and(PostSpecifications.categoryCodes(request.getCategoryCodes()));
+		}
+		if (!CollectionUtils.isEmpty(request.getTagNames())) {
+			spec = spec.and(PostSpecifications.tagNames(request.getTagNames()));
+		}
+		if (!CollectionUtils.isEmpty(request.getPostIds())) {
+			spec = spec.and(PostSpecifications.ids(request.getPostIds()));
+		}
+		return spec;
+	}
+
+	private FullTextQuery buildFacetedQuery(PostSearchRequest request, Pageable pageable, Criteria criteria) {
+		FullTextQuery persistenceQuery = buildFullTextQuery(request, pageable, criteria);
+		QueryBuilder qb = Search.getFullTextEntityManager(entityManager).getSearchFactory()
+				.buildQueryBuilder()
+				.forEntity(Post.class)
+				.get();
+		FullTextQueries.enablePostFacets(persistenceQuery, qb);
+		return persistenceQuery;
+	}
+
+	private Query keywordQuery(FullTextEntityManager fullTextEntityManager, PostSearchRequest request) {
+		Analyzer analyzer = FullTextQueries.keywordAnalyzer(fullTextEntityManager, Post.class, request.getLanguage());
+		String[] fields = new String[] {
+				"title", "body",
+				"categories.code",
+				"tags.name",
+		};
+		MultiFieldQueryParser parser = new MultiFieldQueryParser(fields, analyzer);
+		parser.setDefaultOperator(QueryParser.Operator.AND);
+		try {
+			return parser.parse(request.getKeyword());
+		}
+		catch (ParseException e1) {
+			try {
+				return parser.parse(QueryParser.escape(request.getKeyword()));
+			}
+			catch (ParseException e2) {
+				throw new RuntimeException(e2);
+			}
+		}
+	}
+
+	private FullTextQuery buildFullTextQuery(PostSearchRequest request, Pageable pageable, Criteria criteria) {
+		FullTextEntityManager fullTextEntityManager =  Search.getFullTextEntityManager(entityManager);
+		QueryBuilder qb = FullTextQueries.postQueryBuilder(fullTextEntityManager, Post.class, request.getLanguage());
+
+		@SuppressWarnings("rawtypes")
+		BooleanJunction<BooleanJunction> junction = qb.bool();
+		junction.must(FullTextQueries.postFilter(qb, request.getStatus(),
+				StringUtils.hasText(request.getLanguage()) ? request.getLanguage() : null)).disableScoring();
+
+		if (StringUtils.hasText(request.getKeyword())) {
+			junction.must(keywordQuery(fullTextEntityManager, request));
 		}
 
 		if (request.getDateFrom() != null) {
@@ -138,32 +325,25 @@ public class PostRepositoryImpl implements PostRepositoryCustom {
 			junction.must(bool.createQuery());
 		}
 
-		Query searchQuery = junction.createQuery();
+		if (request.getAfter() != null) {
+			junction.must(FullTextQueries.after(request.getAfter()));
+		}
+		if (request.getBefore() != null) {
+			junction.must(FullTextQueries.before(request.getBefore()));
+		}
 
-		Session session = (Session) entityManager.getDelegate();
-		Criteria criteria = session.createCriteria(Post.class)
-				.setFetchMode("cover", FetchMode.JOIN)
-				.setFetchMode("tags", FetchMode.JOIN)
-				.setFetchMode("categories", FetchMode.JOIN)
-				.setFetchMode("customFieldValues", FetchMode.JOIN)
-				.setFetchMode("customFieldValues.customField", FetchMode.JOIN)
-				.setFetchMode("author", FetchMode.JOIN);
+		Query searchQuery = junction.createQuery();
 
-		Sort sort = new Sort(
-				new SortField("sortDate", SortField.Type.STRING, true),
-				new SortField("sortId", SortField.Type.LONG, true));
+		Sort sort = FullTextQueries.postSort(request.getBefore());
 
 		FullTextQuery persistenceQuery = fullTextEntityManager
 				.createFullTextQuery(searchQuery, Post.class)
 				.setCriteriaQuery(criteria)
 				.setSort(sort);
-		persistenceQuery.setFirstResult((int) pageable.getOffset());
-		persistenceQuery.setMaxResults(pageable.getPageSize());
-
-		int resultSize = persistenceQuery.getResultSize();
-
-		@SuppressWarnings("unchecked")
-		List<Post> results = persistenceQuery.getResultList();
-		return new PageImpl<>(results, pageable, resultSize);
+		if (pageable.isPaged()) {
+			persistenceQuery.setFirstResult((int) pageable.getOffset());
+			persistenceQuery.setMaxResults(pageable.getPageSize());
+		}
+		return persistenceQuery;
 	}
 }
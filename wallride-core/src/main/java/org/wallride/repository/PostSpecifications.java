@@ -0,0 +1,188 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wallride.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.wallride.domain.Category;
+import org.wallride.domain.Category_;
+import org.wallride.domain.Post;
+import org.wallride.domain.Post_;
+import org.wallride.domain.Tag;
+import org.wallride.domain.Tag_;
+import org.wallride.domain.User_;
+import org.wallride.model.PostCursor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Filters of post listings evaluated by the database, used while the search index is not warm.
+ * They match the keyword-less filters of the full-text searches.
+ */
+public class PostSpecifications {
+
+	public static <T extends Post> Specification<T> notDrafted() {
+		return (root, query, cb) -> cb.isNull(root.get(Post_.drafted));
+	}
+
+	public static <T extends Post> Specification<T> ids(Collection<Long> ids) {
+		return (root, query, cb) -> root.get(Post_.id).in(ids);
+	}
+
+	public static <T extends Post> Specification<T> status(Post.Status status) {
+		return (root, query, cb) -> cb.equal(root.get(Post_.status), status);
+	}
+
+	public static <T extends Post> Specification<T> language(String language) {
+		return (root, query, cb) -> cb.equal(root.get(Post_.language), language);
+	}
+
+	public static <T extends Post> Specification<T> dateFrom(LocalDateTime dateFrom) {
+		return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get(Post_.date), dateFrom);
+	}
+
+	public static <T extends Post> Specification<T> dateTo(LocalDateTime dateTo) {
+		return (root, query, cb) -> cb.lessThanOrEqualTo(root.get(Post_.date), dateTo);
+	}
+
+	public static <T extends Post> Specification<T> authorId(long authorId) {
+		return (root, query, cb) -> cb.equal(root.get(Post_.author).get(User_.id), authorId);
+	}
+
+	public static <T extends Post> Specification<T> categoryIds(Collection<Long> categoryIds) {
+		return (root, query, cb) -> {
+			Subquery<Long> subquery = query.subquery(Long.class);
+			Root<Post> post = subquery.from(Post.class);
+			Join<Post, Category> category = post.join(Post_.categories);
+			subquery.select(post.get(Post_.id)).where(category.get(Category_.id).in(categoryIds));
+			return root.get(Post_.id).in(subquery);
+		};
+	}
+
+	public static <T extends Post> Specification<T> categoryCodes(Collection<String> categoryCodes) {
+		return (root, query, cb) -> {
+			Subquery<Long> subquery = query.subquery(Long.class);
+			Root<Post> post = subquery.from(Post.class);
+			Join<Post, Category> category = post.join(Post_.categories);
+			subquery.select(post.get(Post_.id)).where(category.get(Category_.code).in(categoryCodes));
+			return root.get(Post_.id).in(subquery);
+		};
+	}
+
+	public static <T extends Post> Specification<T> tagIds(Collection<Long> tagIds) {
+		return (root, query, cb) -> {
+			Subquery<Long> subquery = query.subquery(Long.class);
+			Root<Post> post = subquery.from(Post.class);
+			Join<Post, Tag> tag = post.join(Post_.tags);
+			subquery.select(post.get(Post_.id)).where(tag.get(Tag_.id).in(tagIds));
+			return root.get(Post_.id).in(subquery);
+		};
+	}
+
+	public static <T extends Post> Specification<T> tagNames(Collection<String> tagNames) {
+		return (root, query, cb) -> {
+			Subquery<Long> subquery = query.subquery(Long.class);
+			Root<Post> post = subquery.from(Post.class);
+			Join<Post, Tag> tag = post.join(Post_.tags);
+			subquery.select(post.get(Post_.id)).where(tag.get(Tag_.name).in(tagNames));
+			return root.get(Post_.id).in(subquery);
+		};
+	}
+
+	/**
+	 * @return the posts following the given one in reading order
+	 * @see FullTextQueries#after(PostCursor)
+	 */
+	public static <T extends Post> Specification<T> after(PostCursor cursor) {
+		return (root, query, cb) -> cb.or(
+				cb.lessThan(root.get(Post_.date), cursor.getDate()),
+				cb.and(cb.equal(root.get(Post_.date), cursor.getDate()), cb.lessThan(root.get(Post_.id), cursor.getId())));
+	}
+
+	/**
+	 * @return the posts preceding the given one in reading order
+	 * @see FullTextQueries#before(PostCursor)
+	 */
+	public static <T extends Post> Specification<T> before(PostCursor cursor) {
+		return (root, query, cb) -> cb.or(
+				cb.greaterThan(root.get(Post_.date), cursor.getDate()),
+				cb.and(cb.equal(root.get(Post_.date), cursor.getDate()), cb.greaterThan(root.get(Post_.id), cursor.getId())));
+	}
+
+	/**
+	 * Lists the posts matching the specification in the order of {@link FullTextQueries#postSort},
+	 * paged the way {@link FullTextQueries#page(org.hibernate.search.jpa.FullTextQuery, Pageable, PostCursor, PostCursor)}
+	 * pages the search results.
+	 */
+	public static <T extends Post> Page<T> page(EntityManager entityManager, Class<T> type, Specification<T> spec, Pageable pageable, PostCursor after, PostCursor before) {
+		if (after != null) {
+			spec = spec.and(after(after));
+		}
+		if (before != null) {
+			spec = spec.and(before(before));
+		}
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+		CriteriaQuery<T> query = cb.createQuery(type);
+		Root<T> root = query.from(type);
+		query.where(spec.toPredicate(root, query, cb));
+		if (before == null) {
+			query.orderBy(cb.desc(root.get(Post_.date)), cb.desc(root.get(Post_.id)));
+		}
+		else {
+			query.orderBy(cb.asc(root.get(Post_.date)), cb.asc(root.get(Post_.id)));
+		}
+		TypedQuery<T> typedQuery = entityManager.createQuery(query);
+
+		CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+		Root<T> countRoot = countQuery.from(type);
+		countQuery.select(cb.count(countRoot)).where(spec.toPredicate(countRoot, countQuery, cb));
+
+		if (pageable.isUnpaged()) {
+			List<T> results = typedQuery.getResultList();
+			return new PageImpl<>(results, pageable, results.size());
+		}
+		if (after == null && before == null) {
+			typedQuery.setFirstResult((int) pageable.getOffset());
+			typedQuery.setMaxResults(pageable.getPageSize());
+			return new PageImpl<>(typedQuery.getResultList(), pageable, entityManager.createQuery(countQuery).getSingleResult());
+		}
+		typedQuery.setMaxResults(pageable.getPageSize());
+		List<T> results = typedQuery.getResultList();
+		long total = entityManager.createQuery(countQuery).getSingleResult();
+		boolean hasMore = total > results.size();
+		if (before != null) {
+			Collections.reverse(results);
+		}
+		Pageable first = PageRequest.of(0, pageable.getPageSize(), pageable.getSort());
+		return new CursorPage<>(results, first, total, before == null || hasMore, before != null || hasMore);
+	}
+}
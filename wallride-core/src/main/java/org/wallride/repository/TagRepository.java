@@ -19,12 +19,14 @@ package org.wallride.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.wallride.domain.Tag;
 
 import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.util.List;
 
 @Repository
@@ -36,11 +38,13 @@ public interface TagRepository extends JpaRepository<Tag, Long>, TagRepositoryCu
 	@Lock(LockModeType.PESSIMISTIC_WRITE)
 	Tag findOneForUpdateByIdAndLanguage(Long id, String language);
 
+	@QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
 	Tag findOneByNameAndLanguage(String name, String language);
 
 	@Lock(LockModeType.PESSIMISTIC_WRITE)
 	Tag findOneForUpdateByNameAndLanguage(String name, String language);
 
+	@QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
 	List<Tag> findAllByLanguage(String language);
 
 	@Query("select count(tag.id) from Tag tag where tag.language = :language ")
@@ -19,9 +19,13 @@ package org.wallride.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.wallride.domain.Tag;
+import org.wallride.model.Suggestion;
 import org.wallride.model.TagSearchRequest;
 
+import java.util.List;
+
 public interface TagRepositoryCustom {
 
 	Page<Tag> search(TagSearchRequest request, Pageable pageable);
+	List<Suggestion> suggest(String language, String keyword, int size);
 }
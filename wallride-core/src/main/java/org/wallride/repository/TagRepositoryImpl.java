@@ -31,10 +31,10 @@ import org.hibernate.search.jpa.Search;
 import org.hibernate.search.query.dsl.BooleanJunction;
 import org.hibernate.search.query.dsl.QueryBuilder;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.util.StringUtils;
 import org.wallride.domain.Tag;
+import org.wallride.model.Suggestion;
 import org.wallride.model.TagSearchRequest;
 
 import javax.persistence.EntityManager;
@@ -98,10 +98,20 @@ public class TagRepositoryImpl implements TagRepositoryCustom {
 		persistenceQuery.setFirstResult((int) pageable.getOffset());
 		persistenceQuery.setMaxResults(pageable.getPageSize());
 
-		int resultSize = persistenceQuery.getResultSize();
+		return FullTextQueries.page(persistenceQuery, pageable);
+	}
+
+	@Override
+	public List<Suggestion> suggest(String language, String keyword, int size) {
+		FullTextEntityManager fullTextEntityManager =  Search.getFullTextEntityManager(entityManager);
+		QueryBuilder qb = FullTextQueries.suggestQueryBuilder(fullTextEntityManager, Tag.class);
+
+		@SuppressWarnings("rawtypes")
+		BooleanJunction<BooleanJunction> junction = qb.bool();
+		junction.must(FullTextQueries.suggestQuery(qb, keyword));
+		junction.must(qb.keyword().onField("language").matching(language).createQuery()).disableScoring();
 
-		@SuppressWarnings("unchecked")
-		List<Tag> results = persistenceQuery.getResultList();
-		return new PageImpl<>(results, pageable, resultSize);
+		FullTextQuery persistenceQuery = fullTextEntityManager.createFullTextQuery(junction.createQuery(), Tag.class);
+		return FullTextQueries.suggestions(persistenceQuery, size);
 	}
-}
\ No newline at end of file
+}
@@ -19,6 +19,7 @@ package org.wallride.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.wallride.domain.User;
+import org.wallride.model.Suggestion;
 import org.wallride.model.UserSearchRequest;
 
 import java.util.List;
@@ -28,4 +29,5 @@ public interface UserRepositoryCustom {
 	Page<User> search(UserSearchRequest request);
 	Page<User> search(UserSearchRequest request, Pageable pageable);
 	List<Long> searchForId(UserSearchRequest request);
+	List<Suggestion> suggest(String keyword, int size);
 }
@@ -34,11 +34,11 @@ import org.hibernate.search.query.dsl.QueryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 import org.wallride.domain.User;
+import org.wallride.model.Suggestion;
 import org.wallride.model.UserSearchRequest;
 
 import javax.persistence.EntityManager;
@@ -65,9 +65,7 @@ public class UserRepositoryImpl implements UserRepositoryCustom {
 				.setFetchMode("roles", FetchMode.JOIN);
 
 		FullTextQuery persistenceQuery = buildFullTextQuery(request, pageable, criteria);
-		int resultSize = persistenceQuery.getResultSize();
-		List<User> results = persistenceQuery.getResultList();
-		return new PageImpl<>(results, pageable, resultSize);
+		return FullTextQueries.page(persistenceQuery, pageable);
 	}
 
 	@Override
@@ -79,6 +77,14 @@ public class UserRepositoryImpl implements UserRepositoryCustom {
 		return nos;
 	}
 
+	@Override
+	public List<Suggestion> suggest(String keyword, int size) {
+		FullTextEntityManager fullTextEntityManager =  Search.getFullTextEntityManager(entityManager);
+		QueryBuilder qb = FullTextQueries.suggestQueryBuilder(fullTextEntityManager, User.class);
+		FullTextQuery persistenceQuery = fullTextEntityManager.createFullTextQuery(FullTextQueries.suggestQuery(qb, keyword), User.class);
+		return FullTextQueries.suggestions(persistenceQuery, size);
+	}
+
 	private FullTextQuery buildFullTextQuery(UserSearchRequest request, Pageable pageable, Criteria criteria) {
 		FullTextEntityManager fullTextEntityManager =  Search.getFullTextEntityManager(entityManager);
 		QueryBuilder qb = fullTextEntityManager.getSearchFactory()
@@ -20,7 +20,6 @@ import java.text.ParseException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -40,7 +39,6 @@ import javax.persistence.PersistenceContext;
 import org.apache.commons.lang3.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Page;
@@ -59,6 +57,7 @@ import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.BindException;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.MessageCodesResolver;
+import org.wallride.autoconfigure.CacheInvalidator;
 import org.wallride.autoconfigure.WallRideCacheConfiguration;
 import org.wallride.autoconfigure.WallRideProperties;
 import org.wallride.domain.Article;
@@ -79,10 +78,15 @@ import org.wallride.model.ArticleBulkPublishRequest;
 import org.wallride.model.ArticleBulkUnpublishRequest;
 import org.wallride.model.ArticleCreateRequest;
 import org.wallride.model.ArticleDeleteRequest;
+import org.wallride.model.ArticleNavigation;
 import org.wallride.model.ArticleSearchRequest;
 import org.wallride.model.ArticleUpdateRequest;
+import org.wallride.model.ArticleView;
+import org.wallride.model.PostFacets;
+import org.wallride.model.PostSummary;
 import org.wallride.repository.ArticleRepository;
 import org.wallride.repository.ArticleSpecifications;
+import org.wallride.repository.FacetedPage;
 import org.wallride.repository.MediaRepository;
 import org.wallride.repository.PostRepository;
 import org.wallride.repository.TagRepository;
@@ -118,12 +122,14 @@ public class ArticleService {
 	@Inject
 	private WallRideProperties wallRideProperties;
 
+	@Inject
+	private CacheInvalidator cacheInvalidator;
+
 	@PersistenceContext
 	private EntityManager entityManager;
 
 	private static Logger logger = LoggerFactory.getLogger(ArticleService.class);
 
-	@CacheEvict(value = WallRideCacheConfiguration.ARTICLE_CACHE, allEntries = true)
 	public Article createArticle(ArticleCreateRequest request, Post.Status status, AuthorizedUser authorizedUser) {
 		LocalDateTime now = LocalDateTime.now();
 
@@ -261,10 +267,11 @@ public class ArticleService {
 				}
 			}
 		}
-		return articleRepository.save(article);
+		article = articleRepository.save(article);
+		cacheInvalidator.invalidatePost(WallRideCacheConfiguration.ARTICLE_CACHE, article);
+		return article;
 	}
 
-	@CacheEvict(value = WallRideCacheConfiguration.ARTICLE_CACHE, allEntries = true)
 	public Article saveArticleAsDraft(ArticleUpdateRequest request, AuthorizedUser authorizedUser) {
 		postRepository.lock(request.getId());
 		Article article = articleRepository.findOneByIdAndLanguage(request.getId(), request.getLanguage());
@@ -315,7 +322,6 @@ public class ArticleService {
 		}
 	}
 
-	@CacheEvict(value = WallRideCacheConfiguration.ARTICLE_CACHE, allEntries = true)
 	public Article saveArticleAsPublished(ArticleUpdateRequest request, AuthorizedUser authorizedUser) {
 		postRepository.lock(request.getId());
 		Article article = articleRepository.findOneByIdAndLanguage(request.getId(), request.getLanguage());
@@ -327,14 +333,15 @@ public class ArticleService {
 		Article deleteTarget = getDraftById(article.getId());
 		if (deleteTarget != null) {
 			articleRepository.delete(deleteTarget);
+			cacheInvalidator.invalidatePost(WallRideCacheConfiguration.ARTICLE_CACHE, deleteTarget);
 		}
 		article.setDrafted(null);
 		article.setStatus(Post.Status.PUBLISHED);
 		Article published = articleRepository.save(article);
+		cacheInvalidator.invalidatePost(WallRideCacheConfiguration.ARTICLE_CACHE, published);
 		return published;
 	}
 
-	@CacheEvict(value = WallRideCacheConfiguration.ARTICLE_CACHE, allEntries = true)
 	public Article saveArticleAsUnpublished(ArticleUpdateRequest request, AuthorizedUser authorizedUser) {
 		postRepository.lock(request.getId());
 		Article article = articleRepository.findOneByIdAndLanguage(request.getId(), request.getLanguage());
@@ -346,17 +353,20 @@ public class ArticleService {
 		Article deleteTarget = getDraftById(article.getId());
 		if (deleteTarget != null) {
 			articleRepository.delete(deleteTarget);
+			cacheInvalidator.invalidatePost(WallRideCacheConfiguration.ARTICLE_CACHE, deleteTarget);
 		}
+		CacheInvalidator.Listing listed = CacheInvalidator.listing(article);
 		article.setDrafted(null);
 		article.setStatus(Post.Status.DRAFT);
 		Article unpublished = articleRepository.save(article);
+		cacheInvalidator.invalidatePost(WallRideCacheConfiguration.ARTICLE_CACHE, unpublished, listed);
 		return unpublished;
 	}
 
-	@CacheEvict(value = WallRideCacheConfiguration.ARTICLE_CACHE, allEntries = true)
 	public Article saveArticle(ArticleUpdateRequest request, AuthorizedUser authorizedUser) {
 		postRepository.lock(request.getId());
 		Article article = articleRepository.findOneByIdAndLanguage(request.getId(), request.getLanguage());
+		CacheInvalidator.Listing listed = CacheInvalidator.listing(article);
 		LocalDateTime now = LocalDateTime.now();
 
 		String code = request.getCode();
@@ -502,18 +512,19 @@ public class ArticleService {
 			}
 		}
 
-		return articleRepository.save(article);
+		article = articleRepository.save(article);
+		cacheInvalidator.invalidatePost(WallRideCacheConfiguration.ARTICLE_CACHE, article, listed);
+		return article;
 	}
 
-	@CacheEvict(value = WallRideCacheConfiguration.ARTICLE_CACHE, allEntries = true)
 	public Article deleteArticle(ArticleDeleteRequest request, BindingResult result) throws BindException {
 		postRepository.lock(request.getId());
 		Article article = articleRepository.findOneByIdAndLanguage(request.getId(), request.getLanguage());
 		articleRepository.delete(article);
+		cacheInvalidator.invalidatePost(WallRideCacheConfiguration.ARTICLE_CACHE, article);
 		return article;
 	}
 
-	@CacheEvict(value = WallRideCacheConfiguration.ARTICLE_CACHE, allEntries = true)
 	public List<Article> bulkPublishArticle(ArticleBulkPublishRequest request, AuthorizedUser authorizedUser) {
 		List<Article> articles = new ArrayList<>();
 		for (long id : request.getIds()) {
@@ -559,7 +570,6 @@ public class ArticleService {
 		return articles;
 	}
 
-	@CacheEvict(value = WallRideCacheConfiguration.ARTICLE_CACHE, allEntries = true)
 	public List<Article> bulkUnpublishArticle(ArticleBulkUnpublishRequest request, AuthorizedUser authorizedUser) {
 		List<Article> articles = new ArrayList<>();
 		for (long id : request.getIds()) {
@@ -580,7 +590,6 @@ public class ArticleService {
 	}
 
 	@Transactional(propagation=Propagation.NOT_SUPPORTED)
-	@CacheEvict(value = WallRideCacheConfiguration.ARTICLE_CACHE, allEntries = true)
 	public List<Article> bulkDeleteArticle(ArticleBulkDeleteRequest bulkDeleteRequest, BindingResult result) {
 		List<Article> articles = new ArrayList<>();
 		for (long id : bulkDeleteRequest.getIds()) {
@@ -625,11 +634,39 @@ public class ArticleService {
 		return getArticles(request, pageable);
 	}
 
-	@Cacheable(value = WallRideCacheConfiguration.ARTICLE_CACHE)
 	public Page<Article> getArticles(ArticleSearchRequest request, Pageable pageable) {
 		return articleRepository.search(request, pageable);
 	}
 
+	/**
+	 * Searches articles like {@link #getArticles(ArticleSearchRequest, Pageable)}, reading only the
+	 * summaries stored in the search index.
+	 */
+	public Page<PostSummary> searchSummaries(ArticleSearchRequest request, Pageable pageable) {
+		return articleRepository.searchSummaries(request, pageable);
+	}
+
+	/**
+	 * Searches articles like {@link #getArticles(ArticleSearchRequest, Pageable)}, counting the
+	 * matching articles per category, tag, author and month in the same search.
+	 */
+	public FacetedPage<Article> getArticlesWithFacets(ArticleSearchRequest request, Pageable pageable) {
+		return articleRepository.searchWithFacets(request, pageable);
+	}
+
+	/**
+	 * @return the number of articles matching the request per category, tag, author and month,
+	 * counted from the search index
+	 */
+	public PostFacets countArticleFacets(ArticleSearchRequest request) {
+		return articleRepository.countFacets(request);
+	}
+
+	@Cacheable(value = WallRideCacheConfiguration.ARTICLE_CACHE, sync = true)
+	public Page<ArticleView> getArticleViews(ArticleSearchRequest request, Pageable pageable) {
+		return articleRepository.search(request, pageable).map(ArticleView::new);
+	}
+
 	public List<Article> getArticles(Collection<Long> ids) {
 		Set<Article> results = new LinkedHashSet<Article>(articleRepository.findAllByIdIn(ids));
 		List<Article> articles = new ArrayList<>();
@@ -644,13 +681,13 @@ public class ArticleService {
 		return articles;
 	}
 
-	@Cacheable(value = WallRideCacheConfiguration.ARTICLE_CACHE)
-	public SortedSet<Article> getArticlesByCategoryCode(String language, String code, Post.Status status) {
+	@Cacheable(value = WallRideCacheConfiguration.ARTICLE_CACHE, sync = true)
+	public SortedSet<ArticleView> getArticlesByCategoryCode(String language, String code, Post.Status status) {
 		return getArticlesByCategoryCode(language, code, status, 10);
 	}
 
-	@Cacheable(value = WallRideCacheConfiguration.ARTICLE_CACHE)
-	public SortedSet<Article> getArticlesByCategoryCode(String language, String code, Post.Status status, int size) {
+	@Cacheable(value = WallRideCacheConfiguration.ARTICLE_CACHE, sync = true)
+	public SortedSet<ArticleView> getArticlesByCategoryCode(String language, String code, Post.Status status, int size) {
 		ArticleSearchRequest request = new ArticleSearchRequest()
 				.withLanguage(language)
 				.withCategoryCodes(code)
@@ -658,33 +695,53 @@ public class ArticleService {
 
 		Pageable pageable = PageRequest.of(0, size);
 		Page<Article> page = articleRepository.search(request, pageable);
-		return new TreeSet<>(page.getContent());
+		return new TreeSet<>(page.map(ArticleView::new).getContent());
 	}
 
-	@Cacheable(value = WallRideCacheConfiguration.ARTICLE_CACHE)
-	public SortedSet<Article> getLatestArticles(String language, Post.Status status, int size) {
+	@Cacheable(value = WallRideCacheConfiguration.ARTICLE_CACHE, sync = true)
+	public SortedSet<ArticleView> getLatestArticles(String language, Post.Status status, int size) {
 		ArticleSearchRequest request = new ArticleSearchRequest()
 				.withLanguage(language)
 				.withStatus(status);
 
 		Pageable pageable = PageRequest.of(0, size);
 		Page<Article> page = articleRepository.search(request, pageable);
-		return new TreeSet<>(page.getContent());
+		return new TreeSet<>(page.map(ArticleView::new).getContent());
 	}
 
 	public Article getArticleById(long id) {
 		return articleRepository.findOneById(id);
 	}
 
+	@Cacheable(value = WallRideCacheConfiguration.ARTICLE_CACHE, sync = true)
+	public ArticleView getArticleViewById(long id) {
+		Article article = articleRepository.findOneById(id);
+		return (article != null) ? new ArticleView(article) : null;
+	}
+
 	public Article getArticleById(long id, String language) {
 		return articleRepository.findOneByIdAndLanguage(id, language);
 	}
 
-	@Cacheable(value = WallRideCacheConfiguration.ARTICLE_CACHE)
 	public Article getArticleByCode(String code, String language) {
 		return articleRepository.findOneByCodeAndLanguage(code, language);
 	}
 
+	@Cacheable(value = WallRideCacheConfiguration.ARTICLE_CACHE, sync = true)
+	public ArticleView getArticleViewByCode(String code, String language) {
+		Article article = articleRepository.findOneByCodeAndLanguage(code, language);
+		return (article != null) ? new ArticleView(article) : null;
+	}
+
+	/**
+	 * @return the published articles of the given language in reading order, rebuilt whenever an
+	 * article of the language is written
+	 */
+	@Cacheable(value = WallRideCacheConfiguration.ARTICLE_CACHE, sync = true)
+	public ArticleNavigation getArticleNavigation(String language) {
+		return new ArticleNavigation(language, articleRepository.findIdAndDateByStatusAndLanguage(Post.Status.PUBLISHED, language));
+	}
+
 	public Article getDraftById(long id) {
 		return articleRepository.findOne(ArticleSpecifications.draft(entityManager.getReference(Article.class, id)));
 	}
@@ -698,29 +755,14 @@ public class ArticleService {
 	}
 
 	public Map<Long, Long> countArticlesByAuthorIdGrouped(Post.Status status, String language) {
-		List<Map<String, Object>> results = articleRepository.countByAuthorIdGrouped(status, language);
-		Map<Long, Long> counts = new HashMap<>();
-		for (Map<String, Object> row : results) {
-			counts.put((Long) row.get("userId"), (Long) row.get("count"));
-		}
-		return counts;
+		return countArticleFacets(new ArticleSearchRequest().withStatus(status).withLanguage(language)).getAuthors();
 	}
 
 	public Map<Long, Long> countArticlesByCategoryIdGrouped(Post.Status status, String language) {
-		List<Map<String, Object>> results = articleRepository.countByCategoryIdGrouped(status, language);
-		Map<Long, Long> counts = new HashMap<>();
-		for (Map<String, Object> row : results) {
-			counts.put((Long) row.get("categoryId"), (Long) row.get("count"));
-		}
-		return counts;
+		return countArticleFacets(new ArticleSearchRequest().withStatus(status).withLanguage(language)).getCategories();
 	}
 
 	public Map<Long, Long> countArticlesByTagIdGrouped(Post.Status status, String language) {
-		List<Map<String, Object>> results = articleRepository.countByTagIdGrouped(status, language);
-		Map<Long, Long> counts = new HashMap<>();
-		for (Map<String, Object> row : results) {
-			counts.put((Long) row.get("tagId"), (Long) row.get("count"));
-		}
-		return counts;
+		return countArticleFacets(new ArticleSearchRequest().withStatus(status).withLanguage(language)).getTags();
 	}
 }
@@ -167,7 +167,7 @@ public class BlogService {
 		return googleAnalytics;
 	}
 
-	@Cacheable(value = WallRideCacheConfiguration.BLOG_CACHE)
+	@Cacheable(value = WallRideCacheConfiguration.BLOG_CACHE, sync = true)
 	public Blog getBlogById(long id) {
 		return blogRepository.findOneById(id);
 	}
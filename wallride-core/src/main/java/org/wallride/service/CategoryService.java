@@ -16,7 +16,6 @@
 
 package org.wallride.service;
 
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -25,6 +24,8 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.ObjectUtils;
+import org.wallride.autoconfigure.CacheDependency;
+import org.wallride.autoconfigure.CacheInvalidator;
 import org.wallride.autoconfigure.WallRideCacheConfiguration;
 import org.wallride.domain.Category;
 import org.wallride.domain.Category_;
@@ -49,7 +50,9 @@ public class CategoryService {
 	@Inject
 	private CategoryRepository categoryRepository;
 
-	@CacheEvict(value = {WallRideCacheConfiguration.ARTICLE_CACHE, WallRideCacheConfiguration.PAGE_CACHE}, allEntries = true)
+	@Inject
+	private CacheInvalidator cacheInvalidator;
+
 	public Category createCategory(CategoryCreateRequest request, AuthorizedUser authorizedUser) {
 		Category category = new Category();
 
@@ -85,10 +88,11 @@ public class CategoryService {
 		category.setRgt(rgt + 1);
 		category.setLanguage(request.getLanguage());
 
-		return categoryRepository.save(category);
+		category = categoryRepository.save(category);
+		invalidateCategory(category);
+		return category;
 	}
 
-	@CacheEvict(value = {WallRideCacheConfiguration.ARTICLE_CACHE, WallRideCacheConfiguration.PAGE_CACHE}, allEntries = true)
 	public Category updateCategory(CategoryUpdateRequest request, AuthorizedUser authorizedUser) {
 		categoryRepository.lock(request.getId());
 		Category category = categoryRepository.findOneByIdAndLanguage(request.getId(), request.getLanguage());
@@ -130,10 +134,11 @@ public class CategoryService {
 		category.setDescription(request.getDescription());
 		category.setLanguage(request.getLanguage());
 
-		return categoryRepository.save(category);
+		category = categoryRepository.save(category);
+		invalidateCategory(category);
+		return category;
 	}
 
-	@CacheEvict(value = {WallRideCacheConfiguration.ARTICLE_CACHE, WallRideCacheConfiguration.PAGE_CACHE}, allEntries = true)
 	public void updateCategoryHierarchy(List<Map<String, Object>> data, String language) {
 		for (int i = 0; i < data.size(); i++) {
 			Map<String, Object> map = data.get(i);
@@ -149,12 +154,12 @@ public class CategoryService {
 					category.setLft(((int) map.get("left")) - 1);
 					category.setRgt(((int) map.get("right")) - 1);
 					categoryRepository.save(category);
+					invalidateCategory(category);
 				}
 			}
 		}
 	}
 
-	@CacheEvict(value = {WallRideCacheConfiguration.ARTICLE_CACHE, WallRideCacheConfiguration.PAGE_CACHE}, allEntries = true)
 	public Category deleteCategory(long id, String language) {
 		categoryRepository.lock(id);
 		Category category = categoryRepository.findOneByIdAndLanguage(id, language);
@@ -162,6 +167,7 @@ public class CategoryService {
 		for (Category child : category.getChildren()) {
 			child.setParent(parent);
 			categoryRepository.saveAndFlush(child);
+			invalidateCategory(child);
 		}
 		category.getChildren().clear();
 		categoryRepository.saveAndFlush(category);
@@ -171,9 +177,16 @@ public class CategoryService {
 		categoryRepository.shiftRgt(category.getRgt());
 		categoryRepository.shiftLft(category.getRgt());
 
+		invalidateCategory(category);
 		return category;
 	}
 
+	private void invalidateCategory(Category category) {
+		CacheDependency dependency = CacheDependency.category(category.getId());
+		cacheInvalidator.invalidate(WallRideCacheConfiguration.ARTICLE_CACHE, dependency);
+		cacheInvalidator.invalidate(WallRideCacheConfiguration.PAGE_CACHE, dependency);
+	}
+
 	public Category getCategoryById(long id, String language) {
 		return categoryRepository.findOneByIdAndLanguage(id, language);
 	}
@@ -90,7 +90,7 @@ public class MediaService {
 		return mediaRepository.findAll( Sort.by(new Sort.Order(Sort.Direction.DESC, "createdAt")));
 	}
 
-	@Cacheable(value = WallRideCacheConfiguration.MEDIA_CACHE)
+	@Cacheable(value = WallRideCacheConfiguration.MEDIA_CACHE, sync = true)
 	public Media getMedia(String id) {
 		return mediaRepository.findOneById(id);
 	}
@@ -38,7 +38,6 @@ import javax.persistence.PersistenceContext;
 import org.apache.commons.lang3.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Pageable;
@@ -56,6 +55,7 @@ import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.BindException;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.MessageCodesResolver;
+import org.wallride.autoconfigure.CacheInvalidator;
 import org.wallride.autoconfigure.WallRideCacheConfiguration;
 import org.wallride.autoconfigure.WallRideProperties;
 import org.wallride.domain.Category;
@@ -75,6 +75,7 @@ import org.wallride.model.PageCreateRequest;
 import org.wallride.model.PageDeleteRequest;
 import org.wallride.model.PageSearchRequest;
 import org.wallride.model.PageUpdateRequest;
+import org.wallride.model.PageView;
 import org.wallride.repository.MediaRepository;
 import org.wallride.repository.PageRepository;
 import org.wallride.repository.PageSpecifications;
@@ -109,12 +110,14 @@ public class PageService {
 	@Inject
 	private WallRideProperties wallRideProperties;
 
+	@Inject
+	private CacheInvalidator cacheInvalidator;
+
 	@PersistenceContext
 	private EntityManager entityManager;
 
 	private static Logger logger = LoggerFactory.getLogger(PageService.class);
 
-	@CacheEvict(value = WallRideCacheConfiguration.PAGE_CACHE, allEntries = true)
 	public Page createPage(PageCreateRequest request, Post.Status status, AuthorizedUser authorizedUser) {
 		LocalDateTime now = LocalDateTime.now();
 
@@ -269,10 +272,11 @@ public class PageService {
 			}
 		}
 
-		return pageRepository.save(page);
+		page = pageRepository.save(page);
+		cacheInvalidator.invalidatePost(WallRideCacheConfiguration.PAGE_CACHE, page);
+		return page;
 	}
 
-	@CacheEvict(value = WallRideCacheConfiguration.PAGE_CACHE, allEntries = true)
 	public Page savePageAsDraft(PageUpdateRequest request, AuthorizedUser authorizedUser) {
 		postRepository.lock(request.getId());
 		Page page = pageRepository.findOneByIdAndLanguage(request.getId(), request.getLanguage());
@@ -323,39 +327,43 @@ public class PageService {
 		}
 	}
 
-	@CacheEvict(value = WallRideCacheConfiguration.PAGE_CACHE, allEntries = true)
 	public Page savePageAsPublished(PageUpdateRequest request, AuthorizedUser authorizedUser) {
 		postRepository.lock(request.getId());
 		Page page = pageRepository.findOneByIdAndLanguage(request.getId(), request.getLanguage());
 		Page deleteTarget = getDraftById(page.getId());
 		if (deleteTarget != null) {
 			pageRepository.delete(deleteTarget);
+			cacheInvalidator.invalidatePost(WallRideCacheConfiguration.PAGE_CACHE, deleteTarget);
 		}
+		CacheInvalidator.Listing listed = CacheInvalidator.listing(page);
 		page.setDrafted(null);
 		page.setStatus(Post.Status.PUBLISHED);
 		pageRepository.save(page);
+		cacheInvalidator.invalidatePost(WallRideCacheConfiguration.PAGE_CACHE, page, listed);
 		return savePage(request, authorizedUser);
 	}
 
-	@CacheEvict(value = WallRideCacheConfiguration.PAGE_CACHE, allEntries = true)
 	public Page savePageAsUnpublished(PageUpdateRequest request, AuthorizedUser authorizedUser) {
 		postRepository.lock(request.getId());
 		Page page = pageRepository.findOneByIdAndLanguage(request.getId(), request.getLanguage());
 		Page deleteTarget = getDraftById(page.getId());
 		if (deleteTarget != null) {
 			pageRepository.delete(deleteTarget);
+			cacheInvalidator.invalidatePost(WallRideCacheConfiguration.PAGE_CACHE, deleteTarget);
 		}
+		CacheInvalidator.Listing listed = CacheInvalidator.listing(page);
 		page.setDrafted(null);
 		page.setStatus(Post.Status.DRAFT);
 		pageRepository.save(page);
+		cacheInvalidator.invalidatePost(WallRideCacheConfiguration.PAGE_CACHE, page, listed);
 		pageRepository.deleteByDrafted(page);
 		return savePage(request, authorizedUser);
 	}
 
-	@CacheEvict(value = WallRideCacheConfiguration.PAGE_CACHE, allEntries = true)
 	public Page savePage(PageUpdateRequest request, AuthorizedUser authorizedUser) {
 		postRepository.lock(request.getId());
 		Page page = pageRepository.findOneByIdAndLanguage(request.getId(), request.getLanguage());
+		CacheInvalidator.Listing listed = CacheInvalidator.listing(page);
 		LocalDateTime now = LocalDateTime.now();
 
 		String code = request.getCode();
@@ -523,10 +531,11 @@ public class PageService {
 		}
 		page.setCustomFieldValues(fieldValues);
 
-		return pageRepository.save(page);
+		page = pageRepository.save(page);
+		cacheInvalidator.invalidatePost(WallRideCacheConfiguration.PAGE_CACHE, page, listed);
+		return page;
 	}
 
-	@CacheEvict(value = WallRideCacheConfiguration.PAGE_CACHE, allEntries = true)
 	public void updatePageHierarchy(List<Map<String, Object>> data, String language) {
 		for (int i = 0; i < data.size(); i++) {
 			Map<String, Object> map = data.get(i);
@@ -538,18 +547,19 @@ public class PageService {
 					if (map.get("parent_id") != null) {
 						parent = pageRepository.findOneByIdAndLanguage(Long.parseLong((String) map.get("parent_id")), language);
 					}
+					CacheInvalidator.Listing listed = CacheInvalidator.listing(page);
 					page.setParent(parent);
 					page.setLft(((int) map.get("left")) - 1);
 					page.setRgt(((int) map.get("right")) - 1);
 //					page.setDepth((int) map.get("depth"));
 //					page.setSort(i);
 					pageRepository.save(page);
+					cacheInvalidator.invalidatePost(WallRideCacheConfiguration.PAGE_CACHE, page, listed);
 				}
 			}
 		}
 	}
 
-	@CacheEvict(value = WallRideCacheConfiguration.PAGE_CACHE, allEntries = true)
 	public Page deletePage(PageDeleteRequest request, BindingResult result) throws BindException {
 		postRepository.lock(request.getId());
 		Page page = pageRepository.findOneByIdAndLanguage(request.getId(), request.getLanguage());
@@ -557,10 +567,12 @@ public class PageService {
 		for (Page child : page.getChildren()) {
 			child.setParent(parent);
 			pageRepository.saveAndFlush(child);
+			cacheInvalidator.invalidatePost(WallRideCacheConfiguration.PAGE_CACHE, child);
 		}
 		page.getChildren().clear();
 		pageRepository.saveAndFlush(page);
 		pageRepository.delete(page);
+		cacheInvalidator.invalidatePost(WallRideCacheConfiguration.PAGE_CACHE, page);
 
 		pageRepository.shiftLftRgt(page.getLft(), page.getRgt());
 		pageRepository.shiftRgt(page.getRgt());
@@ -569,7 +581,6 @@ public class PageService {
 		return page;
 	}
 
-	@CacheEvict(value = WallRideCacheConfiguration.PAGE_CACHE, allEntries = true)
 	public Page deletePage(long id, String language) {
 		postRepository.lock(id);
 		Page page = pageRepository.findOneByIdAndLanguage(id, language);
@@ -577,10 +588,12 @@ public class PageService {
 		for (Page child : page.getChildren()) {
 			child.setParent(parent);
 			pageRepository.saveAndFlush(child);
+			cacheInvalidator.invalidatePost(WallRideCacheConfiguration.PAGE_CACHE, child);
 		}
 		page.getChildren().clear();
 		pageRepository.saveAndFlush(page);
 		pageRepository.delete(page);
+		cacheInvalidator.invalidatePost(WallRideCacheConfiguration.PAGE_CACHE, page);
 
 		pageRepository.shiftLftRgt(page.getLft(), page.getRgt());
 		pageRepository.shiftRgt(page.getRgt());
@@ -589,7 +602,6 @@ public class PageService {
 		return page;
 	}
 
-	@CacheEvict(value = WallRideCacheConfiguration.PAGE_CACHE, allEntries = true)
 	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public List<Page> bulkDeletePage(PageBulkDeleteRequest bulkDeleteRequest, BindingResult result) {
 		List<Page> pages = new ArrayList<>();
@@ -628,22 +640,28 @@ public class PageService {
 		return pageRepository.searchForId(request);
 	}
 
-	@Cacheable(value = WallRideCacheConfiguration.PAGE_CACHE)
 	public org.springframework.data.domain.Page<Page> getPages(PageSearchRequest request) {
 		return getPages(request, Pageable.unpaged());
 	}
 
-	@Cacheable(value = WallRideCacheConfiguration.PAGE_CACHE)
 	public org.springframework.data.domain.Page<Page> getPages(PageSearchRequest request, Pageable pageable) {
 		return pageRepository.search(request, pageable);
 	}
 
-	@Cacheable(value = WallRideCacheConfiguration.PAGE_CACHE)
+	@Cacheable(value = WallRideCacheConfiguration.PAGE_CACHE, sync = true)
+	public org.springframework.data.domain.Page<PageView> getPageViews(PageSearchRequest request) {
+		return getPageViews(request, Pageable.unpaged());
+	}
+
+	@Cacheable(value = WallRideCacheConfiguration.PAGE_CACHE, sync = true)
+	public org.springframework.data.domain.Page<PageView> getPageViews(PageSearchRequest request, Pageable pageable) {
+		return pageRepository.search(request, pageable).map(PageView::new);
+	}
+
 	public List<Page> getPathPages(Page page) {
 		return getPathPages(page, false);
 	}
 
-	@Cacheable(value = WallRideCacheConfiguration.PAGE_CACHE)
 	public List<Page> getPathPages(Page page, boolean includeUnpublished) {
 		return pageRepository.findAll(PageSpecifications.path(page, includeUnpublished));
 	}
@@ -672,11 +690,16 @@ public class PageService {
 		return pageRepository.findOneByIdAndLanguage(id, language);
 	}
 
-	@Cacheable(value = WallRideCacheConfiguration.PAGE_CACHE)
 	public Page getPageByCode(String code, String language) {
 		return pageRepository.findOneByCodeAndLanguage(code, language);
 	}
 
+	@Cacheable(value = WallRideCacheConfiguration.PAGE_CACHE, sync = true)
+	public PageView getPageViewByCode(String code, String language) {
+		Page page = pageRepository.findOneByCodeAndLanguage(code, language);
+		return (page != null) ? new PageView(page) : null;
+	}
+
 	public Page getDraftById(long id) {
 		return pageRepository.findOne(PageSpecifications.draft(entityManager.getReference(Page.class, id)));
 	}
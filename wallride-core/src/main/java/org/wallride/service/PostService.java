@@ -25,6 +25,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -45,6 +46,7 @@ import org.springframework.batch.core.JobParametersBuilder;
 import org.springframework.batch.core.explore.JobExplorer;
 import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -65,6 +67,7 @@ import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
+import org.wallride.autoconfigure.CacheInvalidator;
 import org.wallride.autoconfigure.WallRideCacheConfiguration;
 import org.wallride.domain.BlogLanguage;
 import org.wallride.domain.GoogleAnalytics;
@@ -75,8 +78,12 @@ import org.wallride.domain.Post_;
 import org.wallride.exception.GoogleAnalyticsException;
 import org.wallride.exception.ServiceException;
 import org.wallride.model.PostSearchRequest;
+import org.wallride.model.PostSummary;
+import org.wallride.model.Suggestion;
+import org.wallride.repository.HighlightedPage;
 import org.wallride.repository.PopularPostRepository;
 import org.wallride.repository.PostRepository;
+import org.wallride.repository.PostRepositoryCustom;
 import org.wallride.support.GoogleAnalyticsUtils;
 import org.wallride.web.controller.guest.article.ArticleDescribeController;
 import org.wallride.web.controller.guest.page.PageDescribeController;
@@ -102,6 +109,10 @@ import com.google.api.services.analyticsreporting.v4.model.ReportRow;
 @Transactional(rollbackFor=Exception.class)
 public class PostService {
 
+	private static final int RELATED_POST_MAX_SIZE = 20;
+
+	@Autowired
+	private CacheInvalidator cacheInvalidator;
 	@Autowired
 	private CacheManager cacheManager;
 	@Autowired
@@ -132,11 +143,7 @@ public class PostService {
 		for (Post post : posts) {
 			post.setStatus(Post.Status.PUBLISHED);
 			postRepository.saveAndFlush(post);
-		}
-
-		if (!CollectionUtils.isEmpty(posts)) {
-			cacheManager.getCache(WallRideCacheConfiguration.ARTICLE_CACHE).clear();
-			cacheManager.getCache(WallRideCacheConfiguration.PAGE_CACHE).clear();
+			cacheInvalidator.invalidatePost((post instanceof org.wallride.domain.Page) ? WallRideCacheConfiguration.PAGE_CACHE : WallRideCacheConfiguration.ARTICLE_CACHE, post);
 		}
 
 		return posts;
@@ -369,6 +376,38 @@ public class PostService {
 		return postRepository.search(request, pageable);
 	}
 
+	/**
+	 * @return the published posts of the language with a title word starting with each word of the
+	 * keyword, read from the search index
+	 */
+	public List<Suggestion> suggestPosts(String language, String keyword, int size) {
+		return postRepository.suggest(language, keyword, size);
+	}
+
+	/**
+	 * Searches posts like {@link #getPosts(PostSearchRequest, Pageable)}, along with the title and
+	 * an excerpt of the body of each hit with the keyword highlighted.
+	 */
+	public HighlightedPage<Post> getPostsWithHighlights(PostSearchRequest request, Pageable pageable) {
+		return postRepository.searchWithHighlights(request, pageable);
+	}
+
+	/**
+	 * Searches posts like {@link #searchSummaries(PostSearchRequest, Pageable)}, along with the
+	 * highlight of each hit, without reading the posts from the database.
+	 */
+	public HighlightedPage<PostSummary> searchSummariesWithHighlights(PostSearchRequest request, Pageable pageable) {
+		return postRepository.searchSummariesWithHighlights(request, pageable);
+	}
+
+	/**
+	 * Searches posts like {@link #getPosts(PostSearchRequest, Pageable)}, reading only the
+	 * summaries stored in the search index.
+	 */
+	public Page<PostSummary> searchSummaries(PostSearchRequest request, Pageable pageable) {
+		return postRepository.searchSummaries(request, pageable);
+	}
+
 	/**
 	 *
 	 * @param language
@@ -376,7 +415,7 @@ public class PostService {
 	 * @return
 	 * @see PostService#updatePopularPosts(BlogLanguage, PopularPost.Type, int)
 	 */
-	@Cacheable(value = WallRideCacheConfiguration.POPULAR_POST_CACHE, key = "'list.type.' + #language + '.' + #type")
+	@Cacheable(value = WallRideCacheConfiguration.POPULAR_POST_CACHE, key = "'list.type.' + #language + '.' + #type", sync = true)
 	public SortedSet<PopularPost> getPopularPosts(String language, PopularPost.Type type) {
 		Specification<PopularPost> spec = (root, query, cb) -> {
 			@SuppressWarnings("unchecked")
@@ -393,6 +432,60 @@ public class PostService {
 		return popularPostRepository.findAll(spec);
 	}
 
+	/**
+	 * Stores the ids of the posts most related to each published post of the given language in the
+	 * related post cache. With {@code since}, only the posts updated after it are compared again;
+	 * the lists of the other posts are left to the next full run.
+	 *
+	 * @return the number of posts updated
+	 * @see PostRepositoryCustom#findRelatedIds(long, String, int)
+	 */
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public int updateRelatedPosts(String language, LocalDateTime since) {
+		List<Long> ids = (since != null)
+				? postRepository.findIdsByStatusUpdatedAfter(Post.Status.PUBLISHED, language, since)
+				: postRepository.findIdsByStatus(Post.Status.PUBLISHED, language);
+		Cache cache = cacheManager.getCache(WallRideCacheConfiguration.RELATED_POST_CACHE);
+		for (long id : ids) {
+			cache.put(id, findRelatedIds(id, language));
+		}
+		logger.info("Updated the related posts of {} posts [{}]", ids.size(), language);
+		return ids.size();
+	}
+
+	/**
+	 * @return the published posts most related to the given post, as stored by
+	 * {@link #updateRelatedPosts(String, LocalDateTime)}. A post missing from the cache is compared
+	 * on the spot.
+	 */
+	public List<Post> getRelatedPosts(long id, String language, int size) {
+		Cache cache = cacheManager.getCache(WallRideCacheConfiguration.RELATED_POST_CACHE);
+		List<Long> ids = cache.get(id, () -> findRelatedIds(id, language));
+		if (ids.isEmpty()) {
+			return new ArrayList<>();
+		}
+		Map<Long, Post> posts = new HashMap<>();
+		for (Post post : postRepository.findAllById(ids)) {
+			posts.put(post.getId(), post);
+		}
+		List<Post> results = new ArrayList<>();
+		for (long relatedId : ids) {
+			if (results.size() >= size) {
+				break;
+			}
+			Post post = posts.get(relatedId);
+			// The list may be older than the last change of its posts
+			if (post != null && post.getStatus() == Post.Status.PUBLISHED) {
+				results.add(post);
+			}
+		}
+		return results;
+	}
+
+	private ArrayList<Long> findRelatedIds(long id, String language) {
+		return new ArrayList<>(postRepository.findRelatedIds(id, language, RELATED_POST_MAX_SIZE));
+	}
+
 	public Post getPostById(long id, String language) {
 		return postRepository.findOneByIdAndLanguage(id, language);
 	}
@@ -16,62 +16,68 @@
 
 package org.wallride.service;
 
-import javax.persistence.EntityManager;
-import javax.persistence.PersistenceContext;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
 
-import org.hibernate.CacheMode;
-import org.hibernate.FlushMode;
-import org.hibernate.ScrollMode;
-import org.hibernate.ScrollableResults;
-import org.hibernate.Session;
-import org.hibernate.Transaction;
-import org.hibernate.search.FullTextSession;
-import org.hibernate.search.Search;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
+import org.wallride.autoconfigure.WallRideProperties;
+import org.wallride.model.ReIndexProgress;
+import org.wallride.support.ReIndexer;
 
 @Service
 public class SystemService {
 
-	private static final int BATCH_SIZE = 100;
+	@PersistenceUnit
+	private EntityManagerFactory entityManagerFactory;
 
-	private static Logger logger = LoggerFactory.getLogger(SystemService.class);
+	@Autowired
+	private ResourceLoader resourceLoader;
 
-	@PersistenceContext
-	private EntityManager entityManager;
+	@Autowired
+	private WallRideProperties wallRideProperties;
 
-	@Async
-	@Transactional(propagation = Propagation.SUPPORTS)
-	public void reIndex() throws Exception {
-		logger.info("Re-Index started");
+	private ReIndexer reIndexer;
 
-		FullTextSession fullTextSession = Search.getFullTextSession((entityManager.unwrap(Session.class)));
+	@PostConstruct
+	public void init() {
+		reIndexer = new ReIndexer(
+				entityManagerFactory,
+				wallRideProperties.getReIndex(),
+				resourceLoader.getResource(wallRideProperties.getHome() + "index/re-index.checkpoint"),
+				resourceLoader.getResource(wallRideProperties.getHome() + "index/re-index.watermark"));
+	}
+
+	/**
+	 * Starts rebuilding all the search indexes from scratch in the background.
+	 */
+	public ReIndexProgress reIndex() {
+		return reIndex(false);
+	}
 
-		fullTextSession.setHibernateFlushMode(FlushMode.MANUAL);
-		fullTextSession.setCacheMode(CacheMode.IGNORE);
+	/**
+	 * Starts rebuilding all the search indexes in the background.
+	 *
+	 * @param resume whether to continue an interrupted run from its checkpoint
+	 */
+	public ReIndexProgress reIndex(boolean resume) {
+		return reIndexer.start(resume);
+	}
 
-		for (Class<?> persistentClass : fullTextSession.getSearchFactory().getIndexedTypes()) {
-			Transaction transaction = fullTextSession.beginTransaction();
+	/**
+	 * Starts re-indexing in the background the entities updated or deleted since the last run.
+	 */
+	public ReIndexProgress deltaReIndex() {
+		return reIndexer.startDelta();
+	}
+
+	public ReIndexProgress getReIndexProgress() {
+		return reIndexer.getProgress();
+	}
 
-			// Scrollable results will avoid loading too many objects in memory
-			ScrollableResults results = fullTextSession.createCriteria(persistentClass)
-					.setFetchSize(BATCH_SIZE)
-					.scroll(ScrollMode.FORWARD_ONLY);
-			int index = 0;
-			while (results.next()) {
-				index++;
-				fullTextSession.index(results.get(0)); //index each element
-				if (index % BATCH_SIZE == 0) {
-					fullTextSession.flushToIndexes(); //apply changes to indexes
-					fullTextSession.clear(); //free memory since the queue is processed
-				}
-			}
-			transaction.commit();
-		}
-		logger.info("Re-Index finished");
+	public boolean isReIndexResumable() {
+		return reIndexer.isResumable();
 	}
 }
@@ -18,7 +18,6 @@ package org.wallride.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -33,6 +32,8 @@ import org.springframework.util.ObjectUtils;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.MessageCodesResolver;
+import org.wallride.autoconfigure.CacheDependency;
+import org.wallride.autoconfigure.CacheInvalidator;
 import org.wallride.autoconfigure.WallRideCacheConfiguration;
 import org.wallride.domain.Article;
 import org.wallride.domain.Tag;
@@ -62,8 +63,9 @@ public class TagService {
 	private MessageCodesResolver messageCodesResolver;
 	@Inject
 	private PlatformTransactionManager transactionManager;
+	@Inject
+	private CacheInvalidator cacheInvalidator;
 
-	@CacheEvict(value = {WallRideCacheConfiguration.ARTICLE_CACHE, WallRideCacheConfiguration.PAGE_CACHE}, allEntries = true)
 	public Tag createTag(TagCreateRequest request, AuthorizedUser authorizedUser) {
 		Tag duplicate = tagRepository.findOneByNameAndLanguage(request.getName(), request.getLanguage());
 		if (duplicate != null) {
@@ -80,10 +82,11 @@ public class TagService {
 		tag.setCreatedBy(authorizedUser.toString());
 		tag.setUpdatedAt(now);
 		tag.setUpdatedBy(authorizedUser.toString());
-		return tagRepository.saveAndFlush(tag);
+		tag = tagRepository.saveAndFlush(tag);
+		invalidateTag(tag.getId());
+		return tag;
 	}
 
-	@CacheEvict(value = {WallRideCacheConfiguration.ARTICLE_CACHE, WallRideCacheConfiguration.PAGE_CACHE}, allEntries = true)
 	public Tag updateTag(TagUpdateRequest request, AuthorizedUser authorizedUser) {
 		Tag tag = tagRepository.findOneForUpdateByIdAndLanguage(request.getId(), request.getLanguage());
 		LocalDateTime now = LocalDateTime.now();
@@ -101,10 +104,11 @@ public class TagService {
 		tag.setUpdatedAt(now);
 		tag.setUpdatedBy(authorizedUser.toString());
 
-		return tagRepository.saveAndFlush(tag);
+		tag = tagRepository.saveAndFlush(tag);
+		invalidateTag(tag.getId());
+		return tag;
 	}
 
-	@CacheEvict(value = {WallRideCacheConfiguration.ARTICLE_CACHE, WallRideCacheConfiguration.PAGE_CACHE}, allEntries = true)
 	public Tag mergeTags(TagMergeRequest request, AuthorizedUser authorizedUser) {
 		// Get all articles that have tag for merging
 		ArticleSearchRequest searchRequest = new ArticleSearchRequest()
@@ -114,6 +118,7 @@ public class TagService {
 		// Delete old tag after merging
 		for (long id : request.getIds()) {
 			tagRepository.deleteById(id);
+			invalidateTag(id);
 		}
 
 		// Create a new Tag
@@ -131,15 +136,14 @@ public class TagService {
 		return mergedTag;
 	}
 
-	@CacheEvict(value = {WallRideCacheConfiguration.ARTICLE_CACHE, WallRideCacheConfiguration.PAGE_CACHE}, allEntries = true)
 	public Tag deleteTag(TagDeleteRequest request, BindingResult result) {
 		Tag tag = tagRepository.findOneForUpdateByIdAndLanguage(request.getId(), request.getLanguage());
 		tagRepository.delete(tag);
+		invalidateTag(tag.getId());
 		return tag;
 	}
 
 	@Transactional(propagation = Propagation.NOT_SUPPORTED)
-	@CacheEvict(value = {WallRideCacheConfiguration.ARTICLE_CACHE, WallRideCacheConfiguration.PAGE_CACHE}, allEntries = true)
 	public List<Tag> bulkDeleteTag(TagBulkDeleteRequest bulkDeleteRequest, final BindingResult result) {
 		List<Tag> tags = new ArrayList<>();
 		for (long id : bulkDeleteRequest.getIds()) {
@@ -169,6 +173,12 @@ public class TagService {
 		return tags;
 	}
 
+	private void invalidateTag(long id) {
+		CacheDependency dependency = CacheDependency.tag(id);
+		cacheInvalidator.invalidate(WallRideCacheConfiguration.ARTICLE_CACHE, dependency);
+		cacheInvalidator.invalidate(WallRideCacheConfiguration.PAGE_CACHE, dependency);
+	}
+
 	public Tag getTagById(long id, String language) {
 		return tagRepository.findOneByIdAndLanguage(id, language);
 	}
@@ -189,4 +199,12 @@ public class TagService {
 	public Page<Tag> getTags(TagSearchRequest request, Pageable pageable) {
 		return tagRepository.search(request, pageable);
 	}
+
+	/**
+	 * @return the tags of the language with a word starting with each word of the keyword, read from
+	 * the search index
+	 */
+	public List<Suggestion> suggestTags(String language, String keyword, int size) {
+		return tagRepository.suggest(language, keyword, size);
+	}
 }
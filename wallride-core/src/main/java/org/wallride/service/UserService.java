@@ -76,6 +76,7 @@ import org.wallride.exception.ServiceException;
 import org.wallride.model.PasswordResetTokenCreateRequest;
 import org.wallride.model.PasswordUpdateRequest;
 import org.wallride.model.ProfileUpdateRequest;
+import org.wallride.model.Suggestion;
 import org.wallride.model.UserBulkDeleteRequest;
 import org.wallride.model.UserDeleteRequest;
 import org.wallride.model.UserInvitationCreateRequest;
@@ -441,6 +442,14 @@ public class UserService {
 		return userRepository.search(request, pageable);
 	}
 
+	/**
+	 * @return the users with a name, login id or nickname starting with each word of the keyword,
+	 * read from the search index
+	 */
+	public List<Suggestion> suggestUsers(String keyword, int size) {
+		return userRepository.suggest(keyword, size);
+	}
+
 	public List<User> getUsers(Collection<Long> ids) {
 		Set<User> results = new LinkedHashSet<User>(userRepository.findAllByIdIn(ids));
 		List<User> users = new ArrayList<>();
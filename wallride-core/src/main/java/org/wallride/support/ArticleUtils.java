@@ -18,8 +18,9 @@ package org.wallride.support;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.wallride.domain.Article;
 import org.wallride.model.ArticleSearchRequest;
+import org.wallride.model.ArticleView;
+import org.wallride.model.PostFacets;
 import org.wallride.service.ArticleService;
 
 public class ArticleUtils {
@@ -30,7 +31,11 @@ public class ArticleUtils {
 		this.articleService = articleService;
 	}
 
-	public Page<Article> search(ArticleSearchRequest request, int size) {
-		return articleService.getArticles(request, PageRequest.of(0, size));
+	public Page<ArticleView> search(ArticleSearchRequest request, int size) {
+		return articleService.getArticleViews(request, PageRequest.of(0, size));
+	}
+
+	public PostFacets countFacets(ArticleSearchRequest request) {
+		return articleService.countArticleFacets(request);
 	}
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.support;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.wallride.autoconfigure.WallRideCacheConfiguration;
+import org.wallride.domain.CustomField;
+import org.wallride.repository.CustomFieldRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The types of the custom fields of each language, to build searches on custom fields without
+ * querying their definitions. They are held in the custom field cache, which every write to a
+ * custom field clears.
+ */
+public class CustomFieldRegistry {
+
+	private static final String KEY_PREFIX = "fieldTypes:";
+
+	private final CacheManager cacheManager;
+
+	private final CustomFieldRepository customFieldRepository;
+
+	public CustomFieldRegistry(CacheManager cacheManager, CustomFieldRepository customFieldRepository) {
+		this.cacheManager = cacheManager;
+		this.customFieldRepository = customFieldRepository;
+	}
+
+	/**
+	 * @return the type of the custom field of the given language and code, or {@code null} if
+	 * there is none
+	 */
+	public CustomField.FieldType getFieldType(String language, String code) {
+		if (language == null) {
+			return null;
+		}
+		return getFieldTypes(language).get(code);
+	}
+
+	/**
+	 * @return the type of each custom field of the given language by code
+	 */
+	public Map<String, CustomField.FieldType> getFieldTypes(String language) {
+		Cache cache = cacheManager.getCache(WallRideCacheConfiguration.CUSTOM_FIELD_CACHE);
+		return cache.get(KEY_PREFIX + language, () -> load(language));
+	}
+
+	private HashMap<String, CustomField.FieldType> load(String language) {
+		HashMap<String, CustomField.FieldType> fieldTypes = new HashMap<>();
+		for (CustomField customField : customFieldRepository.findAllByLanguage(language)) {
+			fieldTypes.put(customField.getCode(), customField.getFieldType());
+		}
+		return fieldTypes;
+	}
+}
@@ -1,24 +1,106 @@
 package org.wallride.support;
 
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoubleDocValuesField;
+import org.apache.lucene.document.DoubleField;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongField;
+import org.apache.lucene.document.NumericDocValuesField;
 import org.hibernate.search.bridge.FieldBridge;
 import org.hibernate.search.bridge.LuceneOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wallride.domain.CustomField;
 import org.wallride.domain.CustomFieldValue;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 
+/**
+ * Indexes each custom field value as text in {@code customFieldValues.<code>}. Number values are
+ * also indexed as doubles, and date and datetime values as longs, with doc values in
+ * {@code customFieldValues.<code>.number}, to be filtered by range and sorted. A value which
+ * cannot be parsed is only indexed as text.
+ */
 public class CustomFieldValuesBridge implements FieldBridge {
 
+	public static final String FIELD = "customFieldValues";
+
+	private static Logger logger = LoggerFactory.getLogger(CustomFieldValuesBridge.class);
+
 	@Override
 	public void set(String name, Object value, Document document, LuceneOptions luceneOptions) {
 		@SuppressWarnings("unchecked")
 		Collection<CustomFieldValue> customFieldValues = (Collection<CustomFieldValue>) value;
 		if (customFieldValues != null) {
+			Set<String> numberCodes = new HashSet<>();
 			for (CustomFieldValue cfv : customFieldValues) {
 				if (cfv.getValue() != null) {
-					luceneOptions.addFieldToDocument(name + "." + cfv.getCustomField().getCode(), cfv.getValue().toString(), document);
+					String code = cfv.getCustomField().getCode();
+					luceneOptions.addFieldToDocument(name + "." + code, cfv.getValue().toString(), document);
+
+					Number number;
+					try {
+						number = toNumber(cfv.getCustomField().getFieldType(), cfv.getValue());
+					}
+					catch (NumberFormatException | DateTimeParseException e) {
+						logger.warn("Custom field [{}] value [{}] is not a valid {}, indexed as text only", code, cfv.getValue(), cfv.getCustomField().getFieldType());
+						continue;
+					}
+					// Doc values hold a single value per document
+					if (number != null && numberCodes.add(code)) {
+						if (number instanceof Double) {
+							document.add(new DoubleField(numberField(code), number.doubleValue(), Field.Store.NO));
+							document.add(new DoubleDocValuesField(numberField(code), number.doubleValue()));
+						}
+						else {
+							document.add(new LongField(numberField(code), number.longValue(), Field.Store.NO));
+							document.add(new NumericDocValuesField(numberField(code), number.longValue()));
+						}
+					}
 				}
 			}
 		}
 	}
+
+	/**
+	 * @return the name of the field holding the numeric values of the given custom field
+	 */
+	public static String numberField(String code) {
+		return FIELD + "." + code + ".number";
+	}
+
+	/**
+	 * @return the double the given value of a number custom field is indexed as, the long a date
+	 * or datetime value is indexed as, or {@code null} for the other field types. Strings are
+	 * parsed from their decimal or ISO representation.
+	 * @throws NumberFormatException if a number value cannot be parsed
+	 * @throws DateTimeParseException if a date or datetime value cannot be parsed
+	 */
+	public static Number toNumber(CustomField.FieldType fieldType, Object value) {
+		if (value == null || fieldType == null) {
+			return null;
+		}
+		switch (fieldType) {
+			case NUMBER:
+				return (value instanceof Number) ? ((Number) value).doubleValue() : Double.valueOf(value.toString().trim());
+			case DATE:
+				LocalDate date = (value instanceof LocalDate) ? (LocalDate) value
+						: (value instanceof LocalDateTime) ? ((LocalDateTime) value).toLocalDate()
+						: LocalDate.parse(value.toString().trim());
+				return date.toEpochDay();
+			case DATETIME:
+				LocalDateTime dateTime = (value instanceof LocalDateTime) ? (LocalDateTime) value
+						: (value instanceof LocalDate) ? ((LocalDate) value).atStartOfDay()
+						: LocalDateTime.parse(value.toString().trim());
+				return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+			default:
+				return null;
+		}
+	}
 }
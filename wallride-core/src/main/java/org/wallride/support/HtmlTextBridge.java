@@ -0,0 +1,31 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.support;
+
+import org.hibernate.search.bridge.StringBridge;
+import org.jsoup.Jsoup;
+
+/**
+ * Indexes HTML as its text, so that the offsets of the terms point into the stored text.
+ */
+public class HtmlTextBridge implements StringBridge {
+
+	@Override
+	public String objectToString(Object object) {
+		return (object != null) ? Jsoup.parse(object.toString()).text() : null;
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wallride.support;
+
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.store.NIOFSDirectory;
+import org.infinispan.Cache;
+import org.infinispan.hibernate.search.spi.InfinispanIntegration;
+import org.infinispan.lucene.FileListCacheKey;
+import org.infinispan.lucene.directory.DirectoryBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.wallride.autoconfigure.WallRideProperties;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Copies the latest commit of every index between the Infinispan caches and the local index
+ * directory. Must run while neither index is open for writing.
+ */
+public class IndexMigrator {
+
+	private final EmbeddedCacheManager cacheManager;
+
+	private final Resource localIndexBase;
+
+	private final WallRideProperties.Index.AccessType accessType;
+
+	private static Logger logger = LoggerFactory.getLogger(IndexMigrator.class);
+
+	public IndexMigrator(EmbeddedCacheManager cacheManager, Resource localIndexBase, WallRideProperties.Index.AccessType accessType) {
+		this.cacheManager = cacheManager;
+		this.localIndexBase = localIndexBase;
+		this.accessType = accessType;
+	}
+
+	public void migrate(WallRideProperties.Index.Mode from, WallRideProperties.Index.Mode to) throws IOException {
+		if (from == to) {
+			return;
+		}
+		Path localPath = localIndexBase.getFile().toPath();
+		Set<String> indexNames = (from == WallRideProperties.Index.Mode.INFINISPAN) ? infinispanIndexNames() : localIndexNames(localPath);
+		logger.info("Migrating {} indexes from {} to {}", indexNames.size(), from, to);
+		for (String indexName : indexNames) {
+			try (Directory source = open(from, localPath, indexName); Directory target = open(to, localPath, indexName)) {
+				int files = copy(source, target);
+				logger.info("Migrated index [{}] ({} files)", indexName, files);
+			}
+		}
+	}
+
+	/**
+	 * Replaces the content of the target with the latest commit of the source. The segments file
+	 * is copied last, so that an interrupted copy leaves no readable commit behind.
+	 */
+	private int copy(Directory source, Directory target) throws IOException {
+		for (String file : target.listAll()) {
+			target.deleteFile(file);
+		}
+		SegmentInfos segmentInfos = SegmentInfos.readLatestCommit(source);
+		List<String> files = new ArrayList<>(segmentInfos.files(false));
+		for (String file : files) {
+			target.copyFrom(source, file, file, IOContext.DEFAULT);
+		}
+		target.copyFrom(source, segmentInfos.getSegmentsFileName(), segmentInfos.getSegmentsFileName(), IOContext.DEFAULT);
+		files.add(segmentInfos.getSegmentsFileName());
+		target.sync(files);
+		return files.size();
+	}
+
+	private Directory open(WallRideProperties.Index.Mode mode, Path localPath, String indexName) throws IOException {
+		if (mode == WallRideProperties.Index.Mode.INFINISPAN) {
+			return DirectoryBuilder.newDirectoryInstance(
+					metadataCache(),
+					cacheManager.getCache(InfinispanIntegration.DEFAULT_INDEXESDATA_CACHENAME),
+					cacheManager.getCache(InfinispanIntegration.DEFAULT_LOCKING_CACHENAME),
+					indexName).create();
+		}
+		Path path = localPath.resolve(indexName);
+		Files.createDirectories(path);
+		switch (accessType) {
+			case MMAP:
+				return new MMapDirectory(path);
+			case NIO:
+				return new NIOFSDirectory(path);
+			default:
+				return FSDirectory.open(path);
+		}
+	}
+
+	private Cache<Object, Object> metadataCache() {
+		return cacheManager.getCache(InfinispanIntegration.DEFAULT_INDEXESMETADATA_CACHENAME);
+	}
+
+	private Set<String> infinispanIndexNames() {
+		Set<String> indexNames = new TreeSet<>();
+		for (Object key : metadataCache().keySet()) {
+			if (key instanceof FileListCacheKey) {
+				indexNames.add(((FileListCacheKey) key).getIndexName());
+			}
+		}
+		return indexNames;
+	}
+
+	private Set<String> localIndexNames(Path localPath) throws IOException {
+		Set<String> indexNames = new TreeSet<>();
+		if (!Files.isDirectory(localPath)) {
+			return indexNames;
+		}
+		List<Path> paths;
+		try (Stream<Path> stream = Files.list(localPath)) {
+			paths = stream.filter(Files::isDirectory).collect(Collectors.toList());
+		}
+		for (Path path : paths) {
+			try (Directory directory = FSDirectory.open(path)) {
+				if (DirectoryReader.indexExists(directory)) {
+					indexNames.add(path.getFileName().toString());
+				}
+			}
+		}
+		return indexNames;
+	}
+}
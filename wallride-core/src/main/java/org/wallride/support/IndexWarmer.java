@@ -0,0 +1,225 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wallride.support;
+
+import io.micrometer.core.instrument.Metrics;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.SegmentCommitInfo;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.hibernate.search.engine.spi.EntityIndexBinding;
+import org.hibernate.search.indexes.spi.DirectoryBasedIndexManager;
+import org.hibernate.search.indexes.spi.IndexManager;
+import org.hibernate.search.jpa.Search;
+import org.hibernate.search.spi.SearchIntegrator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms the search indexes in the background once the application is ready. The indexes are
+ * no longer preloaded from the cache store at startup, their chunks are fetched on first read;
+ * this reads the files of the newest segments first, the small per-segment structures before the
+ * doc values used for sorting, before the postings and the stored fields. Until it is done,
+ * {@link #isWarm()} lets listings be served from the database. An existing index kept on the local
+ * disk is complete and read from there, so it is warmed without holding the listings back.
+ */
+public class IndexWarmer implements ApplicationListener<ApplicationReadyEvent>, DisposableBean {
+
+	public static final String WARMUP_METRIC_NAME = "wallride.index.warmup";
+
+	/**
+	 * File extensions by reading priority, the others come last.
+	 */
+	private static final List<List<String>> TIERS = Arrays.asList(
+			Arrays.asList("si", "fnm", "tip", "dvm", "nvm", "cfe"),
+			Arrays.asList("dvd", "nvd", "cfs"),
+			Arrays.asList("tim", "doc", "pos", "pay"));
+
+	private final EntityManagerFactory entityManagerFactory;
+
+	private final boolean local;
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("index-warmer-"));
+
+	private volatile boolean warm;
+
+	private static Logger logger = LoggerFactory.getLogger(IndexWarmer.class);
+
+	/**
+	 * @param local whether the indexes are kept on the local disk rather than fetched from the
+	 * cache store
+	 */
+	public IndexWarmer(EntityManagerFactory entityManagerFactory, boolean local) {
+		this.entityManagerFactory = entityManagerFactory;
+		this.local = local;
+	}
+
+	public boolean isWarm() {
+		return warm;
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationReadyEvent event) {
+		if (local && indexesExist()) {
+			warm = true;
+		}
+		executor.execute(this::warmUp);
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	private void warmUp() {
+		long start = System.currentTimeMillis();
+		long bytes = 0;
+		try {
+			for (IndexManager indexManager : indexManagers()) {
+				bytes += warmUp(indexManager);
+			}
+			Metrics.timer(WARMUP_METRIC_NAME).record(System.currentTimeMillis() - start, TimeUnit.MILLISECONDS);
+			logger.info("Index warm-up finished: {} bytes in {} ms", bytes, System.currentTimeMillis() - start);
+		}
+		catch (Exception e) {
+			logger.warn("Index warm-up failed, the index is read on demand", e);
+		}
+		finally {
+			warm = true;
+		}
+	}
+
+	private Set<IndexManager> indexManagers() {
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		try {
+			SearchIntegrator searchIntegrator = Search.getFullTextEntityManager(entityManager).getSearchFactory().unwrap(SearchIntegrator.class);
+			Set<IndexManager> indexManagers = new LinkedHashSet<>();
+			for (EntityIndexBinding binding : searchIntegrator.getIndexBindings().values()) {
+				indexManagers.addAll(binding.getIndexManagerSelector().all());
+			}
+			return indexManagers;
+		}
+		finally {
+			entityManager.close();
+		}
+	}
+
+	/**
+	 * @return whether every index has been committed at least once, and so does not have to be
+	 * rebuilt before it can serve the listings
+	 */
+	private boolean indexesExist() {
+		try {
+			for (IndexManager indexManager : indexManagers()) {
+				if (indexManager instanceof DirectoryBasedIndexManager
+						&& !DirectoryReader.indexExists(((DirectoryBasedIndexManager) indexManager).getDirectoryProvider().getDirectory())) {
+					return false;
+				}
+			}
+			return true;
+		}
+		catch (IOException e) {
+			logger.warn("Could not check the indexes, the listings are served from the database until they are warm", e);
+			return false;
+		}
+	}
+
+	/**
+	 * @return the number of bytes read
+	 */
+	private long warmUp(IndexManager indexManager) throws IOException {
+		if (!(indexManager instanceof DirectoryBasedIndexManager)) {
+			return 0;
+		}
+		// Opening a reader loads the segment metadata and the terms index
+		IndexReader reader = indexManager.getReaderProvider().openIndexReader();
+		try {
+			Directory directory = ((DirectoryBasedIndexManager) indexManager).getDirectoryProvider().getDirectory();
+			long bytes = 0;
+			for (String file : files(directory)) {
+				bytes += read(directory, file);
+			}
+			logger.debug("Warmed up index [{}]: {} bytes", indexManager.getIndexName(), bytes);
+			return bytes;
+		}
+		finally {
+			indexManager.getReaderProvider().closeIndexReader(reader);
+		}
+	}
+
+	/**
+	 * @return the files of the latest commit in reading order
+	 */
+	private List<String> files(Directory directory) throws IOException {
+		SegmentInfos segmentInfos = SegmentInfos.readLatestCommit(directory);
+		List<SegmentCommitInfo> segments = new ArrayList<>();
+		segmentInfos.forEach(segments::add);
+		// Segments are appended as they are flushed, so the newest come last
+		Collections.reverse(segments);
+		List<String> files = new ArrayList<>();
+		for (SegmentCommitInfo segment : segments) {
+			files.addAll(segment.files());
+		}
+		files.sort(Comparator.comparingInt(IndexWarmer::tier));
+		return files;
+	}
+
+	private static int tier(String file) {
+		String extension = file.substring(file.lastIndexOf('.') + 1);
+		for (int i = 0; i < TIERS.size(); i++) {
+			if (TIERS.get(i).contains(extension)) {
+				return i;
+			}
+		}
+		return TIERS.size();
+	}
+
+	private long read(Directory directory, String file) throws IOException {
+		byte[] buffer = new byte[64 * 1024];
+		try (IndexInput input = directory.openInput(file, IOContext.READONCE)) {
+			long remaining = input.length();
+			while (remaining > 0) {
+				int length = (int) Math.min(buffer.length, remaining);
+				input.readBytes(buffer, 0, length);
+				remaining -= length;
+			}
+			return input.length();
+		}
+	}
+}
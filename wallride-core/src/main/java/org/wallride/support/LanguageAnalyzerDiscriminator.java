@@ -0,0 +1,59 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.support;
+
+import org.hibernate.search.analyzer.Discriminator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Analyzes the text fields of a post with the analyzer of its language, such as {@code text_ja},
+ * or with {@code text} for the languages without an analyzer of their own. The other fields keep
+ * the analyzer they are mapped with.
+ */
+public class LanguageAnalyzerDiscriminator implements Discriminator {
+
+	public static final String DEFAULT_ANALYZER = "text";
+
+	public static final List<String> FIELDS = Collections.unmodifiableList(Arrays.asList(
+			"title", "body", "categories.name", "tags.name"));
+
+	private static final Set<String> LANGUAGES = new HashSet<>(Arrays.asList("ja", "en", "es"));
+
+	private static final Set<String> FIELD_SET = new HashSet<>(FIELDS);
+
+	@Override
+	public String getAnalyzerDefinitionName(Object value, Object entity, String field) {
+		return FIELD_SET.contains(field) ? analyzerName((String) value) : null;
+	}
+
+	/**
+	 * @return the name of the analyzer definition for the text of the given language
+	 */
+	public static String analyzerName(String language) {
+		if (language == null) {
+			return DEFAULT_ANALYZER;
+		}
+		String code = language.split("[_-]", 2)[0].toLowerCase(Locale.ROOT);
+		return LANGUAGES.contains(code) ? DEFAULT_ANALYZER + "_" + code : DEFAULT_ANALYZER;
+	}
+}
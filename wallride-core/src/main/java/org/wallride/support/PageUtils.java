@@ -21,6 +21,7 @@ import org.springframework.util.CollectionUtils;
 import org.wallride.domain.Page;
 import org.wallride.domain.Post;
 import org.wallride.model.PageSearchRequest;
+import org.wallride.model.PageView;
 import org.wallride.model.TreeNode;
 import org.wallride.service.PageService;
 
@@ -34,61 +35,57 @@ public class PageUtils {
 		this.pageService = pageService;
 	}
 
-	public List<Page> getAllPages() {
+	public List<PageView> getAllPages() {
 		return getAllPages(false);
 	}
 
-	public List<Page> getAllPages(boolean includeUnpublished) {
+	public List<PageView> getAllPages(boolean includeUnpublished) {
 		PageSearchRequest request = new PageSearchRequest();
 		if (!includeUnpublished) {
 			request.setStatus(Post.Status.PUBLISHED);
 		}
-		return pageService.getPages(request).getContent();
+		return pageService.getPageViews(request).getContent();
 	}
 
-	public List<TreeNode<Page>> getNodes() {
+	public List<TreeNode<PageView>> getNodes() {
 		return getNodes(false);
 	}
 
-	public List<TreeNode<Page>> getNodes(boolean includeUnpublished) {
-		PageSearchRequest request = new PageSearchRequest();
-		if (!includeUnpublished) {
-			request.setStatus(Post.Status.PUBLISHED);
-		}
-		Collection<Page> pages = new TreeSet<>(pageService.getPages(request).getContent());
+	public List<TreeNode<PageView>> getNodes(boolean includeUnpublished) {
+		Collection<PageView> pages = new TreeSet<>(getAllPages(includeUnpublished));
 
-		List<TreeNode<Page>> rootNodes = new ArrayList<>();
-		Iterator<Page> i = pages.iterator();
+		List<TreeNode<PageView>> rootNodes = new ArrayList<>();
+		Iterator<PageView> i = pages.iterator();
 		while (i.hasNext()) {
-			Page page = i.next();
-			if (page.getParent() == null) {
-				TreeNode<Page> node = new TreeNode<>(page);
+			PageView page = i.next();
+			if (page.getParentId() == null) {
+				TreeNode<PageView> node = new TreeNode<>(page);
 				rootNodes.add(node);
 				i.remove();
 			}
 		}
 
-		for (TreeNode<Page> node : rootNodes) {
+		for (TreeNode<PageView> node : rootNodes) {
 			createNode(node, pages);
 		}
 		return rootNodes;
 	}
 
-	private void createNode(TreeNode<Page> parent, Collection<Page> pages) {
-		List<TreeNode<Page>> children = new ArrayList<>();
-		Iterator<Page> i = pages.iterator();
+	private void createNode(TreeNode<PageView> parent, Collection<PageView> pages) {
+		List<TreeNode<PageView>> children = new ArrayList<>();
+		Iterator<PageView> i = pages.iterator();
 		while (i.hasNext()) {
-			Page page = i.next();
-			TreeNode<Page> node = new TreeNode<>(page);
+			PageView page = i.next();
+			TreeNode<PageView> node = new TreeNode<>(page);
 			node.setParent(parent);
-			if (parent.getObject().equals(page.getParent())) {
+			if (Objects.equals(parent.getObject().getId(), page.getParentId())) {
 				children.add(node);
 				i.remove();
 			}
 		}
 		parent.setChildren(children);
 
-		for (TreeNode<Page> node : children) {
+		for (TreeNode<PageView> node : children) {
 			createNode(node, pages);
 		}
 	}
@@ -114,6 +111,37 @@ public class PageUtils {
 		return paths;
 	}
 
+	public Map<PageView, String> getPaths(PageView page) {
+		return getPaths(page, false);
+	}
+
+	/**
+	 * Same as {@link #getPaths(Page, boolean)}, but walks up the parents of the cached page snapshots
+	 * instead of querying the hierarchy.
+	 */
+	public Map<PageView, String> getPaths(PageView page, boolean includeUnpublished) {
+		Map<Long, PageView> pages = new HashMap<>();
+		for (PageView p : pageService.getPageViews(new PageSearchRequest(page.getLanguage())).getContent()) {
+			pages.put(p.getId(), p);
+		}
+
+		LinkedList<PageView> parents = new LinkedList<>();
+		for (PageView p = pages.getOrDefault(page.getId(), page); p != null; p = (p.getParentId() != null) ? pages.get(p.getParentId()) : null) {
+			if (includeUnpublished || p.getStatus() == Post.Status.PUBLISHED) {
+				parents.addFirst(p);
+			}
+		}
+
+		Map<PageView, String> paths = new LinkedHashMap<>();
+		StringBuilder path = new StringBuilder();
+		for (PageView p : parents) {
+			path.append("/");
+			path.append(p.getCode());
+			paths.put(p, path.toString());
+		}
+		return paths;
+	}
+
 	public List<Page> getChildren(Page page) {
 		return getChildren(page, false);
 	}
@@ -122,6 +150,20 @@ public class PageUtils {
 		return pageService.getChildPages(page, includeUnpublished);
 	}
 
+	public List<PageView> getChildren(PageView page) {
+		return getChildren(page, false);
+	}
+
+	public List<PageView> getChildren(PageView page, boolean includeUnpublished) {
+		List<PageView> children = new ArrayList<>();
+		for (PageView p : getPages(page.getLanguage(), includeUnpublished)) {
+			if (Objects.equals(page.getId(), p.getParentId())) {
+				children.add(p);
+			}
+		}
+		return children;
+	}
+
 	public List<Page> getSiblings(Page page) {
 		return getSiblings(page, false);
 	}
@@ -130,7 +172,29 @@ public class PageUtils {
 		return pageService.getSiblingPages(page, includeUnpublished);
 	}
 
-	public org.springframework.data.domain.Page<Page> search(PageSearchRequest request, int size) {
-		return pageService.getPages(request, PageRequest.of(0, size));
+	public List<PageView> getSiblings(PageView page) {
+		return getSiblings(page, false);
+	}
+
+	public List<PageView> getSiblings(PageView page, boolean includeUnpublished) {
+		List<PageView> siblings = new ArrayList<>();
+		for (PageView p : getPages(page.getLanguage(), includeUnpublished)) {
+			if (Objects.equals(page.getParentId(), p.getParentId())) {
+				siblings.add(p);
+			}
+		}
+		return siblings;
+	}
+
+	private Collection<PageView> getPages(String language, boolean includeUnpublished) {
+		PageSearchRequest request = new PageSearchRequest(language);
+		if (!includeUnpublished) {
+			request.setStatus(Post.Status.PUBLISHED);
+		}
+		return new TreeSet<>(pageService.getPageViews(request).getContent());
+	}
+
+	public org.springframework.data.domain.Page<PageView> search(PageSearchRequest request, int size) {
+		return pageService.getPageViews(request, PageRequest.of(0, size));
 	}
 }
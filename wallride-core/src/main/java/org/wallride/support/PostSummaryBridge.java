@@ -0,0 +1,151 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wallride.support;
+
+import org.apache.lucene.document.Document;
+import org.hibernate.search.bridge.FieldBridge;
+import org.hibernate.search.bridge.LuceneOptions;
+import org.jsoup.Jsoup;
+import org.springframework.util.StringUtils;
+import org.wallride.domain.Category;
+import org.wallride.domain.Post;
+import org.wallride.domain.Tag;
+import org.wallride.domain.User;
+import org.wallride.model.PostSummary;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores the fields of a {@link PostSummary} in the document of a post, so that listings can be
+ * read from the index alone. Multi-valued attributes are stored as parallel fields in the same
+ * order.
+ */
+public class PostSummaryBridge implements FieldBridge {
+
+	public static final String PREFIX = "summary.";
+
+	public static final int EXCERPT_LENGTH = 200;
+
+	private static final String CODE = PREFIX + "code";
+	private static final String LANGUAGE = PREFIX + "language";
+	private static final String TITLE = PREFIX + "title";
+	private static final String EXCERPT = PREFIX + "excerpt";
+	private static final String DATE = PREFIX + "date";
+	private static final String STATUS = PREFIX + "status";
+	private static final String VIEWS = PREFIX + "views";
+	private static final String COVER = PREFIX + "cover";
+	private static final String AUTHOR_ID = PREFIX + "author.id";
+	private static final String AUTHOR_LOGIN_ID = PREFIX + "author.loginId";
+	private static final String AUTHOR_NAME = PREFIX + "author.name";
+	private static final String CATEGORY_ID = PREFIX + "category.id";
+	private static final String CATEGORY_CODE = PREFIX + "category.code";
+	private static final String CATEGORY_NAME = PREFIX + "category.name";
+	private static final String TAG_ID = PREFIX + "tag.id";
+	private static final String TAG_NAME = PREFIX + "tag.name";
+
+	@Override
+	public void set(String name, Object value, Document document, LuceneOptions luceneOptions) {
+		Post post = (Post) value;
+		add(CODE, post.getCode(), document, luceneOptions);
+		add(LANGUAGE, post.getLanguage(), document, luceneOptions);
+		add(TITLE, post.getTitle(), document, luceneOptions);
+		add(EXCERPT, excerpt(post.getBody()), document, luceneOptions);
+		add(DATE, post.getDate(), document, luceneOptions);
+		add(STATUS, post.getStatus(), document, luceneOptions);
+		add(VIEWS, post.getViews(), document, luceneOptions);
+		add(COVER, (post.getCover() != null) ? post.getCover().getId() : null, document, luceneOptions);
+
+		User author = post.getAuthor();
+		if (author != null) {
+			add(AUTHOR_ID, author.getId(), document, luceneOptions);
+			add(AUTHOR_LOGIN_ID, author.getLoginId(), document, luceneOptions);
+			add(AUTHOR_NAME, author.toString(), document, luceneOptions);
+		}
+		for (Category category : post.getCategories()) {
+			luceneOptions.addFieldToDocument(CATEGORY_ID, String.valueOf(category.getId()), document);
+			luceneOptions.addFieldToDocument(CATEGORY_CODE, nullToEmpty(category.getCode()), document);
+			luceneOptions.addFieldToDocument(CATEGORY_NAME, nullToEmpty(category.getName()), document);
+		}
+		for (Tag tag : post.getTags()) {
+			luceneOptions.addFieldToDocument(TAG_ID, String.valueOf(tag.getId()), document);
+			luceneOptions.addFieldToDocument(TAG_NAME, nullToEmpty(tag.getName()), document);
+		}
+	}
+
+	/**
+	 * Reads the summary of the post stored in the given document.
+	 */
+	public static PostSummary read(long id, Document document) {
+		PostSummary.Author author = null;
+		if (document.get(AUTHOR_ID) != null) {
+			author = new PostSummary.Author(Long.parseLong(document.get(AUTHOR_ID)), document.get(AUTHOR_LOGIN_ID), document.get(AUTHOR_NAME));
+		}
+
+		String[] categoryIds = document.getValues(CATEGORY_ID);
+		String[] categoryCodes = document.getValues(CATEGORY_CODE);
+		String[] categoryNames = document.getValues(CATEGORY_NAME);
+		List<PostSummary.Category> categories = new ArrayList<>(categoryIds.length);
+		for (int i = 0; i < categoryIds.length; i++) {
+			categories.add(new PostSummary.Category(Long.parseLong(categoryIds[i]), categoryCodes[i], categoryNames[i]));
+		}
+
+		String[] tagIds = document.getValues(TAG_ID);
+		String[] tagNames = document.getValues(TAG_NAME);
+		List<PostSummary.Tag> tags = new ArrayList<>(tagIds.length);
+		for (int i = 0; i < tagIds.length; i++) {
+			tags.add(new PostSummary.Tag(Long.parseLong(tagIds[i]), tagNames[i]));
+		}
+
+		String date = document.get(DATE);
+		String status = document.get(STATUS);
+		String views = document.get(VIEWS);
+		return new PostSummary(
+				id,
+				document.get(CODE),
+				document.get(LANGUAGE),
+				document.get(TITLE),
+				document.get(EXCERPT),
+				(date != null) ? LocalDateTime.parse(date) : null,
+				(status != null) ? Post.Status.valueOf(status) : null,
+				(views != null) ? Long.parseLong(views) : 0,
+				document.get(COVER),
+				author,
+				categories,
+				tags);
+	}
+
+	private static String excerpt(String body) {
+		if (!StringUtils.hasText(body)) {
+			return null;
+		}
+		String text = Jsoup.parse(body).text();
+		return (text.length() <= EXCERPT_LENGTH) ? text : text.substring(0, EXCERPT_LENGTH);
+	}
+
+	private static String nullToEmpty(String value) {
+		return (value != null) ? value : "";
+	}
+
+	private static void add(String name, Object value, Document document, LuceneOptions luceneOptions) {
+		if (value != null) {
+			luceneOptions.addFieldToDocument(name, value.toString(), document);
+		}
+	}
+}
@@ -16,6 +16,7 @@
 
 package org.wallride.support;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -26,13 +27,24 @@ import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
 import org.wallride.domain.Article;
 import org.wallride.domain.Page;
+import org.wallride.domain.Post;
+import org.wallride.model.ArticleView;
+import org.wallride.model.PageView;
+import org.wallride.service.PostService;
 
 public class PostUtils {
 
 	private PageUtils pageUtils;
 
-	public PostUtils(PageUtils pageUtils) {
+	private PostService postService;
+
+	public PostUtils(PageUtils pageUtils, PostService postService) {
 		this.pageUtils = pageUtils;
+		this.postService = postService;
+	}
+
+	public List<Post> related(long id, String language, int size) {
+		return postService.getRelatedPosts(id, language, size);
 	}
 
 	public String link(Article article) {
@@ -75,13 +87,57 @@ public class PostUtils {
 		return path(builder, page, encode);
 	}
 
+	public String link(ArticleView article) {
+		UriComponentsBuilder builder = ServletUriComponentsBuilder.fromCurrentContextPath();
+		return path(builder, article.getDate(), article.getCode(), true);
+	}
+
+	public String link(ArticleView article, boolean encode) {
+		UriComponentsBuilder builder = ServletUriComponentsBuilder.fromCurrentContextPath();
+		return path(builder, article.getDate(), article.getCode(), encode);
+	}
+
+	public String link(PageView page) {
+		UriComponentsBuilder builder = ServletUriComponentsBuilder.fromCurrentContextPath();
+		return path(builder, page, true);
+	}
+
+	public String link(PageView page, boolean encode) {
+		UriComponentsBuilder builder = ServletUriComponentsBuilder.fromCurrentContextPath();
+		return path(builder, page, encode);
+	}
+
+	public String path(ArticleView article) {
+		UriComponentsBuilder builder = UriComponentsBuilder.fromPath("");
+		return path(builder, article.getDate(), article.getCode(), true);
+	}
+
+	public String path(ArticleView article, boolean encode) {
+		UriComponentsBuilder builder = UriComponentsBuilder.fromPath("");
+		return path(builder, article.getDate(), article.getCode(), encode);
+	}
+
+	public String path(PageView page) {
+		UriComponentsBuilder builder = UriComponentsBuilder.fromPath("");
+		return path(builder, page, true);
+	}
+
+	public String path(PageView page, boolean encode) {
+		UriComponentsBuilder builder = UriComponentsBuilder.fromPath("");
+		return path(builder, page, encode);
+	}
+
 	private String path(UriComponentsBuilder builder, Article article, boolean encode) {
+		return path(builder, article.getDate(), article.getCode(), encode);
+	}
+
+	private String path(UriComponentsBuilder builder, LocalDateTime date, String code, boolean encode) {
 		Map<String, Object> params = new HashMap<>();
 		builder.path("/{year}/{month}/{day}/{code}");
-		params.put("year", String.format("%04d", article.getDate().getYear()));
-		params.put("month", String.format("%02d", article.getDate().getMonth().getValue()));
-		params.put("day", String.format("%02d", article.getDate().getDayOfMonth()));
-		params.put("code", article.getCode());
+		params.put("year", String.format("%04d", date.getYear()));
+		params.put("month", String.format("%02d", date.getMonth().getValue()));
+		params.put("day", String.format("%02d", date.getDayOfMonth()));
+		params.put("code", code);
 
 		UriComponents components = builder.buildAndExpand(params);
 		if (encode) {
@@ -91,12 +147,21 @@ public class PostUtils {
 	}
 
 	private String path(UriComponentsBuilder builder, Page page, boolean encode) {
-		Map<String, Object> params = new HashMap<>();
-
 		List<String> codes = new LinkedList<>();
 		Map<Page, String> paths = pageUtils.getPaths(page);
 		paths.keySet().stream().map(p -> p.getCode()).forEach(codes::add);
+		return path(builder, codes, encode);
+	}
+
+	private String path(UriComponentsBuilder builder, PageView page, boolean encode) {
+		List<String> codes = new LinkedList<>();
+		Map<PageView, String> paths = pageUtils.getPaths(page);
+		paths.keySet().stream().map(p -> p.getCode()).forEach(codes::add);
+		return path(builder, codes, encode);
+	}
 
+	private String path(UriComponentsBuilder builder, List<String> codes, boolean encode) {
+		Map<String, Object> params = new HashMap<>();
 		for (int i = 0; i < codes.size(); i++) {
 			String key = "code" + i;
 			builder.path("/{" + key + "}");
@@ -0,0 +1,585 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wallride.support;
+
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.hibernate.Session;
+import org.hibernate.search.engine.ProjectionConstants;
+import org.hibernate.search.jpa.FullTextEntityManager;
+import org.hibernate.search.jpa.FullTextQuery;
+import org.hibernate.search.jpa.Search;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.WritableResource;
+import org.wallride.autoconfigure.AsyncBatchingIndexBackend;
+import org.wallride.autoconfigure.WallRideProperties;
+import org.wallride.model.ReIndexProgress;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Query;
+import javax.persistence.metamodel.EntityType;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Rebuilds the search indexes of all the indexed entities.
+ * <p>
+ * For each type an id loader reads the ids in ascending order and hands them in batches to a pool
+ * of entity loaders, each of which loads and indexes its batch in its own transaction. The highest
+ * id below which every batch is indexed is saved as a checkpoint, so that a run interrupted by a
+ * crash or a shutdown can be resumed from there instead of starting over. A batch only counts as
+ * indexed once its work is committed to the index, not just queued.
+ * <p>
+ * A delta run only re-indexes the entities whose {@code updatedAt} is after the watermark left by
+ * the previous run, and purges the documents of deleted entities, to repair an index which
+ * missed some writes.
+ */
+public class ReIndexer {
+
+	private static final String DONE = "done";
+
+	private static Logger logger = LoggerFactory.getLogger(ReIndexer.class);
+
+	private final EntityManagerFactory entityManagerFactory;
+
+	private final WallRideProperties.ReIndex settings;
+
+	private final Resource checkpointResource;
+
+	private final Resource watermarkResource;
+
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	private final Properties checkpoints = new Properties();
+
+	private final Properties watermarks = new Properties();
+
+	private volatile ReIndexProgress progress;
+
+	/**
+	 * @param checkpointResource where the progress of a full run is saved
+	 * @param watermarkResource where the time of the last run is saved for each type
+	 */
+	public ReIndexer(EntityManagerFactory entityManagerFactory, WallRideProperties.ReIndex settings, Resource checkpointResource, Resource watermarkResource) {
+		this.entityManagerFactory = entityManagerFactory;
+		this.settings = settings;
+		this.checkpointResource = checkpointResource;
+		this.watermarkResource = watermarkResource;
+	}
+
+	/**
+	 * @return the progress of the current or last run since startup, or {@code null}
+	 */
+	public ReIndexProgress getProgress() {
+		return progress;
+	}
+
+	public boolean isRunning() {
+		return running.get();
+	}
+
+	/**
+	 * @return whether an interrupted run left a checkpoint to resume from
+	 */
+	public boolean isResumable() {
+		return !running.get() && checkpointResource.exists();
+	}
+
+	/**
+	 * Starts a full run in the background.
+	 *
+	 * @param resume whether to continue from the saved checkpoint rather than from scratch
+	 * @return the progress of the run
+	 * @throws IllegalStateException if a run is already in progress
+	 */
+	public ReIndexProgress start(boolean resume) {
+		if (!running.compareAndSet(false, true)) {
+			throw new IllegalStateException("Re-index is already running");
+		}
+		synchronized (checkpoints) {
+			checkpoints.clear();
+			if (resume) {
+				load(checkpoints, checkpointResource);
+			}
+			else {
+				save(checkpoints, checkpointResource);
+			}
+		}
+		ReIndexProgress progress = new ReIndexProgress(resume ? ReIndexProgress.Mode.RESUMED : ReIndexProgress.Mode.FULL);
+		this.progress = progress;
+		Thread coordinator = new Thread(() -> run(progress), "re-index");
+		coordinator.setDaemon(true);
+		coordinator.start();
+		return progress;
+	}
+
+	/**
+	 * Starts a delta run in the background, which re-indexes the entities updated since the last
+	 * run and purges the documents of deleted entities.
+	 *
+	 * @return the progress of the run
+	 * @throws IllegalStateException if a run is already in progress
+	 */
+	public ReIndexProgress startDelta() {
+		if (!running.compareAndSet(false, true)) {
+			throw new IllegalStateException("Re-index is already running");
+		}
+		ReIndexProgress progress = new ReIndexProgress(ReIndexProgress.Mode.DELTA);
+		this.progress = progress;
+		Thread coordinator = new Thread(() -> runDelta(progress), "re-index");
+		coordinator.setDaemon(true);
+		coordinator.start();
+		return progress;
+	}
+
+	private void run(ReIndexProgress progress) {
+		logger.info("Re-Index started");
+		LocalDateTime startedAt = LocalDateTime.now();
+		ExecutorService typeExecutor = Executors.newFixedThreadPool(settings.getTypesInParallel(), threadFactory("re-index-type-"));
+		ExecutorService loaderExecutor = Executors.newFixedThreadPool(settings.getThreads(), threadFactory("re-index-loader-"));
+		try {
+			List<EntityType<?>> types = rootTypes();
+			for (EntityType<?> type : types) {
+				String checkpoint = getCheckpoint(type);
+				if (!DONE.equals(checkpoint)) {
+					progress.addTotal(count(type, (checkpoint != null) ? parseId(type, checkpoint) : null, null));
+				}
+			}
+
+			List<Future<?>> futures = new ArrayList<>();
+			for (EntityType<?> type : types) {
+				futures.add(typeExecutor.submit(() -> {
+					indexAll(type, loaderExecutor, progress);
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+
+			if (checkpointResource.isFile()) {
+				checkpointResource.getFile().delete();
+			}
+			// Anything updated during the run is caught by the next delta run
+			for (EntityType<?> type : types) {
+				setWatermark(type, startedAt);
+			}
+			progress.complete();
+			logger.info("Re-Index finished: {} entities in {}s", progress.getIndexed(), progress.getElapsedSeconds());
+		}
+		catch (Exception e) {
+			Throwable cause = (e instanceof ExecutionException) ? e.getCause() : e;
+			progress.fail(cause);
+			logger.error("Re-Index failed, it can be resumed from the last checkpoint", cause);
+		}
+		finally {
+			typeExecutor.shutdownNow();
+			loaderExecutor.shutdownNow();
+			running.set(false);
+		}
+	}
+
+	private void runDelta(ReIndexProgress progress) {
+		logger.info("Delta Re-Index started");
+		ExecutorService loaderExecutor = Executors.newFixedThreadPool(settings.getThreads(), threadFactory("re-index-loader-"));
+		try {
+			synchronized (watermarks) {
+				watermarks.clear();
+				load(watermarks, watermarkResource);
+			}
+			for (EntityType<?> type : rootTypes()) {
+				// Entities are stamped by the application clock, so the window overlaps the last one
+				LocalDateTime startedAt = LocalDateTime.now().minus(settings.getDeltaOverlap());
+				LocalDateTime since = getWatermark(type);
+				if (since != null) {
+					progress.addTotal(count(type, null, since));
+					index(type, null, since, loaderExecutor, progress, null);
+				}
+				else {
+					logger.info("No delta watermark for {} yet, only deletions are reconciled", type.getName());
+				}
+				reconcileDeletions(type, progress);
+				setWatermark(type, startedAt);
+			}
+			progress.complete();
+			logger.info("Delta Re-Index finished: {} entities re-indexed, {} purged in {}s", progress.getIndexed(), progress.getPurged(), progress.getElapsedSeconds());
+		}
+		catch (Exception e) {
+			progress.fail(e);
+			logger.error("Delta Re-Index failed", e);
+		}
+		finally {
+			loaderExecutor.shutdownNow();
+			running.set(false);
+		}
+	}
+
+	private void indexAll(EntityType<?> type, ExecutorService loaderExecutor, ReIndexProgress progress) throws Exception {
+		String checkpoint = getCheckpoint(type);
+		if (DONE.equals(checkpoint)) {
+			return;
+		}
+		if (checkpoint == null) {
+			purge(type);
+		}
+		Object lastId = (checkpoint != null) ? parseId(type, checkpoint) : null;
+		index(type, lastId, null, loaderExecutor, progress, new Watermark(type));
+		setCheckpoint(type, DONE);
+		logger.info("Re-Index of {} finished", type.getName());
+	}
+
+	/**
+	 * Indexes the entities of the given type with an id greater than {@code lastId} and updated
+	 * after {@code since}, when they are set.
+	 */
+	private void index(EntityType<?> type, Object lastId, LocalDateTime since, ExecutorService loaderExecutor, ReIndexProgress progress, Watermark watermark) throws Exception {
+		String idName = idName(type);
+		int permits = settings.getThreads() * 2;
+		Semaphore inFlight = new Semaphore(permits);
+		AtomicReference<Exception> failure = new AtomicReference<>();
+
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		try {
+			while (failure.get() == null) {
+				Query query = entityManager.createQuery(
+						"select e." + idName + " from " + type.getName() + " e"
+								+ where(idName, lastId, since)
+								+ " order by e." + idName);
+				List<?> ids = bind(query, lastId, since).setMaxResults(settings.getIdFetchSize()).getResultList();
+				if (ids.isEmpty()) {
+					break;
+				}
+				for (int i = 0; i < ids.size(); i += settings.getBatchSize()) {
+					List<?> batch = new ArrayList<>(ids.subList(i, Math.min(i + settings.getBatchSize(), ids.size())));
+					long sequence = (watermark != null) ? watermark.issue() : 0;
+					inFlight.acquire();
+					loaderExecutor.execute(() -> {
+						try {
+							load(type, idName, batch);
+							progress.addIndexed(batch.size());
+							if (watermark != null) {
+								watermark.completed(sequence, batch.get(batch.size() - 1));
+							}
+						}
+						catch (Exception e) {
+							failure.compareAndSet(null, e);
+						}
+						finally {
+							inFlight.release();
+						}
+					});
+				}
+				lastId = ids.get(ids.size() - 1);
+				entityManager.clear();
+			}
+		}
+		finally {
+			entityManager.close();
+		}
+
+		inFlight.acquire(permits);
+		if (failure.get() != null) {
+			throw failure.get();
+		}
+	}
+
+	/**
+	 * Purges the documents whose entity no longer exists, checking the ids of all the documents of the
+	 * type against the database in chunks.
+	 */
+	private void reconcileDeletions(EntityType<?> type, ReIndexProgress progress) {
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		try {
+			FullTextEntityManager fullTextEntityManager = Search.getFullTextEntityManager(entityManager);
+			FullTextQuery indexQuery = fullTextEntityManager.createFullTextQuery(new MatchAllDocsQuery(), type.getJavaType())
+					.setProjection(ProjectionConstants.ID, ProjectionConstants.OBJECT_CLASS);
+			@SuppressWarnings("unchecked")
+			List<Object[]> documents = indexQuery.getResultList();
+
+			String idName = idName(type);
+			List<Object[]> deleted = new ArrayList<>();
+			for (int i = 0; i < documents.size(); i += settings.getIdFetchSize()) {
+				List<Object[]> chunk = documents.subList(i, Math.min(i + settings.getIdFetchSize(), documents.size()));
+				Set<Object> existing = new HashSet<>(entityManager.createQuery("select e." + idName + " from " + type.getName() + " e where e." + idName + " in (:ids)")
+						.setParameter("ids", chunk.stream().map(document -> document[0]).collect(Collectors.toList()))
+						.getResultList());
+				chunk.stream().filter(document -> !existing.contains(document[0])).forEach(deleted::add);
+			}
+			if (deleted.isEmpty()) {
+				return;
+			}
+
+			entityManager.getTransaction().begin();
+			for (Object[] document : deleted) {
+				fullTextEntityManager.purge((Class<?>) document[1], (Serializable) document[0]);
+			}
+			fullTextEntityManager.flushToIndexes();
+			entityManager.getTransaction().commit();
+			AsyncBatchingIndexBackend.awaitQueuedWork();
+			progress.addPurged(deleted.size());
+			logger.info("Purged {} deleted entities of {} from the index", deleted.size(), type.getName());
+		}
+		finally {
+			entityManager.close();
+		}
+	}
+
+	private void load(EntityType<?> type, String idName, List<?> ids) {
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		try {
+			Session session = entityManager.unwrap(Session.class);
+			session.setHibernateFlushMode(FlushMode.MANUAL);
+			session.setCacheMode(CacheMode.IGNORE);
+			FullTextEntityManager fullTextEntityManager = Search.getFullTextEntityManager(entityManager);
+
+			entityManager.getTransaction().begin();
+			List<?> entities = entityManager.createQuery("from " + type.getName() + " e where e." + idName + " in (:ids)")
+					.setParameter("ids", ids)
+					.getResultList();
+			for (Object entity : entities) {
+				fullTextEntityManager.index(entity);
+			}
+			fullTextEntityManager.flushToIndexes();
+			entityManager.getTransaction().commit();
+			AsyncBatchingIndexBackend.awaitQueuedWork();
+		}
+		catch (RuntimeException e) {
+			if (entityManager.getTransaction().isActive()) {
+				entityManager.getTransaction().rollback();
+			}
+			throw e;
+		}
+		finally {
+			entityManager.close();
+		}
+	}
+
+	private void purge(EntityType<?> type) {
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		try {
+			FullTextEntityManager fullTextEntityManager = Search.getFullTextEntityManager(entityManager);
+			entityManager.getTransaction().begin();
+			fullTextEntityManager.purgeAll(type.getJavaType());
+			fullTextEntityManager.flushToIndexes();
+			entityManager.getTransaction().commit();
+			AsyncBatchingIndexBackend.awaitQueuedWork();
+		}
+		finally {
+			entityManager.close();
+		}
+	}
+
+	private long count(EntityType<?> type, Object lastId, LocalDateTime since) {
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		try {
+			Query query = entityManager.createQuery("select count(e) from " + type.getName() + " e" + where(idName(type), lastId, since));
+			return (Long) bind(query, lastId, since).getSingleResult();
+		}
+		finally {
+			entityManager.close();
+		}
+	}
+
+	private static String where(String idName, Object lastId, LocalDateTime since) {
+		List<String> conditions = new ArrayList<>();
+		if (lastId != null) {
+			conditions.add("e." + idName + " > :lastId");
+		}
+		if (since != null) {
+			conditions.add("e.updatedAt > :since");
+		}
+		return conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+	}
+
+	private static Query bind(Query query, Object lastId, LocalDateTime since) {
+		if (lastId != null) {
+			query.setParameter("lastId", lastId);
+		}
+		if (since != null) {
+			query.setParameter("since", since);
+		}
+		return query;
+	}
+
+	/**
+	 * Returns the indexed types without those whose super type is indexed, since they are
+	 * loaded, indexed and purged together with it.
+	 */
+	private List<EntityType<?>> rootTypes() {
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		Set<Class<?>> indexedTypes;
+		try {
+			indexedTypes = Search.getFullTextEntityManager(entityManager).getSearchFactory().getIndexedTypes();
+		}
+		finally {
+			entityManager.close();
+		}
+		return indexedTypes.stream()
+				.filter(type -> indexedTypes.stream().noneMatch(other -> other != type && other.isAssignableFrom(type)))
+				.sorted(Comparator.comparing(Class::getName))
+				.map(type -> entityManagerFactory.getMetamodel().entity(type))
+				.collect(Collectors.toList());
+	}
+
+	private String idName(EntityType<?> type) {
+		return type.getId(type.getIdType().getJavaType()).getName();
+	}
+
+	private Object parseId(EntityType<?> type, String value) {
+		Class<?> idType = type.getIdType().getJavaType();
+		if (idType == Long.class || idType == long.class) {
+			return Long.valueOf(value);
+		}
+		if (idType == Integer.class || idType == int.class) {
+			return Integer.valueOf(value);
+		}
+		return value;
+	}
+
+	private String getCheckpoint(EntityType<?> type) {
+		synchronized (checkpoints) {
+			return checkpoints.getProperty(type.getJavaType().getName());
+		}
+	}
+
+	private void setCheckpoint(EntityType<?> type, String value) {
+		synchronized (checkpoints) {
+			checkpoints.setProperty(type.getJavaType().getName(), value);
+			save(checkpoints, checkpointResource);
+		}
+	}
+
+	private LocalDateTime getWatermark(EntityType<?> type) {
+		synchronized (watermarks) {
+			if (watermarks.isEmpty()) {
+				load(watermarks, watermarkResource);
+			}
+			String value = watermarks.getProperty(type.getJavaType().getName());
+			return (value != null) ? LocalDateTime.parse(value) : null;
+		}
+	}
+
+	private void setWatermark(EntityType<?> type, LocalDateTime value) {
+		synchronized (watermarks) {
+			if (watermarks.isEmpty()) {
+				load(watermarks, watermarkResource);
+			}
+			watermarks.setProperty(type.getJavaType().getName(), value.toString());
+			save(watermarks, watermarkResource);
+		}
+	}
+
+	private static void load(Properties properties, Resource resource) {
+		if (!resource.exists()) {
+			return;
+		}
+		try (InputStream in = resource.getInputStream()) {
+			properties.load(in);
+		}
+		catch (IOException e) {
+			logger.warn("Could not read {}", resource, e);
+			properties.clear();
+		}
+	}
+
+	private static void save(Properties properties, Resource resource) {
+		if (!(resource instanceof WritableResource)) {
+			return;
+		}
+		try {
+			if (resource.isFile()) {
+				resource.getFile().getParentFile().mkdirs();
+			}
+			try (OutputStream out = ((WritableResource) resource).getOutputStream()) {
+				properties.store(out, null);
+			}
+		}
+		catch (IOException e) {
+			logger.warn("Could not save {}", resource, e);
+		}
+	}
+
+	private static ThreadFactory threadFactory(String prefix) {
+		AtomicInteger count = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * Tracks the batches of one type, which complete out of order, to checkpoint the last id of
+	 * the longest run of completed batches.
+	 */
+	private class Watermark {
+
+		private final EntityType<?> type;
+
+		private final Map<Long, Object> completed = new TreeMap<>();
+
+		private long issued;
+
+		private long next;
+
+		Watermark(EntityType<?> type) {
+			this.type = type;
+		}
+
+		synchronized long issue() {
+			return issued++;
+		}
+
+		synchronized void completed(long sequence, Object lastId) {
+			completed.put(sequence, lastId);
+			Object checkpoint = null;
+			while (completed.containsKey(next)) {
+				checkpoint = completed.remove(next);
+				next++;
+			}
+			if (checkpoint != null) {
+				setCheckpoint(type, checkpoint.toString());
+			}
+		}
+	}
+}
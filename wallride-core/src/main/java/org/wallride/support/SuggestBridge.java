@@ -0,0 +1,78 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wallride.support;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.StoredField;
+import org.hibernate.search.bridge.LuceneOptions;
+import org.hibernate.search.bridge.MetadataProvidingFieldBridge;
+import org.hibernate.search.bridge.spi.FieldMetadataBuilder;
+import org.hibernate.search.bridge.spi.FieldType;
+import org.springframework.util.StringUtils;
+import org.wallride.domain.Post;
+import org.wallride.domain.Tag;
+import org.wallride.domain.User;
+
+/**
+ * Indexes the words a tag, a post or a user is looked up by while typing, with an analyzer
+ * producing their prefixes, and stores the label to show for it, so that suggestions are read
+ * from the index alone. The label is declared as a field of its own, so that it can be projected
+ * without loading the other stored fields of the document.
+ */
+public class SuggestBridge implements MetadataProvidingFieldBridge {
+
+	public static final String FIELD = "suggest";
+
+	public static final String LABEL = FIELD + ".label";
+
+	@Override
+	public void configureFieldMetadata(String name, FieldMetadataBuilder builder) {
+		builder.field(LABEL, FieldType.STRING);
+	}
+
+	@Override
+	public void set(String name, Object value, Document document, LuceneOptions luceneOptions) {
+		String label;
+		if (value instanceof Tag) {
+			label = ((Tag) value).getName();
+			add(name, label, document, luceneOptions);
+		}
+		else if (value instanceof Post) {
+			label = ((Post) value).getTitle();
+			add(name, label, document, luceneOptions);
+		}
+		else if (value instanceof User) {
+			User user = (User) value;
+			label = user.toString();
+			add(name, label, document, luceneOptions);
+			add(name, user.getLoginId(), document, luceneOptions);
+			add(name, user.getNickname(), document, luceneOptions);
+		}
+		else {
+			return;
+		}
+		if (StringUtils.hasText(label)) {
+			document.add(new StoredField(LABEL, label));
+		}
+	}
+
+	private static void add(String name, String text, Document document, LuceneOptions luceneOptions) {
+		if (StringUtils.hasText(text)) {
+			luceneOptions.addFieldToDocument(name, text, document);
+		}
+	}
+}
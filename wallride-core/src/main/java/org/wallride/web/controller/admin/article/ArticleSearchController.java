@@ -31,8 +31,8 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
-import org.wallride.domain.Article;
 import org.wallride.domain.Post;
+import org.wallride.model.PostSummary;
 import org.wallride.service.ArticleService;
 import org.wallride.web.support.ControllerUtils;
 import org.wallride.web.support.Pagination;
@@ -91,7 +91,7 @@ public class ArticleSearchController {
             @PageableDefault(50) Pageable pageable,
             Model model,
             HttpServletRequest servletRequest) throws UnsupportedEncodingException {
-        Page<Article> articles = articleService.getArticles(form.toArticleSearchRequest(), pageable);
+        Page<PostSummary> articles = articleService.searchSummaries(form.toArticleSearchRequest(), pageable);
 
         model.addAttribute("articles", articles);
         model.addAttribute("pageable", pageable);
@@ -16,7 +16,7 @@
 
 package org.wallride.web.controller.admin.page;
 
-import org.wallride.domain.Page;
+import org.wallride.model.PageView;
 import org.wallride.model.TreeNode;
 
 import java.util.ArrayList;
@@ -27,16 +27,16 @@ import java.util.Map;
 @SuppressWarnings("serial")
 public class PageIndexModel extends ArrayList<Map<String, Object>> {
 
-	public PageIndexModel(List<TreeNode<Page>> nodes) {
+	public PageIndexModel(List<TreeNode<PageView>> nodes) {
 		List<Map<String, Object>> result = new ArrayList<Map<String, Object>>();
 
-		for (TreeNode<Page> node : nodes) {
+		for (TreeNode<PageView> node : nodes) {
 			result.add(createValue(node));
 		}
 		this.addAll(result);
 	}
 
-	private Map<String, Object> createValue(TreeNode<Page> node) {
+	private Map<String, Object> createValue(TreeNode<PageView> node) {
 		Map<String, Object> parent = new LinkedHashMap<>();
 		parent.put("id", node.getObject().getId());
 		parent.put("code", node.getObject().getCode());
@@ -44,7 +44,7 @@ public class PageIndexModel extends ArrayList<Map<String, Object>> {
 //		parent.put("articleCount", page.getArticleCount());
 
 		List<Map<String, Object>> children = new ArrayList<Map<String, Object>>();
-		for (TreeNode<Page> child : node.getChildren()) {
+		for (TreeNode<PageView> child : node.getChildren()) {
 			children.add(createValue(child));
 		}
 		parent.put("children", children);
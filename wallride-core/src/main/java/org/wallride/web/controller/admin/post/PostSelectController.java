@@ -16,15 +16,13 @@
 
 package org.wallride.web.controller.admin.post;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.wallride.domain.Post;
-import org.wallride.model.PostSearchRequest;
+import org.wallride.model.Suggestion;
 import org.wallride.service.PostService;
 import org.wallride.web.support.DomainObjectSelect2Model;
 
@@ -44,17 +42,12 @@ public class PostSelectController {
 	public @ResponseBody List<DomainObjectSelect2Model<?>> select(
 			@PathVariable String language,
 			@RequestParam(required=false) String keyword) {
-		PostSearchRequest request = new PostSearchRequest(language)
-				.withStatus(Post.Status.PUBLISHED)
-				.withKeyword(keyword);
-		Page<Post> posts = postService.getPosts(request, PageRequest.of(0, 30));
+		List<Suggestion> posts = postService.suggestPosts(language, keyword, 30);
 
 		List<DomainObjectSelect2Model<?>> results = new ArrayList<>();
-		if (posts.hasContent()) {
-			for (Post post : posts) {
-				DomainObjectSelect2Model<?> model = new DomainObjectSelect2Model<>(post);
-				results.add(model);
-			}
+		for (Suggestion post : posts) {
+			DomainObjectSelect2Model<?> model = new DomainObjectSelect2Model<>(post.getId(), post.getLabel());
+			results.add(model);
 		}
 		return results;
 	}
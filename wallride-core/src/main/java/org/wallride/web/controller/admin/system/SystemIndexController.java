@@ -31,12 +31,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.context.support.WebApplicationContextUtils;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.thymeleaf.spring5.SpringTemplateEngine;
 import org.wallride.exception.ServiceException;
+import org.wallride.model.ReIndexProgress;
 import org.wallride.service.MediaService;
 import org.wallride.service.SystemService;
 import org.wallride.web.support.DefaultModelAttributeInterceptor;
@@ -59,24 +61,47 @@ public class SystemIndexController {
 	@RequestMapping(method = RequestMethod.GET)
 	public String index(Model model) {
 		model.addAttribute("system", System.getProperties());
+		model.addAttribute("reIndexProgress", systemService.getReIndexProgress());
+		model.addAttribute("reIndexResumable", systemService.isReIndexResumable());
 		return "system/index";
 	}
 
-	@Transactional(propagation = Propagation.REQUIRED)
 	@RequestMapping(value = "/re-index", method = RequestMethod.POST)
 	public String reIndex(
 			@PathVariable String language,
+			@RequestParam(defaultValue = "false") boolean resume,
 			RedirectAttributes redirectAttributes) throws Exception {
-//		FullTextEntityManager fullTextEntityManager = Search.getFullTextEntityManager(entityManager);
-//		fullTextEntityManager.createIndexer().start();
-
-		systemService.reIndex();
+		try {
+			systemService.reIndex(resume);
+			redirectAttributes.addFlashAttribute("reIndex", true);
+		}
+		catch (IllegalStateException e) {
+			logger.info("Re-Index is already running");
+		}
+		redirectAttributes.addAttribute("language", language);
+		return "redirect:/_admin/{language}/system";
+	}
 
-		redirectAttributes.addFlashAttribute("reIndex", true);
+	@RequestMapping(value = "/re-index/delta", method = RequestMethod.POST)
+	public String deltaReIndex(
+			@PathVariable String language,
+			RedirectAttributes redirectAttributes) throws Exception {
+		try {
+			systemService.deltaReIndex();
+			redirectAttributes.addFlashAttribute("reIndex", true);
+		}
+		catch (IllegalStateException e) {
+			logger.info("Re-Index is already running");
+		}
 		redirectAttributes.addAttribute("language", language);
 		return "redirect:/_admin/{language}/system";
 	}
 
+	@RequestMapping(value = "/re-index", method = RequestMethod.GET)
+	public @ResponseBody ReIndexProgress reIndexProgress() {
+		return systemService.getReIndexProgress();
+	}
+
 	@Transactional(propagation = Propagation.REQUIRED)
 	@RequestMapping(value = "/clear-cache", method = RequestMethod.POST)
 	public String clearCache(
@@ -16,10 +16,10 @@
 
 package org.wallride.web.controller.admin.tag;
 
-import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 import org.wallride.domain.Tag;
+import org.wallride.model.Suggestion;
 import org.wallride.service.TagService;
 import org.wallride.web.support.DomainObjectSelect2Model;
 
@@ -39,16 +39,12 @@ public class TagSelect2Controller {
 	public @ResponseBody List<DomainObjectSelect2Model<?>> select(
 			@PathVariable String language,
 			@RequestParam(required=false) String keyword) {
-		TagSearchForm form = new TagSearchForm();
-		form.setKeyword(keyword);
-		Page<Tag> tags = tagService.getTags(form.toTagSearchRequest());
+		List<Suggestion> tags = tagService.suggestTags(language, keyword, 30);
 
 		List<DomainObjectSelect2Model<?>> results = new ArrayList<>();
-		if (tags.hasContent()) {
-			for (Tag tag : tags) {
-				DomainObjectSelect2Model<?> model = new DomainObjectSelect2Model<>(tag.getId(), tag.getName());
-				results.add(model);
-			}
+		for (Suggestion tag : tags) {
+			DomainObjectSelect2Model<?> model = new DomainObjectSelect2Model<>(tag.getId(), tag.getLabel());
+			results.add(model);
 		}
 		return results;
 	}
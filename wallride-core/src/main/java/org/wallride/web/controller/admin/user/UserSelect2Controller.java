@@ -16,10 +16,10 @@
 
 package org.wallride.web.controller.admin.user;
 
-import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 import org.wallride.domain.User;
+import org.wallride.model.Suggestion;
 import org.wallride.service.UserService;
 import org.wallride.web.support.DomainObjectSelect2Model;
 
@@ -39,16 +39,12 @@ public class UserSelect2Controller {
 	public @ResponseBody List<DomainObjectSelect2Model<?>> select(
 			@PathVariable String language,
 			@RequestParam(required=false) String keyword) {
-		UserSearchForm form = new UserSearchForm();
-		form.setKeyword(keyword);
-		Page<User> users = userService.getUsers(form.toUserSearchRequest());
+		List<Suggestion> users = userService.suggestUsers(keyword, 30);
 
 		List<DomainObjectSelect2Model<?>> results = new ArrayList<>();
-		if (users.hasContent()) {
-			for (User user : users) {
-				DomainObjectSelect2Model<?> model = new DomainObjectSelect2Model<>(user.getId(), user.toString());
-				results.add(model);
-			}
+		for (Suggestion user : users) {
+			DomainObjectSelect2Model<?> model = new DomainObjectSelect2Model<>(user.getId(), user.getLabel());
+			results.add(model);
 		}
 		return results;
 	}
@@ -8,10 +8,12 @@ import org.springframework.ui.Model;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.HandlerMapping;
 import org.wallride.domain.BlogLanguage;
 import org.wallride.domain.Post;
 import org.wallride.domain.Category;
+import org.wallride.model.PostCursor;
 import org.wallride.model.PostSearchRequest;
 import org.wallride.model.CategorySearchRequest;
 import org.wallride.service.PostService;
@@ -47,6 +49,8 @@ public class CategoryController {
     public String post(
             @PathVariable String code,
             @PageableDefault Pageable pageable,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
             BlogLanguage blogLanguage,
             Model model,
             HttpServletRequest servletRequest) {
@@ -64,12 +68,14 @@ public class CategoryController {
 
         PostSearchRequest request = new PostSearchRequest(category.getLanguage());
         request.withCategoryCodes(code);
+        request.withAfter(PostCursor.parse(after));
+        request.withBefore(PostCursor.parse(before));
 
         Page<Post> posts = postService.getPosts(request, pageable);
         model.addAttribute("category", category);
         model.addAttribute("posts", posts);
         model.addAttribute("pageable", pageable);
-        model.addAttribute("pagination", new Pagination<>(posts, servletRequest));
+        model.addAttribute("pagination", new Pagination<>(posts, servletRequest, PostCursor::of));
         return "category/post";
     }
 
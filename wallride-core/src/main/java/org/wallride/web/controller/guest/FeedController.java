@@ -23,11 +23,11 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.wallride.domain.Article;
 import org.wallride.domain.BlogLanguage;
 import org.wallride.domain.Category;
 import org.wallride.domain.Post;
 import org.wallride.model.ArticleSearchRequest;
+import org.wallride.model.ArticleView;
 import org.wallride.service.ArticleService;
 import org.wallride.service.CategoryService;
 
@@ -55,7 +55,7 @@ public class FeedController {
 		ArticleSearchRequest request = new ArticleSearchRequest()
 				.withStatus(Post.Status.PUBLISHED)
 				.withLanguage(blogLanguage.getLanguage());
-		Page<Article> articles = articleService.getArticles(request, DEFAULT_PAGE_REQUEST);
+		Page<ArticleView> articles = articleService.getArticleViews(request, DEFAULT_PAGE_REQUEST);
 		model.addAttribute("articles", new TreeSet<>(articles.getContent()));
 		return "rssFeedView";
 	}
@@ -82,7 +82,7 @@ public class FeedController {
 				.withLanguage(blogLanguage.getLanguage())
 				.withCategoryIds(categoryIds);
 
-		Page<Article> articles = articleService.getArticles(request, DEFAULT_PAGE_REQUEST);
+		Page<ArticleView> articles = articleService.getArticleViews(request, DEFAULT_PAGE_REQUEST);
 		model.addAttribute("articles", new TreeSet<>(articles.getContent()));
 		return "rssFeedView";
 	}
@@ -25,8 +25,11 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.wallride.domain.Article;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.wallride.domain.BlogLanguage;
+import org.wallride.model.ArticleSearchRequest;
+import org.wallride.model.ArticleView;
+import org.wallride.model.PostCursor;
 import org.wallride.service.ArticleService;
 import org.wallride.web.controller.guest.article.ArticleSearchForm;
 import org.wallride.web.support.Pagination;
@@ -41,16 +44,21 @@ public class IndexController {
 	@RequestMapping
 	public String index(
 			@PageableDefault(10) Pageable pageable,
+			@RequestParam(required = false) String after,
+			@RequestParam(required = false) String before,
 			BlogLanguage blogLanguage,
 			Model model,
 			HttpServletRequest servletRequest) {
 		ArticleSearchForm form = new ArticleSearchForm();
 		form.setLanguage(blogLanguage.getLanguage());
 
-		Page<Article> articles = articleService.getArticles(form.toArticleSearchRequest(), pageable);
+		ArticleSearchRequest request = form.toArticleSearchRequest()
+				.withAfter(PostCursor.parse(after))
+				.withBefore(PostCursor.parse(before));
+		Page<ArticleView> articles = articleService.getArticleViews(request, pageable);
 		model.addAttribute("articles", articles);
 		model.addAttribute("pageable", pageable);
-		model.addAttribute("pagination", new Pagination<>(articles, servletRequest));
+		model.addAttribute("pagination", new Pagination<>(articles, servletRequest, PostCursor::of));
 		return "index";
 //
 //
@@ -28,7 +28,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.wallride.domain.BlogLanguage;
 import org.wallride.domain.Post;
+import org.wallride.model.PostCursor;
 import org.wallride.model.PostSearchRequest;
+import org.wallride.repository.HighlightedPage;
 import org.wallride.service.PostService;
 import org.wallride.web.support.Pagination;
 
@@ -43,15 +45,21 @@ public class SearchController {
 	public String search(
 			@RequestParam String keyword,
 			@PageableDefault(50) Pageable pageable,
+			@RequestParam(required = false) String after,
+			@RequestParam(required = false) String before,
 			BlogLanguage blogLanguage,
 			Model model,
 			HttpServletRequest servletRequest) {
-		PostSearchRequest request = new PostSearchRequest(blogLanguage.getLanguage()).withKeyword(keyword);
-		Page<Post> posts = postService.getPosts(request, pageable);
+		PostSearchRequest request = new PostSearchRequest(blogLanguage.getLanguage()).withKeyword(keyword)
+				.withAfter(PostCursor.parse(after))
+				.withBefore(PostCursor.parse(before));
+		HighlightedPage<Post> result = postService.getPostsWithHighlights(request, pageable);
+		Page<Post> posts = result.getPage();
 		model.addAttribute("keyword", keyword);
 		model.addAttribute("posts", posts);
+		model.addAttribute("highlights", result.getHighlights());
 		model.addAttribute("pageable", pageable);
-		model.addAttribute("pagination", new Pagination<>(posts, servletRequest));
+		model.addAttribute("pagination", new Pagination<>(posts, servletRequest, PostCursor::of));
 		return "search";
 	}
 }
@@ -7,9 +7,11 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.wallride.domain.BlogLanguage;
 import org.wallride.domain.Post;
 import org.wallride.domain.Tag;
+import org.wallride.model.PostCursor;
 import org.wallride.model.PostSearchRequest;
 import org.wallride.model.TagSearchRequest;
 import org.wallride.service.PostService;
@@ -45,6 +47,8 @@ public class TagController {
 	public String post(
 			@PathVariable String name,
 			@PageableDefault Pageable pageable,
+			@RequestParam(required = false) String after,
+			@RequestParam(required = false) String before,
 			BlogLanguage blogLanguage,
 			Model model,
 			HttpServletRequest servletRequest) {
@@ -58,12 +62,14 @@ public class TagController {
 
 		PostSearchRequest request = new PostSearchRequest(tag.getLanguage());
 		request.withTagNames(name);
+		request.withAfter(PostCursor.parse(after));
+		request.withBefore(PostCursor.parse(before));
 
 		Page<Post> posts = postService.getPosts(request, pageable);
 		model.addAttribute("tag", tag);
 		model.addAttribute("posts", posts);
 		model.addAttribute("pageable", pageable);
-		model.addAttribute("pagination", new Pagination<>(posts, servletRequest));
+		model.addAttribute("pagination", new Pagination<>(posts, servletRequest, PostCursor::of));
 		return "tag/post";
 	}
 }
@@ -21,22 +21,20 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
-import org.springframework.util.CollectionUtils;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
-import org.wallride.domain.Article;
 import org.wallride.domain.BlogLanguage;
 import org.wallride.domain.Comment;
 import org.wallride.domain.Post;
-import org.wallride.model.ArticleSearchRequest;
+import org.wallride.model.ArticleNavigation;
+import org.wallride.model.ArticleView;
 import org.wallride.model.CommentSearchRequest;
 import org.wallride.service.ArticleService;
 import org.wallride.service.CommentService;
 import org.wallride.web.support.HttpNotFoundException;
 
 import java.time.LocalDate;
-import java.util.List;
 
 @Controller
 @RequestMapping("/{year:[0-9]{4}}/{month:[0-9]{2}}/{day:[0-9]{2}}/{code:.+}")
@@ -57,9 +55,9 @@ public class ArticleDescribeController {
 			BlogLanguage blogLanguage,
 			Model model,
 			RedirectAttributes redirectAttributes) {
-		Article article = articleService.getArticleByCode(code, blogLanguage.getLanguage());
+		ArticleView article = articleService.getArticleViewByCode(code, blogLanguage.getLanguage());
 		if (article == null) {
-			article = articleService.getArticleByCode(code, blogLanguage.getBlog().getDefaultLanguage());
+			article = articleService.getArticleViewByCode(code, blogLanguage.getBlog().getDefaultLanguage());
 		}
 		if (article == null) {
 			throw new HttpNotFoundException();
@@ -82,17 +80,14 @@ public class ArticleDescribeController {
 		request.setApproved(Boolean.TRUE);
 		Page<Comment> comments = commentService.getComments(request, PageRequest.of(0, 1000));
 
-		List<Long> ids = articleService.getArticleIds(new ArticleSearchRequest().withStatus(Post.Status.PUBLISHED));
-		if (!CollectionUtils.isEmpty(ids)) {
-			int index = ids.indexOf(article.getId());
-			if (index < ids.size() - 1) {
-				Article next = articleService.getArticleById(ids.get(index + 1));
-				model.addAttribute("next", next);
-			}
-			if (index > 0) {
-				Article prev = articleService.getArticleById(ids.get(index - 1));
-				model.addAttribute("prev", prev);
-			}
+		ArticleNavigation navigation = articleService.getArticleNavigation(article.getLanguage());
+		Long nextId = navigation.getNextId(article.getId(), article.getDate());
+		if (nextId != null) {
+			model.addAttribute("next", articleService.getArticleViewById(nextId));
+		}
+		Long prevId = navigation.getPreviousId(article.getId(), article.getDate());
+		if (prevId != null) {
+			model.addAttribute("prev", articleService.getArticleViewById(prevId));
 		}
 		model.addAttribute("article", article);
 		model.addAttribute("comments", comments);
@@ -28,9 +28,12 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.wallride.domain.Article;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.wallride.domain.BlogLanguage;
 import org.wallride.domain.User;
+import org.wallride.model.ArticleSearchRequest;
+import org.wallride.model.ArticleView;
+import org.wallride.model.PostCursor;
 import org.wallride.service.ArticleService;
 import org.wallride.service.UserService;
 import org.wallride.web.support.HttpNotFoundException;
@@ -53,6 +56,8 @@ public class ArticleIndexController {
 	public String year(
 			@PathVariable int year,
 			@PageableDefault(10) Pageable pageable,
+			@RequestParam(required = false) String after,
+			@RequestParam(required = false) String before,
 			BlogLanguage blogLanguage,
 			HttpServletRequest servletRequest,
 			Model model) {
@@ -61,10 +66,13 @@ public class ArticleIndexController {
 		form.setDateFrom(LocalDateTime.of(year, 1, 1, 0, 0, 0));
 		form.setDateTo(LocalDateTime.of(year, 12, 31, 0, 0, 0));
 
-		Page<Article> articles = articleService.getArticles(form.toArticleSearchRequest(), pageable);
+		ArticleSearchRequest request = form.toArticleSearchRequest()
+				.withAfter(PostCursor.parse(after))
+				.withBefore(PostCursor.parse(before));
+		Page<ArticleView> articles = articleService.getArticleViews(request, pageable);
 		model.addAttribute("articles", articles);
 		model.addAttribute("pageable", pageable);
-		model.addAttribute("pagination", new Pagination<>(articles, servletRequest));
+		model.addAttribute("pagination", new Pagination<>(articles, servletRequest, PostCursor::of));
 		return "article/index";
 	}
 
@@ -73,6 +81,8 @@ public class ArticleIndexController {
 			@PathVariable int year,
 			@PathVariable int month,
 			@PageableDefault(10) Pageable pageable,
+			@RequestParam(required = false) String after,
+			@RequestParam(required = false) String before,
 			BlogLanguage blogLanguage,
 			HttpServletRequest servletRequest,
 			Model model) {
@@ -82,10 +92,13 @@ public class ArticleIndexController {
 		form.setDateFrom(LocalDateTime.of(year, month, 1, 0, 0, 0));
 		form.setDateTo(LocalDateTime.of(year, month, date.getMonth().length(true), 23, 59, 59));
 
-		Page<Article> articles = articleService.getArticles(form.toArticleSearchRequest(), pageable);
+		ArticleSearchRequest request = form.toArticleSearchRequest()
+				.withAfter(PostCursor.parse(after))
+				.withBefore(PostCursor.parse(before));
+		Page<ArticleView> articles = articleService.getArticleViews(request, pageable);
 		model.addAttribute("articles", articles);
 		model.addAttribute("pageable", pageable);
-		model.addAttribute("pagination", new Pagination<>(articles, servletRequest));
+		model.addAttribute("pagination", new Pagination<>(articles, servletRequest, PostCursor::of));
 		return "article/index";
 	}
 
@@ -95,6 +108,8 @@ public class ArticleIndexController {
 			@PathVariable int month,
 			@PathVariable int day,
 			@PageableDefault(10) Pageable pageable,
+			@RequestParam(required = false) String after,
+			@RequestParam(required = false) String before,
 			BlogLanguage blogLanguage,
 			HttpServletRequest servletRequest,
 			Model model) {
@@ -103,10 +118,13 @@ public class ArticleIndexController {
 		form.setDateFrom(LocalDateTime.of(year, month, day, 0, 0, 0));
 		form.setDateTo(LocalDateTime.of(year, month, day, 23, 59, 59));
 
-		Page<Article> articles = articleService.getArticles(form.toArticleSearchRequest(), pageable);
+		ArticleSearchRequest request = form.toArticleSearchRequest()
+				.withAfter(PostCursor.parse(after))
+				.withBefore(PostCursor.parse(before));
+		Page<ArticleView> articles = articleService.getArticleViews(request, pageable);
 		model.addAttribute("articles", articles);
 		model.addAttribute("pageable", pageable);
-		model.addAttribute("pagination", new Pagination<>(articles, servletRequest));
+		model.addAttribute("pagination", new Pagination<>(articles, servletRequest, PostCursor::of));
 		return "article/index";
 	}
 
@@ -114,6 +132,8 @@ public class ArticleIndexController {
 	public String author(
 			@PathVariable String loginId,
 			@PageableDefault(10) Pageable pageable,
+			@RequestParam(required = false) String after,
+			@RequestParam(required = false) String before,
 			BlogLanguage blogLanguage,
 			HttpServletRequest servletRequest,
 			Model model) {
@@ -126,11 +146,14 @@ public class ArticleIndexController {
 		form.setLanguage(blogLanguage.getLanguage());
 		form.setAuthorId(author.getId());
 
-		Page<Article> articles = articleService.getArticles(form.toArticleSearchRequest(), pageable);
+		ArticleSearchRequest request = form.toArticleSearchRequest()
+				.withAfter(PostCursor.parse(after))
+				.withBefore(PostCursor.parse(before));
+		Page<ArticleView> articles = articleService.getArticleViews(request, pageable);
 		model.addAttribute("author", author);
 		model.addAttribute("articles", articles);
 		model.addAttribute("pageable", pageable);
-		model.addAttribute("pagination", new Pagination<>(articles, servletRequest));
+		model.addAttribute("pagination", new Pagination<>(articles, servletRequest, PostCursor::of));
 		return "article/author";
 	}
 }
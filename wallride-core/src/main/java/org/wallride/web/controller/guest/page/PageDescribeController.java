@@ -28,6 +28,7 @@ import org.wallride.domain.BlogLanguage;
 import org.wallride.domain.Page;
 import org.wallride.domain.Post;
 import org.wallride.model.PageSearchRequest;
+import org.wallride.model.PageView;
 import org.wallride.service.BlogService;
 import org.wallride.service.PageService;
 import org.wallride.web.support.BlogLanguageMethodArgumentResolver;
@@ -79,9 +80,9 @@ public class PageDescribeController extends AbstractController {
 		Map<String, String> variables = pathMatcher.extractUriTemplateVariables(PATH_PATTERN, path);
 		request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, variables);
 
-		Page page = pageService.getPageByCode(variables.get("code"), blogLanguage.getLanguage());
+		PageView page = pageService.getPageViewByCode(variables.get("code"), blogLanguage.getLanguage());
 		if (page == null) {
-			page = pageService.getPageByCode(variables.get("code"), blogLanguage.getBlog().getDefaultLanguage());
+			page = pageService.getPageViewByCode(variables.get("code"), blogLanguage.getBlog().getDefaultLanguage());
 		}
 		if (page == null) {
 			throw new HttpNotFoundException();
@@ -93,7 +94,7 @@ public class PageDescribeController extends AbstractController {
 		return createModelAndView(page);
 	}
 
-	protected ModelAndView createModelAndView(Page page) {
+	protected ModelAndView createModelAndView(PageView page) {
 		ModelAndView modelAndView = new ModelAndView();
 
 		List<Long> ids = pageService.getPageIds(new PageSearchRequest().withStatus(Post.Status.PUBLISHED));
@@ -20,9 +20,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.thymeleaf.context.IExpressionContext;
-import org.wallride.domain.Article;
 import org.wallride.domain.Post;
 import org.wallride.model.ArticleSearchRequest;
+import org.wallride.model.ArticleView;
 import org.wallride.support.ArticleUtils;
 
 import java.util.ArrayList;
@@ -39,8 +39,8 @@ public class Articles {
 		this.articleUtils = articleUtils;
 	}
 
-	public List<Article> search(Condition condition) {
-		Page<Article> result = articleUtils.search(condition.buildArticleSearchRequest(), condition.size);
+	public List<ArticleView> search(Condition condition) {
+		Page<ArticleView> result = articleUtils.search(condition.buildArticleSearchRequest(), condition.size);
 		return new ArrayList<>(result.getContent());
 	}
 
@@ -24,8 +24,8 @@ import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.servlet.view.feed.AbstractAtomFeedView;
 import org.springframework.web.util.UriComponentsBuilder;
-import org.wallride.domain.Article;
 import org.wallride.domain.Blog;
+import org.wallride.model.ArticleView;
 import org.wallride.service.BlogService;
 
 import javax.servlet.http.HttpServletRequest;
@@ -69,9 +69,9 @@ public class AtomFeedView extends AbstractAtomFeedView {
 			HttpServletRequest request,
 			HttpServletResponse response)
 	throws Exception {
-		Set<Article> articles = (Set<Article>)model.get("articles");
+		Set<ArticleView> articles = (Set<ArticleView>)model.get("articles");
 		List<Entry> entries = new ArrayList<>(articles.size());
-		for (Article article : articles) {
+		for (ArticleView article : articles) {
 			Entry entry = new Entry();
 			entry.setTitle(article.getTitle());
 			entry.setPublished(Date.from(article.getDate().atZone(ZoneId.systemDefault()).toInstant()));
@@ -89,7 +89,7 @@ public class AtomFeedView extends AbstractAtomFeedView {
 		return entries;
 	}
 
-	private String link(Article article) {
+	private String link(ArticleView article) {
 		UriComponentsBuilder builder = ServletUriComponentsBuilder.fromCurrentContextPath();
 		Map<String, Object> params = new HashMap<>();
 
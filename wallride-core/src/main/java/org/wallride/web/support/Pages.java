@@ -22,6 +22,7 @@ import org.thymeleaf.context.IExpressionContext;
 import org.wallride.domain.Page;
 import org.wallride.domain.Post;
 import org.wallride.model.PageSearchRequest;
+import org.wallride.model.PageView;
 import org.wallride.model.TreeNode;
 import org.wallride.support.PageUtils;
 
@@ -41,19 +42,19 @@ public class Pages {
 		this.pageUtils = pageUtils;
 	}
 
-	public List<Page> getAllPages() {
+	public List<PageView> getAllPages() {
 		return pageUtils.getAllPages();
 	}
 
-	public List<Page> getAllPages(boolean includeUnpublished) {
+	public List<PageView> getAllPages(boolean includeUnpublished) {
 		return pageUtils.getAllPages(includeUnpublished);
 	}
 
-	public List<TreeNode<Page>> getNodes() {
+	public List<TreeNode<PageView>> getNodes() {
 		return pageUtils.getNodes();
 	}
 
-	public List<TreeNode<Page>> getNodes(boolean includeUnpublished) {
+	public List<TreeNode<PageView>> getNodes(boolean includeUnpublished) {
 		return pageUtils.getNodes(includeUnpublished);
 	}
 
@@ -61,16 +62,28 @@ public class Pages {
 		return pageUtils.getPaths(page);
 	}
 
+	public Map<PageView, String> getPaths(PageView page) {
+		return pageUtils.getPaths(page);
+	}
+
 	public List<Page> getChildren(Page page) {
 		return pageUtils.getChildren(page);
 	}
 
+	public List<PageView> getChildren(PageView page) {
+		return pageUtils.getChildren(page);
+	}
+
 	public List<Page> getSiblings(Page page) {
 		return pageUtils.getSiblings(page);
 	}
 
-	public List<Page> search(Condition condition) {
-		org.springframework.data.domain.Page<Page> result = pageUtils.search(condition.buildPageSearchRequest(), condition.size);
+	public List<PageView> getSiblings(PageView page) {
+		return pageUtils.getSiblings(page);
+	}
+
+	public List<PageView> search(Condition condition) {
+		org.springframework.data.domain.Page<PageView> result = pageUtils.search(condition.buildPageSearchRequest(), condition.size);
 		return new ArrayList<>(result.getContent());
 	}
 
@@ -19,11 +19,14 @@ package org.wallride.web.support;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.wallride.model.PostCursor;
 
 import javax.servlet.http.HttpServletRequest;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Function;
 
 public class Pagination<T> {
 
@@ -31,6 +34,7 @@ public class Pagination<T> {
 
 	private Page<T> page;
 	private String url;
+	private Function<T, PostCursor> cursor;
 
 	public Pagination(Page<T> page, String url) {
 		this.page = page;
@@ -42,10 +46,57 @@ public class Pagination<T> {
 		this.url = ServletUriComponentsBuilder.fromRequest(request).replaceQueryParam("page").build().toUriString();
 	}
 
+	/**
+	 * Creates a pagination which also links the neighbouring pages by cursor, reading the cursor of
+	 * the first and last elements with the given function.
+	 */
+	public Pagination(Page<T> page, HttpServletRequest request, Function<T, PostCursor> cursor) {
+		this.page = page;
+		this.url = ServletUriComponentsBuilder.fromRequest(request).replaceQueryParam("page").replaceQueryParam("after").replaceQueryParam("before").build().toUriString();
+		this.cursor = cursor;
+	}
+
 	public String getUrl() {
 		return url;
 	}
 
+	/**
+	 * Returns whether the neighbouring pages are linked by cursor. Page numbers and totals are not
+	 * meaningful in this mode, so only the previous and next links should be rendered.
+	 */
+	public boolean isCursorMode() {
+		return cursor != null;
+	}
+
+	public String getPreviousUrl() {
+		if (isCursorMode()) {
+			return getPreviousCursorUrl();
+		}
+		return hasPreviousPage() ? UriComponentsBuilder.fromUriString(url).queryParam("page", getPreviousPageNumber()).build().toUriString() : null;
+	}
+
+	public String getNextUrl() {
+		if (isCursorMode()) {
+			return getNextCursorUrl();
+		}
+		return hasNextPage() ? UriComponentsBuilder.fromUriString(url).queryParam("page", getNextPageNumber()).build().toUriString() : null;
+	}
+
+	public String getNextCursorUrl() {
+		if (cursor == null || !page.hasContent() || !page.hasNext()) {
+			return null;
+		}
+		List<T> content = page.getContent();
+		return UriComponentsBuilder.fromUriString(url).queryParam("after", cursor.apply(content.get(content.size() - 1))).build().toUriString();
+	}
+
+	public String getPreviousCursorUrl() {
+		if (cursor == null || !page.hasContent() || !page.hasPrevious()) {
+			return null;
+		}
+		return UriComponentsBuilder.fromUriString(url).queryParam("before", cursor.apply(page.getContent().get(0))).build().toUriString();
+	}
+
 	public int getCurrentPageNumber() {
 		return page.getNumber();
 	}
@@ -96,6 +147,9 @@ public class Pagination<T> {
 
 	public List<Pageable> getPageables(Pageable currentPageable, int interval) {
 		List<Pageable> pageables = new ArrayList<>();
+		if (isCursorMode()) {
+			return pageables;
+		}
 
 		int start = page.getNumber() - interval;
 		if (start < 0) {
@@ -16,6 +16,7 @@
 
 package org.wallride.web.support;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -35,6 +36,9 @@ import org.wallride.domain.CustomField;
 import org.wallride.domain.CustomFieldValue;
 import org.wallride.domain.Page;
 import org.wallride.domain.Post;
+import org.wallride.model.ArticleView;
+import org.wallride.model.PageView;
+import org.wallride.model.PostView;
 import org.wallride.support.PostUtils;
 
 public class Posts {
@@ -83,6 +87,46 @@ public class Posts {
 		return postUtils.path(page, encode);
 	}
 
+	public String link(ArticleView article) {
+		return postUtils.link(article);
+	}
+
+	public String link(ArticleView article, boolean encode) {
+		return postUtils.link(article, encode);
+	}
+
+	public String link(PageView page) {
+		return postUtils.link(page);
+	}
+
+	public String link(PageView page, boolean encode) {
+		return postUtils.link(page, encode);
+	}
+
+	public String path(ArticleView article) {
+		return postUtils.path(article);
+	}
+
+	public String path(ArticleView article, boolean encode) {
+		return postUtils.path(article, encode);
+	}
+
+	public String path(PageView page) {
+		return postUtils.path(page);
+	}
+
+	public String path(PageView page, boolean encode) {
+		return postUtils.path(page, encode);
+	}
+
+	public List<Post> related(Post post, int size) {
+		return postUtils.related(post.getId(), post.getLanguage(), size);
+	}
+
+	public List<Post> related(PostView post, int size) {
+		return postUtils.related(post.getId(), post.getLanguage(), size);
+	}
+
 	public String metaKeywords(Post post) {
 		return post.getSeo() != null ? post.getSeo().getKeywords(): null;
 	}
@@ -95,7 +139,27 @@ public class Posts {
 		return post.getSeo() != null ? post.getSeo().getDescription(): null;
 	}
 
+	public String metaKeywords(PostView post) {
+		return post.getSeoKeywords();
+	}
+
+	public String metaAuthor(PostView post) {
+		return (post.getAuthor() != null) ? post.getAuthor().toString() : null;
+	}
+
+	public String metaDescription(PostView post) {
+		return post.getSeoDescription();
+	}
+
 	public String ogSiteName(Post post) {
+		return ogSiteName();
+	}
+
+	public String ogSiteName(PostView post) {
+		return ogSiteName();
+	}
+
+	private String ogSiteName() {
 		Blog blog = (Blog) context.getVariable("BLOG");
 		return blog.getTitle(context.getLocale().getLanguage());
 	}
@@ -104,10 +168,18 @@ public class Posts {
 		return post.getTitle();
 	}
 
+	public String ogTitle(PostView post) {
+		return post.getTitle();
+	}
+
 	public String ogType(Post post) {
 		return "article";
 	}
 
+	public String ogType(PostView post) {
+		return "article";
+	}
+
 	public String ogUrl(Article article) {
 		return link(article);
 	}
@@ -116,8 +188,23 @@ public class Posts {
 		return link(page);
 	}
 
+	public String ogUrl(ArticleView article) {
+		return link(article);
+	}
+
+	public String ogUrl(PageView page) {
+		return link(page);
+	}
+
 	public String ogImage(Post post) {
-		String path = thumbnail(post);
+		return ogImage(thumbnail(post));
+	}
+
+	public String ogImage(PostView post) {
+		return ogImage(thumbnail(post));
+	}
+
+	private String ogImage(String path) {
 		if (path == null) {
 			return null;
 		}
@@ -127,21 +214,37 @@ public class Posts {
 	}
 
 	public String title(Post post) {
-		if (post.getSeo() != null && post.getSeo().getTitle() != null) {
-			return post.getSeo().getTitle();
+		return title((post.getSeo() != null) ? post.getSeo().getTitle() : null, post.getTitle());
+	}
+
+	public String title(PostView post) {
+		return title(post.getSeoTitle(), post.getTitle());
+	}
+
+	private String title(String seoTitle, String title) {
+		if (seoTitle != null) {
+			return seoTitle;
 		}
 		Blog blog = (Blog) context.getVariable("BLOG");
 		return String.format("%s | %s",
-				post.getTitle(),
+				title,
 				blog.getTitle(context.getLocale().getLanguage()));
 	}
 
 	public String thumbnail(Post post) {
-		if (post.getCover() != null) {
-			return wallRideProperties.getMediaUrlPrefix() + post.getCover().getId();
+		return thumbnail((post.getCover() != null) ? post.getCover().getId() : null, post.getBody());
+	}
+
+	public String thumbnail(PostView post) {
+		return thumbnail(post.getCover(), post.getBody());
+	}
+
+	private String thumbnail(String coverId, String body) {
+		if (coverId != null) {
+			return wallRideProperties.getMediaUrlPrefix() + coverId;
 		}
 		else {
-			Document document = Jsoup.parse(post.getBody());
+			Document document = Jsoup.parse(body);
 			Elements elements = document.select("img");
 			for (Element element : elements) {
 				return element.attr("src");
@@ -151,14 +254,30 @@ public class Posts {
 	}
 
 	public String body(Post post) {
-		if (!StringUtils.hasText(post.getBody())) {
+		return body(post.getBody());
+	}
+
+	public String body(PostView post) {
+		return body(post.getBody());
+	}
+
+	private String body(String body) {
+		if (!StringUtils.hasText(body)) {
 			return null;
 		}
-		return parse(post.getBody());
+		return parse(body);
 	}
 
 	public String summary(Post post, int length) {
-		Document document = Jsoup.parse(post.getBody());
+		return summary(post.getBody(), length);
+	}
+
+	public String summary(PostView post, int length) {
+		return summary(post.getBody(), length);
+	}
+
+	private String summary(String body, int length) {
+		Document document = Jsoup.parse(body);
 		String summary = document.text();
 		if (!StringUtils.hasText(summary)) {
 			return summary;
@@ -185,6 +304,18 @@ public class Posts {
 		return value;
 	}
 
+	public Object customValue(PostView post, String code) {
+		Optional<PostView.CustomFieldValue> target = post.getCustomFieldValues().stream()
+				.filter(v -> v.getCustomField().getCode().equals(code))
+				.filter(v -> v.getCustomField().getLanguage().equals(post.getLanguage()))
+				.findFirst();
+		Object value = target.map(PostView.CustomFieldValue::getValue).orElse(null);
+		if (value != null && target.get().getCustomField().getFieldType().equals(CustomField.FieldType.HTML)) {
+			return parse(target.get().getTextValue());
+		}
+		return value;
+	}
+
 	protected String parse(String html) {
 		Document document = Jsoup.parse(html);
 		Elements elements = document.select("img");
@@ -23,8 +23,8 @@ import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.servlet.view.feed.AbstractRssFeedView;
 import org.springframework.web.util.UriComponentsBuilder;
-import org.wallride.domain.Article;
 import org.wallride.domain.Blog;
+import org.wallride.model.ArticleView;
 import org.wallride.service.BlogService;
 
 import javax.servlet.http.HttpServletRequest;
@@ -62,9 +62,9 @@ public class RssFeedView extends AbstractRssFeedView {
 			HttpServletRequest request,
 			HttpServletResponse response)
 	throws Exception {
-		Set<Article> articles = (Set<Article>)model.get("articles");
+		Set<ArticleView> articles = (Set<ArticleView>)model.get("articles");
 		List<Item> items = new ArrayList<>(articles.size());
-		for (Article article : articles) {
+		for (ArticleView article : articles) {
 			Item item = new Item();
 			item.setTitle(article.getTitle());
 			item.setPubDate(Date.from(article.getDate().atZone(ZoneId.systemDefault()).toInstant()));
@@ -78,7 +78,7 @@ public class RssFeedView extends AbstractRssFeedView {
 		return items;
 	}
 
-	private String link(Article article) {
+	private String link(ArticleView article) {
 		UriComponentsBuilder builder = ServletUriComponentsBuilder.fromCurrentContextPath();
 		Map<String, Object> params = new HashMap<>();
 
@@ -23,6 +23,7 @@ import org.thymeleaf.context.IExpressionContext;
 import org.wallride.autoconfigure.WallRideProperties;
 import org.wallride.domain.Blog;
 import org.wallride.domain.User;
+import org.wallride.model.PostView;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -55,10 +56,34 @@ public class Users {
 		return path(builder, user, encode);
 	}
 
+	public String link(PostView.Author author) {
+		UriComponentsBuilder builder = ServletUriComponentsBuilder.fromCurrentContextPath();
+		return path(builder, author.getLoginId(), true);
+	}
+
+	public String link(PostView.Author author, boolean encode) {
+		UriComponentsBuilder builder = ServletUriComponentsBuilder.fromCurrentContextPath();
+		return path(builder, author.getLoginId(), encode);
+	}
+
+	public String path(PostView.Author author) {
+		UriComponentsBuilder builder = UriComponentsBuilder.fromPath("");
+		return path(builder, author.getLoginId(), true);
+	}
+
+	public String path(PostView.Author author, boolean encode) {
+		UriComponentsBuilder builder = UriComponentsBuilder.fromPath("");
+		return path(builder, author.getLoginId(), encode);
+	}
+
 	private String path(UriComponentsBuilder builder, User user, boolean encode) {
+		return path(builder, user.getLoginId(), encode);
+	}
+
+	private String path(UriComponentsBuilder builder, String loginId, boolean encode) {
 		Map<String, Object> params = new HashMap<>();
 		builder.path("/author/{code}");
-		params.put("code", user.getLoginId());
+		params.put("code", loginId);
 
 		UriComponents components = builder.buildAndExpand(params);
 		if (encode) {
@@ -68,9 +93,17 @@ public class Users {
 	}
 
 	public String title(User user) {
+		return title(user.getNickname());
+	}
+
+	public String title(PostView.Author author) {
+		return title(author.getNickname());
+	}
+
+	private String title(String nickname) {
 		Blog blog = (Blog) context.getVariable("BLOG");
 		return String.format("%s | %s",
-				user.getNickname(),
+				nickname,
 				blog.getTitle(context.getLocale().getLanguage()));
 	}
 }
@@ -0,0 +1,183 @@
+package org.wallride.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.search.backend.DeleteLuceneWork;
+import org.hibernate.search.backend.IndexingMonitor;
+import org.hibernate.search.backend.LuceneWork;
+import org.hibernate.search.backend.spi.BackendQueueProcessor;
+import org.hibernate.search.exception.ErrorContext;
+import org.hibernate.search.exception.ErrorHandler;
+import org.hibernate.search.exception.SearchException;
+import org.hibernate.search.spi.WorkerBuildContext;
+import org.hibernate.search.spi.impl.PojoIndexedTypeIdentifier;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wallride.domain.Post;
+
+/**
+ * Test class for the {@link AsyncBatchingIndexBackend}.
+ */
+public class AsyncBatchingIndexBackendTests {
+
+	private final List<ErrorContext> errors = new CopyOnWriteArrayList<>();
+
+	private final List<BackendQueueProcessor> processors = new ArrayList<>();
+
+	private AsyncBatchingIndexBackend backend;
+
+	@Before
+	public void setUp() {
+		Properties properties = new Properties();
+		properties.setProperty(AsyncBatchingIndexBackend.DELAY, "10");
+		properties.setProperty(AsyncBatchingIndexBackend.MAX_RETRIES, "2");
+		ErrorHandler errorHandler = new ErrorHandler() {
+			@Override
+			public void handle(ErrorContext context) {
+				errors.add(context);
+			}
+
+			@Override
+			public void handleException(String errorMsg, Throwable exception) {
+			}
+		};
+		WorkerBuildContext context = (WorkerBuildContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { WorkerBuildContext.class },
+				(proxy, method, args) -> "getErrorHandler".equals(method.getName()) ? errorHandler : null);
+		backend = new AsyncBatchingIndexBackend();
+		backend.initialize(properties, context);
+	}
+
+	@After
+	public void tearDown() {
+		processors.forEach(BackendQueueProcessor::close);
+		backend.close();
+	}
+
+	@Test
+	public void failedBatchIsAppliedOnNextRun() throws Exception {
+		FlakyQueueProcessor delegate = new FlakyQueueProcessor(1);
+		BackendQueueProcessor processor = processor(delegate);
+		LuceneWork work = work(1);
+
+		processor.applyWork(Collections.singletonList(work), null);
+
+		assertThat(delegate.applied.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(delegate.attempts.get()).isEqualTo(2);
+		assertThat(delegate.works).containsExactly(work);
+		assertThat(errors).isEmpty();
+	}
+
+	@Test
+	public void batchFailingEveryRetryIsReported() throws Exception {
+		FlakyQueueProcessor delegate = new FlakyQueueProcessor(3);
+		BackendQueueProcessor processor = processor(delegate);
+		LuceneWork failing = work(1);
+
+		processor.applyWork(Collections.singletonList(failing), null);
+		long deadline = System.currentTimeMillis() + 5000;
+		while (errors.isEmpty() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+
+		assertThat(errors).hasSize(1);
+		assertThat(errors.get(0).getFailingOperations()).containsExactly(failing);
+		assertThat(delegate.attempts.get()).isEqualTo(3);
+
+		LuceneWork next = work(2);
+		processor.applyWork(Collections.singletonList(next), null);
+		assertThat(delegate.applied.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(delegate.works).containsExactly(next);
+	}
+
+	@Test
+	public void callbackWaitsForQueuedWork() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		FlakyQueueProcessor delegate = new FlakyQueueProcessor(0) {
+			@Override
+			public void applyWork(List<LuceneWork> workList, IndexingMonitor monitor) {
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				super.applyWork(workList, monitor);
+			}
+		};
+		BackendQueueProcessor processor = processor(delegate);
+		CountDownLatch called = new CountDownLatch(1);
+
+		processor.applyWork(Collections.singletonList(work(1)), null);
+		AsyncBatchingIndexBackend.afterQueuedWork(called::countDown);
+
+		assertThat(called.await(100, TimeUnit.MILLISECONDS)).isFalse();
+		release.countDown();
+		assertThat(called.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(delegate.works).hasSize(1);
+
+		AsyncBatchingIndexBackend.awaitQueuedWork();
+	}
+
+	@Test(expected = SearchException.class)
+	public void awaitingDroppedWorkFails() {
+		BackendQueueProcessor processor = processor(new FlakyQueueProcessor(3));
+
+		processor.applyWork(Collections.singletonList(work(1)), null);
+		AsyncBatchingIndexBackend.awaitQueuedWork();
+	}
+
+	private BackendQueueProcessor processor(BackendQueueProcessor delegate) {
+		BackendQueueProcessor processor = backend.createQueueProcessor("posts", delegate);
+		processors.add(processor);
+		return processor;
+	}
+
+	private static LuceneWork work(long id) {
+		return new DeleteLuceneWork(id, String.valueOf(id), new PojoIndexedTypeIdentifier(Post.class));
+	}
+
+	private static class FlakyQueueProcessor implements BackendQueueProcessor {
+
+		private final int failures;
+
+		private final AtomicInteger attempts = new AtomicInteger();
+
+		private final List<LuceneWork> works = new CopyOnWriteArrayList<>();
+
+		private final CountDownLatch applied = new CountDownLatch(1);
+
+		FlakyQueueProcessor(int failures) {
+			this.failures = failures;
+		}
+
+		@Override
+		public void applyWork(List<LuceneWork> workList, IndexingMonitor monitor) {
+			if (attempts.incrementAndGet() <= failures) {
+				throw new SearchException("Index is not available");
+			}
+			works.addAll(workList);
+			applied.countDown();
+		}
+
+		@Override
+		public void applyStreamWork(LuceneWork singleOperation, IndexingMonitor monitor) {
+			applyWork(Collections.singletonList(singleOperation), monitor);
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
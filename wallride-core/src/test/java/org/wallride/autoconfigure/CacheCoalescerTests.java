@@ -0,0 +1,102 @@
+package org.wallride.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.interceptor.CacheOperationInvoker;
+
+/**
+ * Test class for the callers of {@link CacheCoalescer} waiting for a load run by another caller.
+ */
+public class CacheCoalescerTests {
+
+	private final CountDownLatch loading = new CountDownLatch(1);
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@After
+	public void releaseLoad() {
+		release.countDown();
+	}
+
+	@Test
+	public void loadsOnItsOwnAfterTimeoutWithoutStaleValue() throws Exception {
+		CacheCoalescer coalescer = new CacheCoalescer(Collections.singletonMap("test", Duration.ofMillis(50)));
+		Cache cache = new ConcurrentMapCache("test");
+		startBlockingLoad(coalescer, cache);
+
+		long start = System.nanoTime();
+		String value = coalescer.get(cache, "key", () -> "own");
+
+		assertThat(value).isEqualTo("own");
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5000);
+	}
+
+	@Test
+	public void servesStaleValueAfterTimeout() throws Exception {
+		CacheCoalescer coalescer = new CacheCoalescer(Collections.singletonMap("test", Duration.ofMillis(50)));
+		Cache cache = new ConcurrentMapCache("test");
+		coalescer.stale("test", "key", "stale");
+		startBlockingLoad(coalescer, cache);
+
+		assertThat(coalescer.<String>get(cache, "key", () -> "own")).isEqualTo("stale");
+	}
+
+	@Test
+	public void interruptedWaitIsWrappedForTheCachingAspect() throws Exception {
+		CacheCoalescer coalescer = new CacheCoalescer(Collections.emptyMap());
+		Cache cache = new ConcurrentMapCache("test");
+		startBlockingLoad(coalescer, cache);
+
+		AtomicReference<Throwable> thrown = new AtomicReference<>();
+		AtomicReference<Boolean> interrupted = new AtomicReference<>();
+		Thread waiter = new Thread(() -> {
+			thrown.set(catchThrowable(() -> coalescer.get(cache, "key", () -> "own")));
+			interrupted.set(Thread.currentThread().isInterrupted());
+		});
+		waiter.start();
+		// Let the waiter block on the running load
+		Thread.sleep(100);
+		waiter.interrupt();
+		waiter.join(5000);
+
+		assertThat(thrown.get()).isInstanceOf(Cache.ValueRetrievalException.class);
+		assertThat(thrown.get().getCause()).isInstanceOf(CacheOperationInvoker.ThrowableWrapper.class);
+		assertThat(((CacheOperationInvoker.ThrowableWrapper) thrown.get().getCause()).getOriginal()).isInstanceOf(IllegalStateException.class);
+		assertThat(interrupted.get()).isTrue();
+	}
+
+	@Test
+	public void failedLoadKeepsTheOriginalException() {
+		CacheCoalescer coalescer = new CacheCoalescer(Collections.emptyMap());
+		Cache cache = new ConcurrentMapCache("test");
+		IllegalArgumentException failure = new IllegalArgumentException();
+
+		Throwable thrown = catchThrowable(() -> coalescer.get(cache, "key", () -> {
+			throw failure;
+		}));
+
+		assertThat(thrown.getCause()).isInstanceOf(CacheOperationInvoker.ThrowableWrapper.class);
+		assertThat(((CacheOperationInvoker.ThrowableWrapper) thrown.getCause()).getOriginal()).isSameAs(failure);
+	}
+
+	private void startBlockingLoad(CacheCoalescer coalescer, Cache cache) throws InterruptedException {
+		CompletableFuture.runAsync(() -> coalescer.get(cache, "key", () -> {
+			loading.countDown();
+			release.await();
+			return "loaded";
+		}));
+		loading.await();
+	}
+}
@@ -0,0 +1,106 @@
+package org.wallride.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.wallride.domain.Article;
+import org.wallride.domain.Post;
+
+/**
+ * Test class for the {@link CacheInvalidator}.
+ */
+public class CacheInvalidatorTests {
+
+	private final List<Set<CacheDependency>> invalidated = new ArrayList<>();
+
+	private final CacheInvalidator invalidator = new CacheInvalidator(null, null, null, null) {
+		@Override
+		public void invalidate(String cacheName, Collection<CacheDependency> dependencies) {
+			invalidated.add(new HashSet<>(dependencies));
+		}
+	};
+
+	@Test
+	public void editingDraftEvictsPostOnly() {
+		Article article = article(Post.Status.DRAFT);
+		CacheInvalidator.Listing listed = CacheInvalidator.listing(article);
+		article.setTitle("Edited");
+
+		invalidator.invalidatePost(WallRideCacheConfiguration.ARTICLE_CACHE, article, listed);
+
+		assertThat(listed).isNull();
+		assertThat(invalidated).containsExactly(dependencies(CacheDependency.post(1)));
+	}
+
+	@Test
+	public void unlistedChangeOfPublishedPostEvictsPostOnly() {
+		Article article = article(Post.Status.PUBLISHED);
+		CacheInvalidator.Listing listed = CacheInvalidator.listing(article);
+		article.setViews(100);
+		article.setUpdatedAt(LocalDateTime.now());
+
+		invalidator.invalidatePost(WallRideCacheConfiguration.ARTICLE_CACHE, article, listed);
+
+		assertThat(invalidated).containsExactly(dependencies(CacheDependency.post(1)));
+	}
+
+	@Test
+	public void listedChangeEvictsListings() {
+		Article article = article(Post.Status.PUBLISHED);
+		CacheInvalidator.Listing listed = CacheInvalidator.listing(article);
+		article.setTitle("Edited");
+
+		invalidator.invalidatePost(WallRideCacheConfiguration.ARTICLE_CACHE, article, listed);
+
+		assertThat(invalidated).containsExactly(dependencies(CacheDependency.post(1), CacheDependency.language("en")));
+	}
+
+	@Test
+	public void unpublishingEvictsListingsOfPreviousLanguage() {
+		Article article = article(Post.Status.PUBLISHED);
+		CacheInvalidator.Listing listed = CacheInvalidator.listing(article);
+		article.setLanguage("ja");
+		article.setStatus(Post.Status.DRAFT);
+
+		invalidator.invalidatePost(WallRideCacheConfiguration.ARTICLE_CACHE, article, listed);
+
+		assertThat(invalidated).containsExactly(dependencies(CacheDependency.post(1), CacheDependency.language("en")));
+	}
+
+	@Test
+	public void deletingDraftEvictsPostOnly() {
+		invalidator.invalidatePost(WallRideCacheConfiguration.ARTICLE_CACHE, article(Post.Status.DRAFT));
+		invalidator.invalidatePost(WallRideCacheConfiguration.ARTICLE_CACHE, article(Post.Status.PUBLISHED));
+
+		assertThat(invalidated).containsExactly(
+				dependencies(CacheDependency.post(1)),
+				dependencies(CacheDependency.post(1), CacheDependency.language("en")));
+	}
+
+	private static Article article(Post.Status status) {
+		Article article = new Article();
+		article.setId(1);
+		article.setCode("article");
+		article.setLanguage("en");
+		article.setTitle("Article");
+		article.setBody("<p>Body</p>");
+		article.setDate(LocalDateTime.of(2020, 1, 1, 0, 0));
+		article.setStatus(status);
+		return article;
+	}
+
+	private static Set<CacheDependency> dependencies(CacheDependency... dependencies) {
+		Set<CacheDependency> set = new HashSet<>();
+		for (CacheDependency dependency : dependencies) {
+			set.add(dependency);
+		}
+		return set;
+	}
+}
@@ -0,0 +1,47 @@
+package org.wallride.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.LinkedMultiValueMap;
+import org.wallride.domain.Post;
+import org.wallride.model.ArticleSearchRequest;
+
+/**
+ * Test class for the {@link HotKeyArgs}.
+ */
+public class HotKeyArgsTests {
+
+	@Test
+	public void pagedListingRoundTrips() {
+		ArticleSearchRequest request = new ArticleSearchRequest("en")
+				.withStatus(Post.Status.PUBLISHED)
+				.withDateFrom(LocalDateTime.of(2020, 1, 1, 0, 0))
+				.withCategoryCodes("news")
+				.withTagNames("java", "spring");
+		Pageable pageable = PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "date"));
+
+		assertThat(HotKeyArgs.read(HotKeyArgs.write(request), ArticleSearchRequest.class)).isEqualTo(request);
+		assertThat(HotKeyArgs.read(HotKeyArgs.write(pageable), Pageable.class)).isEqualTo(pageable);
+		assertThat(HotKeyArgs.read(HotKeyArgs.write(Pageable.unpaged()), Pageable.class)).isEqualTo(Pageable.unpaged());
+	}
+
+	@Test
+	public void requestWithCustomFieldsIsNotSaved() {
+		ArticleSearchRequest request = new ArticleSearchRequest("en")
+				.withCustomFields(new LinkedMultiValueMap<>());
+
+		assertThat(HotKeyArgs.write(request)).isNull();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownPropertyIsRejected() throws Exception {
+		HotKeyArgs.read(new ObjectMapper().readTree("{\"target\":\"x\"}"), ArticleSearchRequest.class);
+	}
+}
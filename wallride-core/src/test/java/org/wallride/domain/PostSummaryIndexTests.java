@@ -0,0 +1,98 @@
+package org.wallride.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.search.Query;
+import org.hibernate.search.engine.ProjectionConstants;
+import org.hibernate.search.jpa.FullTextEntityManager;
+import org.hibernate.search.jpa.FullTextQuery;
+import org.hibernate.search.jpa.Search;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.wallride.autoconfigure.WallRideProperties;
+import org.wallride.model.PostSummary;
+import org.wallride.support.PostSummaryBridge;
+import org.wallride.test.TestConfiguration;
+
+/**
+ * Test class for the summary of a {@link Post} stored in its index document.
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration(classes = TestConfiguration.class)
+@AutoConfigurationPackage
+@DataJpaTest
+public class PostSummaryIndexTests {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@BeforeClass
+	public static void beforeClass() {
+		System.setProperty(WallRideProperties.HOME_PROPERTY, System.getProperty("java.io.tmpdir"));
+	}
+
+	@Test
+	public void renamingTagUpdatesSummary() {
+		FullTextEntityManager fullTextEntityManager = Search.getFullTextEntityManager(this.entityManager.getEntityManager());
+
+		User author = new User();
+		author.setLoginId("author");
+		author.setLoginPassword("password");
+		author.setName(new PersonalName("Taro", "Yamada"));
+		author.setEmail("author@example.com");
+		this.entityManager.persist(author);
+
+		Tag tag = new Tag();
+		tag.setName("before");
+		tag.setLanguage("en");
+		long tagId = this.entityManager.persist(tag).getId();
+
+		Article article = new Article();
+		article.setCode("article");
+		article.setLanguage("en");
+		article.setTitle("Article");
+		article.setDate(LocalDateTime.of(2020, 1, 1, 0, 0));
+		article.setStatus(Post.Status.PUBLISHED);
+		article.setAuthor(author);
+		article.getTags().add(tag);
+		long articleId = this.entityManager.persist(article).getId();
+
+		this.entityManager.flush();
+		fullTextEntityManager.flushToIndexes();
+		this.entityManager.clear();
+		assertThat(summary(fullTextEntityManager, articleId).getTags().get(0).getName()).isEqualTo("before");
+
+		tag = this.entityManager.find(Tag.class, tagId);
+		tag.setName("after");
+		this.entityManager.flush();
+		fullTextEntityManager.flushToIndexes();
+		this.entityManager.clear();
+
+		PostSummary summary = summary(fullTextEntityManager, articleId);
+		assertThat(summary.getTags()).hasSize(1);
+		assertThat(summary.getTags().get(0).getId()).isEqualTo(tagId);
+		assertThat(summary.getTags().get(0).getName()).isEqualTo("after");
+	}
+
+	private PostSummary summary(FullTextEntityManager fullTextEntityManager, long id) {
+		Query query = fullTextEntityManager.getSearchFactory().buildQueryBuilder().forEntity(Post.class).get()
+				.keyword().onField("id").matching(id).createQuery();
+		FullTextQuery persistenceQuery = fullTextEntityManager.createFullTextQuery(query, Post.class);
+		persistenceQuery.setProjection(ProjectionConstants.ID, ProjectionConstants.DOCUMENT);
+		@SuppressWarnings("unchecked")
+		List<Object[]> rows = persistenceQuery.getResultList();
+		assertThat(rows).hasSize(1);
+		return PostSummaryBridge.read((Long) rows.get(0)[0], (Document) rows.get(0)[1]);
+	}
+}
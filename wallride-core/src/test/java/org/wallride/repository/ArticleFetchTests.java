@@ -0,0 +1,143 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wallride.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.search.jpa.FullTextEntityManager;
+import org.hibernate.search.jpa.Search;
+import org.hibernate.stat.Statistics;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.wallride.autoconfigure.WallRideProperties;
+import org.wallride.domain.Article;
+import org.wallride.domain.Category;
+import org.wallride.domain.PersonalName;
+import org.wallride.domain.Post;
+import org.wallride.domain.Tag;
+import org.wallride.domain.User;
+import org.wallride.model.ArticleSearchRequest;
+import org.wallride.test.TestConfiguration;
+
+/**
+ * Test class for the loading of a page of {@link Article}s searched by {@link ArticleRepository}
+ * and their collections.
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration(classes = TestConfiguration.class)
+@AutoConfigurationPackage
+@DataJpaTest
+public class ArticleFetchTests {
+
+	private static final int PAGE_SIZE = 20;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private ArticleRepository articleRepository;
+
+	@BeforeClass
+	public static void beforeClass() {
+		System.setProperty(WallRideProperties.HOME_PROPERTY, System.getProperty("java.io.tmpdir"));
+	}
+
+	@Test
+	public void collectionsAreLoadedInBatches() {
+		FullTextEntityManager fullTextEntityManager = Search.getFullTextEntityManager(this.entityManager.getEntityManager());
+		// The index is not rolled back with the other tests
+		fullTextEntityManager.purgeAll(Article.class);
+		fullTextEntityManager.flushToIndexes();
+
+		User author = new User();
+		author.setLoginId("author");
+		author.setLoginPassword("password");
+		author.setName(new PersonalName("Taro", "Yamada"));
+		author.setEmail("author@example.com");
+		this.entityManager.persist(author);
+
+		List<Category> categories = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			Category category = new Category();
+			category.setCode("category" + i);
+			category.setLanguage("en");
+			category.setName("Category " + i);
+			category.setLft(i * 2 + 1);
+			category.setRgt(i * 2 + 2);
+			categories.add(this.entityManager.persist(category));
+		}
+
+		List<Tag> tags = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			Tag tag = new Tag();
+			tag.setName("tag" + i);
+			tag.setLanguage("en");
+			tags.add(this.entityManager.persist(tag));
+		}
+
+		for (int i = 0; i < PAGE_SIZE; i++) {
+			Article article = new Article();
+			article.setCode("article" + i);
+			article.setLanguage("en");
+			article.setTitle("Article " + i);
+			article.setDate(LocalDateTime.of(2020, 1, 1, 0, 0).plusDays(i));
+			article.setStatus(Post.Status.PUBLISHED);
+			article.setAuthor(author);
+			article.getCategories().addAll(categories);
+			article.getTags().addAll(tags);
+			this.entityManager.persist(article);
+		}
+		this.entityManager.flush();
+		fullTextEntityManager.flushToIndexes();
+		this.entityManager.clear();
+
+		Statistics statistics = this.entityManager.getEntityManager().getEntityManagerFactory()
+				.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+
+		Page<Article> articles = this.articleRepository.search(new ArticleSearchRequest("en"), PageRequest.of(0, PAGE_SIZE));
+		for (Article article : articles) {
+			assertThat(article.getAuthor().getLoginId()).isEqualTo("author");
+			assertThat(article.getCategories()).hasSize(categories.size());
+			assertThat(article.getTags()).hasSize(tags.size());
+			assertThat(article.getCustomFieldValues()).isEmpty();
+		}
+
+		// The page with its author, then one batched statement each for the categories, tags and custom field values
+		assertThat(articles.getContent()).hasSize(PAGE_SIZE);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(4L);
+		assertThat(statistics.getCollectionFetchCount()).isEqualTo(3L);
+		assertThat(statistics.getCollectionLoadCount()).isEqualTo(3L * PAGE_SIZE);
+		assertThat(statistics.getEntityLoadCount()).isEqualTo(PAGE_SIZE + 1 + categories.size() + tags.size());
+	}
+}
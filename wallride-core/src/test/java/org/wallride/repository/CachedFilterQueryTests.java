@@ -0,0 +1,72 @@
+package org.wallride.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.apache.lucene.analysis.core.KeywordAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.RAMDirectory;
+import org.junit.Test;
+
+/**
+ * Test class for the {@link CachedFilterQuery}.
+ */
+public class CachedFilterQueryTests {
+
+	@Test
+	public void filterSeesDocumentsOfNewReader() throws Exception {
+		try (RAMDirectory directory = new RAMDirectory();
+				IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(new KeywordAnalyzer()))) {
+			writer.addDocument(post("PUBLISHED", "en"));
+			writer.addDocument(post("DRAFT", "en"));
+			writer.addDocument(post("PUBLISHED", "ja"));
+			writer.commit();
+
+			try (DirectoryReader reader = DirectoryReader.open(directory)) {
+				assertThat(count(reader, filter("PUBLISHED", "en"))).isEqualTo(1);
+				assertThat(count(reader, filter("PUBLISHED", "en"))).isEqualTo(1);
+				assertThat(count(reader, filter("PUBLISHED", "ja"))).isEqualTo(1);
+			}
+
+			writer.addDocument(post("PUBLISHED", "en"));
+			writer.commit();
+
+			try (DirectoryReader reader = DirectoryReader.open(directory)) {
+				assertThat(count(reader, filter("PUBLISHED", "en"))).isEqualTo(2);
+			}
+		}
+	}
+
+	@Test
+	public void filtersOfSameClausesAreEqual() {
+		assertThat(filter("PUBLISHED", "en").equals(filter("PUBLISHED", "en"))).isTrue();
+		assertThat(filter("PUBLISHED", "en").equals(filter("PUBLISHED", "ja"))).isFalse();
+	}
+
+	private static Query filter(String status, String language) {
+		return FullTextQueries.cachedFilter(Arrays.asList(
+				new TermQuery(new Term("status", status)),
+				new TermQuery(new Term("language", language))));
+	}
+
+	private static int count(DirectoryReader reader, Query query) throws Exception {
+		return new IndexSearcher(reader).count(query);
+	}
+
+	private static Document post(String status, String language) {
+		Document document = new Document();
+		document.add(new StringField("status", status, Field.Store.NO));
+		document.add(new StringField("language", language, Field.Store.NO));
+		return document;
+	}
+}
@@ -0,0 +1,93 @@
+package org.wallride.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.search.jpa.Search;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.wallride.autoconfigure.WallRideProperties;
+import org.wallride.domain.Article;
+import org.wallride.domain.Category;
+import org.wallride.domain.PersonalName;
+import org.wallride.domain.Post;
+import org.wallride.domain.Tag;
+import org.wallride.domain.User;
+import org.wallride.model.PostFacets;
+import org.wallride.model.PostSearchRequest;
+import org.wallride.test.TestConfiguration;
+
+/**
+ * Test class for the facet counts of {@link PostRepository}.
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration(classes = TestConfiguration.class)
+@AutoConfigurationPackage
+@DataJpaTest
+public class PostFacetsTests {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@BeforeClass
+	public static void beforeClass() {
+		System.setProperty(WallRideProperties.HOME_PROPERTY, System.getProperty("java.io.tmpdir"));
+	}
+
+	@Test
+	public void countFacetsOfAllPosts() {
+		User author = new User();
+		author.setLoginId("author");
+		author.setLoginPassword("password");
+		author.setName(new PersonalName("Taro", "Yamada"));
+		author.setEmail("author@example.com");
+		long authorId = this.entityManager.persist(author).getId();
+
+		Category category = new Category();
+		category.setCode("category");
+		category.setLanguage("en");
+		category.setName("Category");
+		category.setLft(1);
+		category.setRgt(2);
+		long categoryId = this.entityManager.persist(category).getId();
+
+		Tag tag = new Tag();
+		tag.setName("tag");
+		tag.setLanguage("en");
+		long tagId = this.entityManager.persist(tag).getId();
+
+		for (int i = 0; i < 3; i++) {
+			Article article = new Article();
+			article.setCode("article" + i);
+			article.setLanguage("en");
+			article.setTitle("Article " + i);
+			article.setDate(LocalDateTime.of(2020, 1, 1, 0, 0).plusDays(i));
+			article.setStatus(Post.Status.PUBLISHED);
+			article.setAuthor(author);
+			article.getCategories().add(category);
+			if (i > 0) {
+				article.getTags().add(tag);
+			}
+			this.entityManager.persist(article);
+		}
+		this.entityManager.flush();
+		Search.getFullTextEntityManager(this.entityManager.getEntityManager()).flushToIndexes();
+
+		PostFacets facets = postRepository.countFacets(new PostSearchRequest("en"));
+
+		assertThat(facets.getCategories().get(categoryId)).isEqualTo(3L);
+		assertThat(facets.getTags().get(tagId)).isEqualTo(2L);
+		assertThat(facets.getAuthors().get(authorId)).isEqualTo(3L);
+	}
+}
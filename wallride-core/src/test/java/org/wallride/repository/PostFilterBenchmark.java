@@ -0,0 +1,155 @@
+/*
+ * Copyright 2014 Tagbangers, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wallride.repository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.analysis.core.KeywordAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.hibernate.search.bridge.builtin.time.impl.LocalDateTimeBridge;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares a listing search on 100k posts with the drafted, status and language constraints as
+ * scoring clauses, as they were, as plain non-scoring clauses, and as the cached filter of
+ * {@link FullTextQueries#postFilter}.
+ * Run with the test classpath: {@code java org.wallride.repository.PostFilterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostFilterBenchmark {
+
+	private static final int DOCUMENTS = 100_000;
+
+	private static final int PAGE_SIZE = 20;
+
+	private RAMDirectory directory;
+
+	private DirectoryReader reader;
+
+	private IndexSearcher searcher;
+
+	private Query scoringQuery;
+
+	private Query uncachedQuery;
+
+	private Query filteredQuery;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		directory = new RAMDirectory();
+		Random random = new Random(0);
+		LocalDateTime date = LocalDateTime.of(2010, 1, 1, 0, 0);
+		try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(new KeywordAnalyzer()))) {
+			for (int id = 1; id <= DOCUMENTS; id++) {
+				date = date.plusMinutes(random.nextInt(120));
+				Document document = new Document();
+				document.add(new StringField("drafted", random.nextInt(10) == 0 ? String.valueOf(id - 1) : "_null_", Field.Store.NO));
+				document.add(new StringField("status", random.nextInt(5) == 0 ? "draft" : "published", Field.Store.NO));
+				document.add(new StringField("language", random.nextInt(3) == 0 ? "en" : "ja", Field.Store.NO));
+				document.add(new SortedDocValuesField("sortDate", new BytesRef(LocalDateTimeBridge.INSTANCE.objectToString(date))));
+				document.add(new NumericDocValuesField("sortId", id));
+				writer.addDocument(document);
+			}
+		}
+		reader = DirectoryReader.open(directory);
+		searcher = new IndexSearcher(reader);
+		// Keep Lucene's own query cache from caching either variant
+		searcher.setQueryCache(null);
+
+		Query drafted = new TermQuery(new Term("drafted", "_null_"));
+		Query status = new TermQuery(new Term("status", "published"));
+		Query language = new TermQuery(new Term("language", "ja"));
+		scoringQuery = new BooleanQuery.Builder()
+				.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST)
+				.add(drafted, BooleanClause.Occur.MUST)
+				.add(status, BooleanClause.Occur.MUST)
+				.add(language, BooleanClause.Occur.MUST)
+				.build();
+		uncachedQuery = new BooleanQuery.Builder()
+				.add(drafted, BooleanClause.Occur.FILTER)
+				.add(status, BooleanClause.Occur.FILTER)
+				.add(language, BooleanClause.Occur.FILTER)
+				.build();
+		filteredQuery = new BooleanQuery.Builder()
+				.add(FullTextQueries.cachedFilter(Arrays.asList(drafted, status, language)), BooleanClause.Occur.FILTER)
+				.build();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		reader.close();
+		directory.close();
+	}
+
+	@Benchmark
+	public TopDocs scoringClauses() throws Exception {
+		return searcher.search(scoringQuery, PAGE_SIZE, FullTextQueries.postSort(null));
+	}
+
+	@Benchmark
+	public TopDocs uncachedFilter() throws Exception {
+		return searcher.search(uncachedQuery, PAGE_SIZE, FullTextQueries.postSort(null));
+	}
+
+	@Benchmark
+	public TopDocs cachedFilter() throws Exception {
+		return searcher.search(filteredQuery, PAGE_SIZE, FullTextQueries.postSort(null));
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(PostFilterBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,81 @@
+package org.wallride.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Test class for the {@link PostHighlighter}.
+ */
+public class PostHighlighterTests {
+
+	private static final String WORDS = "lorem ipsum dolor sit amet consectetur adipiscing elit sed do eiusmod tempor ";
+
+	@Test
+	public void textIsEscaped() {
+		String text = "a <b> & \"c\"";
+
+		assertThat(PostHighlighter.highlight(text, offsets(text, "<b>"), 0, text.length()))
+				.isEqualTo("a <mark>&lt;b&gt;</mark> &amp; &quot;c&quot;");
+	}
+
+	@Test
+	public void overlappingMatchesAreMarkedOnce() {
+		String text = "wallride";
+		List<int[]> offsets = new ArrayList<>();
+		offsets.add(new int[] { 0, 4 });
+		offsets.add(new int[] { 2, 8 });
+
+		assertThat(PostHighlighter.highlight(text, offsets, 0, text.length())).isEqualTo("<mark>wall</mark>ride");
+	}
+
+	@Test
+	public void textWithoutMatchesStartsAtBeginning() {
+		String text = WORDS + WORDS + WORDS;
+
+		String snippet = PostHighlighter.snippet(text, Collections.emptyList(), 40);
+
+		assertThat(snippet).isEqualTo("lorem ipsum dolor sit amet consectetur…");
+	}
+
+	@Test
+	public void matchAtEndOfTextIsKept() {
+		String text = WORDS + WORDS + "needle";
+
+		String snippet = PostHighlighter.snippet(text, offsets(text, "needle"), 40);
+
+		assertThat(snippet.endsWith("<mark>needle</mark>")).isTrue();
+		assertThat(snippet.startsWith("…")).isTrue();
+	}
+
+	@Test
+	public void matchAtStartOfTextIsKept() {
+		String text = "needle " + WORDS + WORDS;
+
+		String snippet = PostHighlighter.snippet(text, offsets(text, "needle"), 40);
+
+		assertThat(snippet.startsWith("<mark>needle</mark> lorem")).isTrue();
+		assertThat(snippet.endsWith("…")).isTrue();
+	}
+
+	@Test
+	public void windowIsCentredOnMatchesAndCutAtWords() {
+		String text = WORDS + "needle one needle " + WORDS;
+
+		String snippet = PostHighlighter.snippet(text, offsets(text, "needle"), 40);
+
+		assertThat(snippet).isEqualTo("…tempor <mark>needle</mark> one <mark>needle</mark> lorem…");
+	}
+
+	private static List<int[]> offsets(String text, String match) {
+		List<int[]> offsets = new ArrayList<>();
+		for (int i = text.indexOf(match); i >= 0; i = text.indexOf(match, i + 1)) {
+			offsets.add(new int[] { i, i + match.length() });
+		}
+		return offsets;
+	}
+}
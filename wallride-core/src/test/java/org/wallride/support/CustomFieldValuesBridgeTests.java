@@ -0,0 +1,71 @@
+package org.wallride.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexableField;
+import org.hibernate.search.bridge.LuceneOptions;
+import org.junit.Test;
+import org.wallride.domain.CustomField;
+import org.wallride.domain.CustomFieldValue;
+
+/**
+ * Test class for the {@link CustomFieldValuesBridge}.
+ */
+public class CustomFieldValuesBridgeTests {
+
+	@Test
+	public void numbersAreDoubles() {
+		assertThat(CustomFieldValuesBridge.toNumber(CustomField.FieldType.NUMBER, "9.99")).isEqualTo(9.99);
+		assertThat(CustomFieldValuesBridge.toNumber(CustomField.FieldType.NUMBER, 10L)).isEqualTo(10.0);
+		assertThat(CustomFieldValuesBridge.toNumber(CustomField.FieldType.DATE, "2020-01-02")).isEqualTo(LocalDate.of(2020, 1, 2).toEpochDay());
+		assertThat(CustomFieldValuesBridge.toNumber(CustomField.FieldType.TEXT, "9.99")).isNull();
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void unparseableNumberIsRejected() {
+		CustomFieldValuesBridge.toNumber(CustomField.FieldType.NUMBER, "about ten");
+	}
+
+	@Test
+	public void numberValueIsIndexedAsDouble() {
+		CustomFieldValue price = value("price", CustomField.FieldType.NUMBER);
+		price.setNumberValue(1200L);
+		CustomFieldValue released = value("released", CustomField.FieldType.DATE);
+		released.setDateValue(LocalDate.of(2020, 1, 2));
+		Document document = new Document();
+
+		new CustomFieldValuesBridge().set(CustomFieldValuesBridge.FIELD, Arrays.asList(price, released), document, luceneOptions());
+
+		assertThat(document.get(CustomFieldValuesBridge.FIELD + ".price")).isEqualTo("1200");
+		IndexableField[] prices = document.getFields(CustomFieldValuesBridge.numberField("price"));
+		assertThat(prices[0].numericValue()).isEqualTo(1200.0);
+		IndexableField[] dates = document.getFields(CustomFieldValuesBridge.numberField("released"));
+		assertThat(dates[0].numericValue()).isEqualTo(LocalDate.of(2020, 1, 2).toEpochDay());
+	}
+
+	private static CustomFieldValue value(String code, CustomField.FieldType fieldType) {
+		CustomField customField = new CustomField();
+		customField.setCode(code);
+		customField.setFieldType(fieldType);
+		CustomFieldValue value = new CustomFieldValue();
+		value.setCustomField(customField);
+		return value;
+	}
+
+	private static LuceneOptions luceneOptions() {
+		return (LuceneOptions) Proxy.newProxyInstance(LuceneOptions.class.getClassLoader(), new Class<?>[] { LuceneOptions.class },
+				(proxy, method, args) -> {
+					if ("addFieldToDocument".equals(method.getName())) {
+						((Document) args[2]).add(new StringField((String) args[0], (String) args[1], Field.Store.YES));
+					}
+					return null;
+				});
+	}
+}